@@ -17,17 +17,20 @@
 package com.jraska.time.format;
 
 /**
- * Formatter allowing displaying parts of seconds in TimerViews. Implementation was optimized for performance.
- *
- * @see com.jraska.time.format.SecondFractionDisplay
+ * Copy of the original StringBuilder based FastSplitSecondFormatter, the baseline of split second formatting
+ * optimizations.
  */
-public class FastSplitSecondFormatter extends AbstractSplitSecondFormatter implements IMillisFormatter
+class BaselineSplitSecondFormatter implements IMillisFormatter
 {
 	//region Constants
 
-	protected static final char TIME_PADDING = '0';
-	protected static final char TIME_SEPARATOR = ':';
-	protected static final char FRACTION_SEPARATOR = '.';
+	private static final long MILLIS_IN_SECOND = 1000;
+	private static final long MILLIS_IN_MINUTE = 60 * MILLIS_IN_SECOND;
+	private static final long MILLIS_IN_HOUR = 60 * MILLIS_IN_MINUTE;
+
+	private static final char TIME_PADDING = '0';
+	private static final char TIME_SEPARATOR = ':';
+	private static final char FRACTION_SEPARATOR = '.';
 
 	//endregion
 
@@ -42,13 +45,8 @@ public class FastSplitSecondFormatter extends AbstractSplitSecondFormatter imple
 
 	//region Constructors
 
-	public FastSplitSecondFormatter(SecondFractionDisplay secondFractionDisplay)
+	BaselineSplitSecondFormatter(SecondFractionDisplay secondFractionDisplay)
 	{
-		if (secondFractionDisplay == null)
-		{
-			throw new IllegalArgumentException("secondFractionDisplay cannot be null");
-		}
-
 		mDecimalPlaces = secondFractionDisplay.getDecimalPlaces();
 		mDivisor = secondFractionDisplay.getDivisor();
 
@@ -57,10 +55,30 @@ public class FastSplitSecondFormatter extends AbstractSplitSecondFormatter imple
 
 	//endregion
 
-	//region AbstractSplitSecondFormatter implementation
+	//region IMillisFormatter impl
 
 	@Override
-	protected String format(long hours, long minutes, long seconds, long millis)
+	public String formatElapsedTime(long totalMs)
+	{
+		final long hours = totalMs / MILLIS_IN_HOUR;
+
+		long remainingMillis = totalMs;
+		remainingMillis -= hours * MILLIS_IN_HOUR;
+
+		final long minutes = remainingMillis / MILLIS_IN_MINUTE;
+		remainingMillis -= minutes * MILLIS_IN_MINUTE;
+
+		final long seconds = remainingMillis / MILLIS_IN_SECOND;
+		final long millis = (remainingMillis % MILLIS_IN_SECOND);
+
+		return format(hours, minutes, seconds, millis);
+	}
+
+	//endregion
+
+	//region Methods
+
+	private String format(long hours, long minutes, long seconds, long millis)
 	{
 		StringBuilder sb = mRecycleBuilder;
 		sb.setLength(0);
@@ -111,10 +129,6 @@ public class FastSplitSecondFormatter extends AbstractSplitSecondFormatter imple
 		sb.append(mRecycleSecondFraction);
 	}
 
-	//endregion
-
-	//region Static methods
-
 	private static char toDigitChar(long digit)
 	{
 		return (char) (digit + '0');
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting of whole arrays of durations value by value to Strings, in bulk to packed chars and in parallel chunks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkFormattingBenchmark
+{
+	//region Params
+
+	@Param({"1000", "100000"})
+	public int mCount;
+
+	//endregion
+
+	//region Fields
+
+	private final IBulkMillisFormatter mFormatter = new RoundingMillisDecoratorFormatter(
+			new FastSplitSecondFormatter(SecondFractionDisplay.Hundredth), 10);
+
+	private long[] mValues;
+	private char[] mOutput;
+	private int[] mTextOffsets;
+
+	private ExecutorService mExecutor;
+	private ParallelBulkFormatter mParallelFormatter;
+
+	//endregion
+
+	//region Setup
+
+	@Setup
+	public void setUp()
+	{
+		mValues = new long[mCount];
+		for (int i = 0; i < mCount; i++)
+		{
+			mValues[i] = (long) i * 7919 * 13;
+		}
+
+		mOutput = new char[BulkFormatting.maxOutputLength(mCount)];
+		mTextOffsets = new int[mCount + 1];
+
+		mExecutor = new ForkJoinPool();
+		mParallelFormatter = new ParallelBulkFormatter(mExecutor);
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		mExecutor.shutdown();
+	}
+
+	//endregion
+
+	//region Benchmarks
+
+	@Benchmark
+	public void formatStrings(Blackhole blackhole)
+	{
+		for (long value : mValues)
+		{
+			blackhole.consume(mFormatter.formatElapsedTime(value));
+		}
+	}
+
+	@Benchmark
+	public int formatBulk()
+	{
+		return mFormatter.formatElapsedTimes(mValues, 0, mCount, mOutput, 0, mTextOffsets);
+	}
+
+	@Benchmark
+	public int formatParallel() throws InterruptedException
+	{
+		return mParallelFormatter.formatElapsedTimes(mFormatter, mValues, 0, mCount, mOutput, 0, mTextOffsets);
+	}
+
+	//endregion
+}
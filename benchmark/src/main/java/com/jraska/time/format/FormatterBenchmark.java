@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of formatters for each precision and input magnitude, both String and char buffer outputs.
+ * <p/>
+ * Baseline is the original StringBuilder based split second formatter, Reference uses String.format,
+ * char output of both copies their String to the buffer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FormatterBenchmark
+{
+	//region Constants
+
+	private static final int VALUES_COUNT = 1024;
+	private static final int VALUES_MASK = VALUES_COUNT - 1;
+
+	//endregion
+
+	//region Params
+
+	@Param({"Baseline.Tenth", "Baseline.Hundredth", "Baseline.Millis",
+			"Reference.Tenth", "Reference.Hundredth", "Reference.Millis",
+			"FastSplitSecond.Tenth", "FastSplitSecond.Hundredth", "FastSplitSecond.Millis",
+			"TableSplitSecond.Tenth", "TableSplitSecond.Hundredth", "TableSplitSecond.Millis",
+			"FastSeconds", "Pattern.Hundredth"})
+	public String mFormatterName;
+
+	//10 seconds, 59 minutes, 10 hours, 1000 hours and 100 000 hours
+	@Param({"10000", "3540000", "36000000", "3600000000", "360000000000"})
+	public long mMagnitude;
+
+	//endregion
+
+	//region Fields
+
+	private ICharMillisFormatter mFormatter;
+	private final long[] mValues = new long[VALUES_COUNT];
+	private final char[] mBuffer = new char[ICharMillisFormatter.MAX_FORMATTED_LENGTH];
+	private int mIndex;
+
+	//endregion
+
+	//region Setup
+
+	@Setup
+	public void setUp()
+	{
+		mFormatter = createFormatter(mFormatterName);
+
+		//values like ticks of 7 ms interval, so all digits change
+		for (int i = 0; i < VALUES_COUNT; i++)
+		{
+			mValues[i] = mMagnitude + i * 7;
+		}
+	}
+
+	//endregion
+
+	//region Benchmarks
+
+	@Benchmark
+	public String formatString()
+	{
+		return mFormatter.formatElapsedTime(nextValue());
+	}
+
+	@Benchmark
+	public int formatChars()
+	{
+		return mFormatter.formatElapsedTime(nextValue(), mBuffer, 0);
+	}
+
+	//endregion
+
+	//region Methods
+
+	private long nextValue()
+	{
+		return mValues[mIndex++ & VALUES_MASK];
+	}
+
+	static ICharMillisFormatter createFormatter(String name)
+	{
+		if ("FastSeconds".equals(name))
+		{
+			return new FastSecondsFormatter();
+		}
+
+		//pattern giving the same text as split second formatters
+		if ("Pattern.Hundredth".equals(name))
+		{
+			return new PatternMillisFormatter("[H:]mm:ss.SS");
+		}
+
+		String[] parts = name.split("\\.");
+		SecondFractionDisplay fractionDisplay = SecondFractionDisplay.valueOf(parts[1]);
+		if ("FastSplitSecond".equals(parts[0]))
+		{
+			return new FastSplitSecondFormatter(fractionDisplay);
+		}
+
+		if ("TableSplitSecond".equals(parts[0]))
+		{
+			return new TableSplitSecondFormatter(fractionDisplay);
+		}
+
+		if ("Baseline".equals(parts[0]))
+		{
+			return new StringCopyFormatter(new BaselineSplitSecondFormatter(fractionDisplay));
+		}
+
+		if ("Reference".equals(parts[0]))
+		{
+			return new StringCopyFormatter(new ReferenceFormatter(fractionDisplay.getDecimalPlaces()));
+		}
+
+		throw new IllegalArgumentException("Unknown formatter " + name);
+	}
+
+	//endregion
+
+	//region Nested classes
+
+	/**
+	 * Char output of String formatter, copies formatted String to the buffer as callers of String formatters do.
+	 */
+	static final class StringCopyFormatter implements ICharMillisFormatter
+	{
+		private final IMillisFormatter mFormatter;
+
+		StringCopyFormatter(IMillisFormatter formatter)
+		{
+			mFormatter = formatter;
+		}
+
+		@Override
+		public String formatElapsedTime(long totalMs)
+		{
+			return mFormatter.formatElapsedTime(totalMs);
+		}
+
+		@Override
+		public int formatElapsedTime(long totalMs, char[] buffer, int offset)
+		{
+			String text = mFormatter.formatElapsedTime(totalMs);
+			text.getChars(0, text.length(), buffer, offset);
+
+			return text.length();
+		}
+	}
+
+	//endregion
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+/**
+ * Reference formatter comparing formatters with the slow but easy String.format method, the same as core tests use.
+ */
+class ReferenceFormatter implements IMillisFormatter
+{
+	//region Fields
+
+	private final int mFractionDecimalPlaces;
+	private final String mMillisFormat;
+
+	//endregion
+
+	//region Constructors
+
+	ReferenceFormatter(final int fractionDecimalPlaces)
+	{
+		if (fractionDecimalPlaces > 3 || fractionDecimalPlaces < 1)
+		{
+			throw new IllegalArgumentException("Fraction decimal places must be from 1 to 3");
+		}
+
+		mFractionDecimalPlaces = fractionDecimalPlaces;
+		mMillisFormat = "%1$s.%2$0" + fractionDecimalPlaces + "d";
+	}
+
+	//endregion
+
+	//region IMillisFormatter impl
+
+	@Override
+	public String formatElapsedTime(long totalMs)
+	{
+		String dateUtilsValue = formatSeconds(totalMs / 1000);
+
+		long fraction = totalMs % 1000;
+
+		for (int i = 0; i < 3 - mFractionDecimalPlaces; i++)
+		{
+			fraction /= 10;
+		}
+
+		return String.format(mMillisFormat, dateUtilsValue, fraction);
+	}
+
+	//endregion
+
+	//region Methods
+
+	static String formatSeconds(long totalSeconds)
+	{
+		long hours = totalSeconds / 3600;
+		long minutes = (totalSeconds % 3600) / 60;
+		long seconds = totalSeconds % 60;
+
+		if (hours > 0)
+		{
+			return String.format("%d:%02d:%02d", hours, minutes, seconds);
+		}
+
+		return String.format("%02d:%02d", minutes, seconds);
+	}
+
+	//endregion
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of rounding itself and of rounded formatting for each rounding increment.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RoundingMillisDecoratorBenchmark
+{
+	//region Constants
+
+	private static final int VALUES_COUNT = 1024;
+	private static final int VALUES_MASK = VALUES_COUNT - 1;
+
+	//endregion
+
+	//region Params
+
+	@Param({"1", "10", "20", "50", "100", "1000"})
+	public long mIncrement;
+
+	@Param({"10000", "36000000", "3600000000"})
+	public long mMagnitude;
+
+	//endregion
+
+	//region Fields
+
+	private RoundingMillisDecoratorFormatter mFormatter;
+	private final long[] mValues = new long[VALUES_COUNT];
+	private final char[] mBuffer = new char[ICharMillisFormatter.MAX_FORMATTED_LENGTH];
+	private int mIndex;
+
+	//endregion
+
+	//region Setup
+
+	@Setup
+	public void setUp()
+	{
+		mFormatter = new RoundingMillisDecoratorFormatter(new TableSplitSecondFormatter(SecondFractionDisplay.Hundredth), mIncrement);
+
+		for (int i = 0; i < VALUES_COUNT; i++)
+		{
+			mValues[i] = mMagnitude + i * 7;
+		}
+	}
+
+	//endregion
+
+	//region Benchmarks
+
+	@Benchmark
+	public long countNewMillis()
+	{
+		return mFormatter.countNewMillis(nextValue());
+	}
+
+	@Benchmark
+	public int formatChars()
+	{
+		return mFormatter.formatElapsedTime(nextValue(), mBuffer, 0);
+	}
+
+	//endregion
+
+	//region Methods
+
+	private long nextValue()
+	{
+		return mValues[mIndex++ & VALUES_MASK];
+	}
+
+	//endregion
+}
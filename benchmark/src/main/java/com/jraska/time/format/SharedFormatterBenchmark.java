@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of single formatter instance shared by several threads, each with its own buffer.
+ * Run with -t to compare scaling against {@link com.jraska.time.format.FormatterBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class SharedFormatterBenchmark
+{
+	//region Params
+
+	@Param({"FastSplitSecond.Hundredth", "TableSplitSecond.Hundredth", "FastSeconds", "Pattern.Hundredth"})
+	public String mFormatterName;
+
+	//endregion
+
+	//region Fields
+
+	private ICharMillisFormatter mFormatter;
+
+	//endregion
+
+	//region Setup
+
+	@Setup
+	public void setUp()
+	{
+		mFormatter = FormatterBenchmark.createFormatter(mFormatterName);
+	}
+
+	//endregion
+
+	//region Benchmarks
+
+	@Benchmark
+	public String formatString(ThreadState state)
+	{
+		return mFormatter.formatElapsedTime(state.nextValue());
+	}
+
+	@Benchmark
+	public int formatChars(ThreadState state)
+	{
+		return mFormatter.formatElapsedTime(state.nextValue(), state.mBuffer, 0);
+	}
+
+	//endregion
+
+	//region Nested classes
+
+	@State(Scope.Thread)
+	public static class ThreadState
+	{
+		final char[] mBuffer = new char[ICharMillisFormatter.MAX_FORMATTED_LENGTH];
+		private long mValue = 36000000;
+
+		long nextValue()
+		{
+			mValue += 7;
+			return mValue;
+		}
+	}
+
+	//endregion
+}
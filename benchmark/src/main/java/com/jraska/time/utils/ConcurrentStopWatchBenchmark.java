@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contended reads of elapsed time while another thread starts and stops the StopWatch. Compares lock-free
+ * {@link ConcurrentStopWatch} with {@link StopWatch} guarded by synchronized methods.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class ConcurrentStopWatchBenchmark
+{
+	//region Fields
+
+	private ConcurrentStopWatch mConcurrentStopWatch;
+	private SynchronizedStopWatch mSynchronizedStopWatch;
+
+	//endregion
+
+	//region Setup
+
+	@Setup
+	public void setUp()
+	{
+		mConcurrentStopWatch = new ConcurrentStopWatch(MonotonicClock.INSTANCE);
+		mConcurrentStopWatch.start();
+
+		mSynchronizedStopWatch = new SynchronizedStopWatch(new StopWatch(MonotonicClock.INSTANCE));
+		mSynchronizedStopWatch.start();
+	}
+
+	//endregion
+
+	//region Benchmarks
+
+	@Benchmark
+	@Group("lockFree")
+	@GroupThreads(3)
+	public long readLockFree()
+	{
+		return mConcurrentStopWatch.getElapsedMs();
+	}
+
+	@Benchmark
+	@Group("lockFree")
+	@GroupThreads(1)
+	public void toggleLockFree()
+	{
+		mConcurrentStopWatch.stop();
+		mConcurrentStopWatch.start();
+	}
+
+	@Benchmark
+	@Group("synchronized")
+	@GroupThreads(3)
+	public long readSynchronized()
+	{
+		return mSynchronizedStopWatch.getElapsedMs();
+	}
+
+	@Benchmark
+	@Group("synchronized")
+	@GroupThreads(1)
+	public void toggleSynchronized()
+	{
+		mSynchronizedStopWatch.stop();
+		mSynchronizedStopWatch.start();
+	}
+
+	//endregion
+
+	//region Nested classes
+
+	/**
+	 * Baseline guarding all access to StopWatch by its monitor.
+	 */
+	static final class SynchronizedStopWatch
+	{
+		private final StopWatch mStopWatch;
+
+		SynchronizedStopWatch(StopWatch stopWatch)
+		{
+			mStopWatch = stopWatch;
+		}
+
+		synchronized long getElapsedMs()
+		{
+			return mStopWatch.getElapsedMs();
+		}
+
+		synchronized void start()
+		{
+			mStopWatch.start();
+		}
+
+		synchronized void stop()
+		{
+			mStopWatch.stop();
+		}
+	}
+
+	//endregion
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of reading elapsed time from running and stopped StopWatch and of recording laps.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StopWatchBenchmark
+{
+	//region Fields
+
+	private StopWatch mRunningStopWatch;
+	private StopWatch mStoppedStopWatch;
+	private StopWatch mLapStopWatch;
+
+	//endregion
+
+	//region Setup
+
+	@Setup
+	public void setUp()
+	{
+		MonotonicClock clock = MonotonicClock.INSTANCE;
+
+		mRunningStopWatch = new StopWatch(clock);
+		mRunningStopWatch.setElapsedMs(3600000);
+		mRunningStopWatch.start();
+
+		mStoppedStopWatch = new StopWatch(clock);
+		mStoppedStopWatch.setElapsedMs(3600000);
+
+		//bounded laps, so recording does not grow the buffer during measurement
+		mLapStopWatch = new StopWatch(clock, 1024);
+		mLapStopWatch.start();
+		for (int i = 0; i < 1024; i++)
+		{
+			mLapStopWatch.lap();
+		}
+	}
+
+	//endregion
+
+	//region Benchmarks
+
+	@Benchmark
+	public long getElapsedMsRunning()
+	{
+		return mRunningStopWatch.getElapsedMs();
+	}
+
+	@Benchmark
+	public long getElapsedMsStopped()
+	{
+		return mStoppedStopWatch.getElapsedMs();
+	}
+
+	@Benchmark
+	public long lap()
+	{
+		return mLapStopWatch.lap();
+	}
+
+	@Benchmark
+	public double lapStatistics()
+	{
+		LapBuffer laps = mLapStopWatch.getLaps();
+		return laps.getMeanLapMs() + laps.getLapVariance();
+	}
+
+	//endregion
+}
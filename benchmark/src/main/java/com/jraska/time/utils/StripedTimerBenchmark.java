@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of measuring intervals from all processors against one total. Compares {@link StripedTimer}
+ * with totals guarded by one lock. Run with different -t to see scaling with threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class StripedTimerBenchmark
+{
+	//region Benchmarks
+
+	@Benchmark
+	public void striped(ThreadState state)
+	{
+		state.mMeasurement.begin();
+		state.mMeasurement.end();
+	}
+
+	@Benchmark
+	public void synchronizedTotal(SharedState sharedState)
+	{
+		long begin = MonotonicClock.INSTANCE.getTimeMs();
+		synchronized (sharedState)
+		{
+			sharedState.mActiveCount++;
+		}
+
+		long end = MonotonicClock.INSTANCE.getTimeMs();
+		synchronized (sharedState)
+		{
+			sharedState.mActiveMs += end - begin;
+			sharedState.mCount++;
+			sharedState.mActiveCount--;
+		}
+	}
+
+	//endregion
+
+	//region Nested classes
+
+	@State(Scope.Benchmark)
+	public static class SharedState
+	{
+		final StripedTimer mTimer = new StripedTimer(MonotonicClock.INSTANCE);
+
+		long mActiveMs;
+		long mCount;
+		long mActiveCount;
+	}
+
+	@State(Scope.Thread)
+	public static class ThreadState
+	{
+		StripedTimer.Measurement mMeasurement;
+
+		@Setup
+		public void setUp(SharedState sharedState)
+		{
+			mMeasurement = sharedState.mTimer.newMeasurement();
+		}
+	}
+
+	//endregion
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of tick synchronization math used by timer views on start and resume.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TickSyncBenchmark
+{
+	//region Constants
+
+	private static final int VALUES_COUNT = 1024;
+	private static final int VALUES_MASK = VALUES_COUNT - 1;
+
+	//endregion
+
+	//region Params
+
+	@Param({"10", "100", "1000"})
+	public long mTickInterval;
+
+	@Param({"10000", "36000000", "3600000000"})
+	public long mMagnitude;
+
+	//endregion
+
+	//region Fields
+
+	private final long[] mElapsedValues = new long[VALUES_COUNT];
+	private int mIndex;
+
+	//endregion
+
+	//region Setup
+
+	@Setup
+	public void setUp()
+	{
+		for (int i = 0; i < VALUES_COUNT; i++)
+		{
+			mElapsedValues[i] = mMagnitude + i * 7;
+		}
+	}
+
+	//endregion
+
+	//region Benchmarks
+
+	@Benchmark
+	public long countSyncTickMove()
+	{
+		long elapsed = mElapsedValues[mIndex++ & VALUES_MASK];
+		long remainingToNextTick = elapsed % mTickInterval;
+
+		return Ticker.countSyncTickMove(mTickInterval, remainingToNextTick, elapsed);
+	}
+
+	//endregion
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+/**
+ * Base class for formatters splitting milliseconds to hours, minutes, seconds and milliseconds.
+ * <p/>
+ * Holds no state between calls, buffers are always owned by caller, so single instance can be shared.
+ */
+public abstract class AbstractSplitSecondFormatter implements IBulkMillisFormatter, IBoundaryAwareMillisFormatter
+{
+	//region Constants
+
+	private static final long MILLIS_IN_SECOND = 1000;
+	private static final long MILLIS_IN_MINUTE = 60 * MILLIS_IN_SECOND;
+	private static final long MILLIS_IN_HOUR = 60 * MILLIS_IN_MINUTE;
+
+	//endregion
+
+	//region IBulkMillisFormatter implementation
+
+	@Override
+	public final String formatElapsedTime(long totalMs)
+	{
+		final char[] buffer = new char[MAX_FORMATTED_LENGTH];
+		int length = formatElapsedTime(totalMs, buffer, 0);
+
+		return new String(buffer, 0, length);
+	}
+
+	/**
+	 * Negative milliseconds are formatted as zero.
+	 */
+	@Override
+	public final int formatElapsedTime(long totalMs, char[] buffer, int offset)
+	{
+		final long ms = Math.max(totalMs, 0);
+		final long hours = ms / MILLIS_IN_HOUR;
+
+		long remainingMillis = ms;
+		remainingMillis -= hours * MILLIS_IN_HOUR;
+
+		final long minutes = remainingMillis / MILLIS_IN_MINUTE;
+		remainingMillis -= minutes * MILLIS_IN_MINUTE;
+
+		final long seconds = remainingMillis / MILLIS_IN_SECOND;
+		final long millis = (remainingMillis % MILLIS_IN_SECOND);
+
+		return format(hours, minutes, seconds, millis, buffer, offset);
+	}
+
+	@Override
+	public final int formatElapsedTimes(long[] values, int offset, int length, char[] output, int outputOffset, int[] textOffsets)
+	{
+		return BulkFormatting.formatElapsedTimes(this, values, offset, length, output, outputOffset, textOffsets);
+	}
+
+	//endregion
+
+	//region IBoundaryAwareMillisFormatter implementation
+
+	@Override
+	public long nextDisplayChange(long totalMs)
+	{
+		return DisplayChanges.nextForResolution(totalMs, getDisplayResolution());
+	}
+
+	@Override
+	public long previousDisplayChange(long totalMs)
+	{
+		return DisplayChanges.previousForResolution(totalMs, getDisplayResolution());
+	}
+
+	/**
+	 * Milliseconds represented by the smallest displayed unit, formatted time must be truncated to it.
+	 *
+	 * @return Resolution of displayed time, default is one millisecond, which is safe for any output.
+	 */
+	protected long getDisplayResolution()
+	{
+		return 1;
+	}
+
+	//endregion
+
+	//region Abstract methods
+
+	/**
+	 * Writes split time parts to buffer.
+	 *
+	 * @return Count of chars written.
+	 */
+	protected abstract int format(long hours, long minutes, long seconds, long millis, char[] buffer, int offset);
+
+	//endregion
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+/**
+ * Helper methods for formatting many values into one packed char array.
+ *
+ * @see com.jraska.time.format.IBulkMillisFormatter
+ */
+public final class BulkFormatting
+{
+	//region Constructors
+
+	private BulkFormatting()
+	{
+	}
+
+	//endregion
+
+	//region Static methods
+
+	/**
+	 * Formats values with any char formatter, contract is the same as
+	 * {@link com.jraska.time.format.IBulkMillisFormatter#formatElapsedTimes(long[], int, int, char[], int, int[])}.
+	 */
+	public static int formatElapsedTimes(ICharMillisFormatter formatter, long[] values, int offset, int length,
+										 char[] output, int outputOffset, int[] textOffsets)
+	{
+		checkRanges(values, offset, length, output, outputOffset, textOffsets);
+
+		final int maxLength = ICharMillisFormatter.MAX_FORMATTED_LENGTH;
+		final int outputLength = output.length;
+
+		char[] scratch = null;
+		int position = outputOffset;
+		for (int i = 0; i < length; i++)
+		{
+			textOffsets[i] = position;
+
+			//write directly while any text fits, only the tail of output needs checked copy
+			if (outputLength - position >= maxLength)
+			{
+				position += formatter.formatElapsedTime(values[offset + i], output, position);
+			}
+			else
+			{
+				if (scratch == null)
+				{
+					scratch = new char[maxLength];
+				}
+
+				int textLength = formatter.formatElapsedTime(values[offset + i], scratch, 0);
+				if (outputLength - position < textLength)
+				{
+					throw new IllegalArgumentException("Output of length " + outputLength + " is too small, value at "
+							+ (offset + i) + " does not fit.");
+				}
+
+				System.arraycopy(scratch, 0, output, position, textLength);
+				position += textLength;
+			}
+		}
+
+		textOffsets[length] = position;
+		return position - outputOffset;
+	}
+
+	/**
+	 * @return Capacity of output, which is always sufficient for length values.
+	 */
+	public static int maxOutputLength(int length)
+	{
+		return length * ICharMillisFormatter.MAX_FORMATTED_LENGTH;
+	}
+
+	static void checkRanges(long[] values, int offset, int length, char[] output, int outputOffset, int[] textOffsets)
+	{
+		if (values == null || output == null || textOffsets == null)
+		{
+			throw new IllegalArgumentException("values, output and textOffsets cannot be null");
+		}
+
+		if (offset < 0 || length < 0 || offset > values.length - length)
+		{
+			throw new IllegalArgumentException("Range " + offset + " + " + length + " is out of values of length " + values.length);
+		}
+
+		if (outputOffset < 0 || outputOffset > output.length)
+		{
+			throw new IllegalArgumentException("outputOffset " + outputOffset + " is out of output of length " + output.length);
+		}
+
+		if (textOffsets.length < length + 1)
+		{
+			throw new IllegalArgumentException("textOffsets must have at least " + (length + 1) + " items");
+		}
+	}
+
+	//endregion
+}
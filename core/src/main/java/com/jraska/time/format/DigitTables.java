@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+/**
+ * Precomputed digit tables used by table driven formatters to write numbers without divisions per digit.
+ */
+final class DigitTables
+{
+	//region Constants
+
+	/**
+	 * Tens digit of each number 00 - 99.
+	 */
+	static final char[] PAIR_TENS = new char[100];
+
+	/**
+	 * Ones digit of each number 00 - 99.
+	 */
+	static final char[] PAIR_ONES = new char[100];
+
+	/**
+	 * Three digits of each number 000 - 999 stored one after another.
+	 */
+	static final char[] TRIPLES = new char[3000];
+
+	static
+	{
+		for (int i = 0; i < 100; i++)
+		{
+			PAIR_TENS[i] = (char) ('0' + i / 10);
+			PAIR_ONES[i] = (char) ('0' + i % 10);
+		}
+
+		for (int i = 0; i < 1000; i++)
+		{
+			TRIPLES[i * 3] = (char) ('0' + i / 100);
+			TRIPLES[i * 3 + 1] = (char) ('0' + (i / 10) % 10);
+			TRIPLES[i * 3 + 2] = (char) ('0' + i % 10);
+		}
+	}
+
+	//endregion
+
+	//region Constructors
+
+	private DigitTables()
+	{
+	}
+
+	//endregion
+
+	//region Static methods
+
+	/**
+	 * Writes number 0 - 99 padded to two digits.
+	 *
+	 * @return Index after written digits.
+	 */
+	static int writePair(int value, char[] buffer, int index)
+	{
+		buffer[index] = PAIR_TENS[value];
+		buffer[index + 1] = PAIR_ONES[value];
+
+		return index + 2;
+	}
+
+	/**
+	 * Writes first digits of number 0 - 999 padded to three digits. Count of 1 writes hundreds only,
+	 * which is the same as truncating the value to tenths of second.
+	 *
+	 * @return Index after written digits.
+	 */
+	static int writeLeadingDigits(int value, int count, char[] buffer, int index)
+	{
+		final int tableIndex = value * 3;
+		for (int i = 0; i < count; i++)
+		{
+			buffer[index + i] = TRIPLES[tableIndex + i];
+		}
+
+		return index + count;
+	}
+
+	/**
+	 * Writes non-negative number padded with leading zeros to at least width digits.
+	 *
+	 * @return Index after written digits.
+	 */
+	static int writePadded(long number, int width, char[] buffer, int index)
+	{
+		if (width == 2 && number < 100)
+		{
+			return writePair((int) number, buffer, index);
+		}
+
+		int digits = countDigits(number);
+		while (digits < width)
+		{
+			buffer[index++] = '0';
+			digits++;
+		}
+
+		return writeNumber(number, buffer, index);
+	}
+
+	/**
+	 * Counts decimal digits of non-negative number, zero has one digit.
+	 */
+	static int countDigits(long number)
+	{
+		int digits = 1;
+		for (long rest = number / 10; rest > 0; rest /= 10)
+		{
+			digits++;
+		}
+
+		return digits;
+	}
+
+	/**
+	 * Writes non-negative number without any padding.
+	 *
+	 * @return Index after written digits.
+	 */
+	static int writeNumber(long number, char[] buffer, int index)
+	{
+		if (number < 10)
+		{
+			buffer[index] = (char) ('0' + number);
+			return index + 1;
+		}
+
+		if (number < 100)
+		{
+			return writePair((int) number, buffer, index);
+		}
+
+		int digits = 2;
+		for (long rest = number / 100; rest > 0; rest /= 10)
+		{
+			digits++;
+		}
+
+		//write pairs from the end
+		int position = index + digits;
+		long working = number;
+		while (working >= 100)
+		{
+			long quotient = working / 100;
+			int pair = (int) (working - quotient * 100);
+			position -= 2;
+			writePair(pair, buffer, position);
+			working = quotient;
+		}
+
+		if (working >= 10)
+		{
+			writePair((int) working, buffer, index);
+		}
+		else
+		{
+			buffer[index] = (char) ('0' + working);
+		}
+
+		return index + digits;
+	}
+
+	//endregion
+}
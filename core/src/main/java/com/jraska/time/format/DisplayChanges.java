@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+/**
+ * Display changes of formatters truncating time to resolution, e.g. 1000 for seconds or 10 for hundredths.
+ * Negative values display the same as zero.
+ *
+ * @see com.jraska.time.format.IBoundaryAwareMillisFormatter
+ */
+final class DisplayChanges
+{
+	//region Constructors
+
+	private DisplayChanges()
+	{
+	}
+
+	//endregion
+
+	//region Static methods
+
+	static long nextForResolution(long totalMs, long resolution)
+	{
+		if (totalMs < 0)
+		{
+			return resolution;
+		}
+
+		long currentStart = totalMs - totalMs % resolution;
+		if (currentStart > Long.MAX_VALUE - resolution)
+		{
+			return IBoundaryAwareMillisFormatter.NO_NEXT_CHANGE;
+		}
+
+		return currentStart + resolution;
+	}
+
+	static long previousForResolution(long totalMs, long resolution)
+	{
+		if (totalMs < 0)
+		{
+			return IBoundaryAwareMillisFormatter.NO_PREVIOUS_CHANGE;
+		}
+
+		//zero start means no smaller value with different text, which is the same as NO_PREVIOUS_CHANGE
+		return totalMs - totalMs % resolution - 1;
+	}
+
+	//endregion
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+/**
+ * Formatter to format only to full seconds to format mm:ss or h:mm:ss if necessary.
+ * <p/>
+ * Produces same text as {@link com.jraska.time.format.DateUtilsMillisFormatter} for default locale formats,
+ * but with table driven engine of {@link com.jraska.time.format.TableSplitSecondFormatter} and without any Android dependency.
+ * Digits are always ASCII, use DateUtilsMillisFormatter if localized text is needed.
+ */
+public final class FastSecondsFormatter implements ICharMillisFormatter, IBoundaryAwareMillisFormatter
+{
+	//region ICharMillisFormatter implementation
+
+	@Override
+	public String formatElapsedTime(long totalMs)
+	{
+		final char[] buffer = new char[MAX_FORMATTED_LENGTH];
+		int length = TableSplitSecondFormatter.format(totalMs, 0, buffer, 0);
+
+		return new String(buffer, 0, length);
+	}
+
+	@Override
+	public int formatElapsedTime(long totalMs, char[] buffer, int offset)
+	{
+		return TableSplitSecondFormatter.format(totalMs, 0, buffer, offset);
+	}
+
+	//endregion
+
+	//region IBoundaryAwareMillisFormatter implementation
+
+	@Override
+	public long nextDisplayChange(long totalMs)
+	{
+		return DisplayChanges.nextForResolution(totalMs, TableSplitSecondFormatter.MILLIS_IN_SECOND);
+	}
+
+	@Override
+	public long previousDisplayChange(long totalMs)
+	{
+		return DisplayChanges.previousForResolution(totalMs, TableSplitSecondFormatter.MILLIS_IN_SECOND);
+	}
+
+	//endregion
+}
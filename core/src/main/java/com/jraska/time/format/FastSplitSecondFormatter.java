@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+/**
+ * Formatter allowing displaying parts of seconds in TimerViews. Implementation was optimized for performance.
+ *
+ * @see com.jraska.time.format.SecondFractionDisplay
+ */
+public class FastSplitSecondFormatter extends AbstractSplitSecondFormatter implements IMillisFormatter
+{
+	//region Constants
+
+	protected static final char TIME_PADDING = '0';
+	protected static final char TIME_SEPARATOR = ':';
+	protected static final char FRACTION_SEPARATOR = '.';
+
+	//endregion
+
+	//region Fields
+
+	private final int mDecimalPlaces;
+	private final int mDivisor;
+
+	//endregion
+
+	//region Constructors
+
+	public FastSplitSecondFormatter(SecondFractionDisplay secondFractionDisplay)
+	{
+		if (secondFractionDisplay == null)
+		{
+			throw new IllegalArgumentException("secondFractionDisplay cannot be null");
+		}
+
+		mDecimalPlaces = secondFractionDisplay.getDecimalPlaces();
+		mDivisor = secondFractionDisplay.getDivisor();
+	}
+
+	//endregion
+
+	//region AbstractSplitSecondFormatter implementation
+
+	@Override
+	protected int format(long hours, long minutes, long seconds, long millis, char[] buffer, int offset)
+	{
+		int index = offset;
+
+		if (hours > 0)
+		{
+			index = writeNumber(hours, buffer, index);
+			buffer[index++] = TIME_SEPARATOR;
+		}
+
+		if (minutes < 10)
+		{
+			buffer[index++] = TIME_PADDING;
+		}
+		else
+		{
+			buffer[index++] = toDigitChar(minutes / 10);
+		}
+		buffer[index++] = toDigitChar(minutes % 10);
+		buffer[index++] = TIME_SEPARATOR;
+		if (seconds < 10)
+		{
+			buffer[index++] = TIME_PADDING;
+		}
+		else
+		{
+			buffer[index++] = toDigitChar(seconds / 10);
+		}
+		buffer[index++] = toDigitChar(seconds % 10);
+
+		buffer[index++] = FRACTION_SEPARATOR;
+
+		index = addSplitSecond(buffer, index, (int) millis);
+
+		return index - offset;
+	}
+
+	private int addSplitSecond(char[] buffer, int index, int millis)
+	{
+		int workingMillis = millis / mDivisor;
+
+		for (int i = index + mDecimalPlaces - 1; i >= index; i--)
+		{
+			buffer[i] = toDigitChar(workingMillis % 10);
+			workingMillis /= 10;
+		}
+
+		return index + mDecimalPlaces;
+	}
+
+	@Override
+	protected long getDisplayResolution()
+	{
+		return mDivisor;
+	}
+
+	//endregion
+
+	//region Static methods
+
+	private static char toDigitChar(long digit)
+	{
+		return (char) (digit + '0');
+	}
+
+	/**
+	 * Writes decimal digits of non-negative number to buffer.
+	 *
+	 * @return Index in buffer after the last written digit.
+	 */
+	private static int writeNumber(long number, char[] buffer, int index)
+	{
+		int digits = 1;
+		for (long rest = number / 10; rest > 0; rest /= 10)
+		{
+			digits++;
+		}
+
+		int end = index + digits;
+		long working = number;
+		for (int i = end - 1; i >= index; i--)
+		{
+			buffer[i] = toDigitChar(working % 10);
+			working /= 10;
+		}
+
+		return end;
+	}
+
+	//endregion
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+/**
+ * Formatter able to tell at which milliseconds its output changes, so callers can update text exactly then
+ * instead of polling in fixed interval.
+ */
+public interface IBoundaryAwareMillisFormatter extends IMillisFormatter
+{
+	//region Constants
+
+	/**
+	 * Returned by {@link #nextDisplayChange(long)} if the output never changes for larger values.
+	 */
+	long NO_NEXT_CHANGE = Long.MAX_VALUE;
+
+	/**
+	 * Returned by {@link #previousDisplayChange(long)} if the output is the same for all smaller non-negative values.
+	 */
+	long NO_PREVIOUS_CHANGE = -1;
+
+	//endregion
+
+	//region Methods
+
+	/**
+	 * Finds where the text changes when time counts up.
+	 *
+	 * @param totalMs Non-negative milliseconds.
+	 * @return Smallest value larger than totalMs, which is formatted to different text than totalMs.
+	 */
+	long nextDisplayChange(long totalMs);
+
+	/**
+	 * Finds where the text changes when time counts down.
+	 *
+	 * @param totalMs Non-negative milliseconds.
+	 * @return Largest value smaller than totalMs, which is formatted to different text than totalMs.
+	 */
+	long previousDisplayChange(long totalMs);
+
+	//endregion
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+/**
+ * Formatter able to format many values in one call into one packed char array.
+ * <p/>
+ * Texts are written one after another without separators, start of each text is written to offsets array,
+ * so text of value i is {@code new String(output, textOffsets[i], textOffsets[i + 1] - textOffsets[i])}.
+ *
+ * @see com.jraska.time.format.ParallelBulkFormatter
+ */
+public interface IBulkMillisFormatter extends ICharMillisFormatter
+{
+	//region Methods
+
+	/**
+	 * Formats values[offset] to values[offset + length - 1] into packed output.
+	 *
+	 * @param values       Raw ms values.
+	 * @param offset       Index of first value to format.
+	 * @param length       Count of values to format.
+	 * @param output       Buffer to write all texts to.
+	 * @param outputOffset Index in output where first text starts.
+	 * @param textOffsets  Array of at least length + 1 items. Item i is set to start of i-th text in output,
+	 *                     item length to index after the last text.
+	 * @return Count of chars written to output.
+	 * @throws java.lang.IllegalArgumentException If the ranges are out of arrays or output is too small for texts.
+	 */
+	int formatElapsedTimes(long[] values, int offset, int length, char[] output, int outputOffset, int[] textOffsets);
+
+	//endregion
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+/**
+ * Formatter able to write formatted milliseconds directly to caller owned char buffer
+ * without creating any new objects.
+ * <p/>
+ * String returning {@link #formatElapsedTime(long)} stays available as an adapter over the buffer method.
+ * <p/>
+ * Built-in implementations hold no per call state, the buffer is owned by caller, so single instance can be shared by many views.
+ */
+public interface ICharMillisFormatter extends IMillisFormatter
+{
+	//region Constants
+
+	/**
+	 * Maximum count of chars any built-in formatter can write for non-negative milliseconds.
+	 * Buffers of this size are always sufficient for them,
+	 * {@link com.jraska.time.format.PatternMillisFormatter} rejects patterns which could produce longer text.
+	 */
+	int MAX_FORMATTED_LENGTH = 64;
+
+	//endregion
+
+	//region Methods
+
+	/**
+	 * Formats raw milliseconds to readable text written into provided buffer.
+	 *
+	 * @param totalMs Raw ms.
+	 * @param buffer  Buffer to write text to.
+	 * @param offset  Index in buffer where the text starts.
+	 * @return Count of chars written to buffer.
+	 */
+	int formatElapsedTime(long totalMs, char[] buffer, int offset);
+
+	//endregion
+}
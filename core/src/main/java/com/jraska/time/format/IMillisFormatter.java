@@ -18,6 +18,11 @@ package com.jraska.time.format;
 
 /**
  * Implementations can format raw ms values to human readable String
+ * <p/>
+ * Thread safety: formatters are expected to be reentrant, keep no state between calls and be safe to call
+ * from several threads at once without locking, e.g. when formatting durations on background thread.
+ * All built-in formatters meet this, except {@link com.jraska.time.format.IncrementalSplitSecondFormatter}
+ * which is stateful by design. Implementations which are not thread safe must state it in their documentation.
  */
 public interface IMillisFormatter
 {
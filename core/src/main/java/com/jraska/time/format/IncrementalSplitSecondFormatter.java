@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+/**
+ * Stateful formatter producing same output as {@link com.jraska.time.format.TableSplitSecondFormatter},
+ * which keeps previously rendered text and rewrites only time parts which changed since previous call.
+ * <p/>
+ * After each {@link #update(long)} the index of first changed char is known, so renderers can skip the unchanged prefix.
+ * Instances are designed to be owned by one renderer and are not thread safe.
+ *
+ * @see com.jraska.time.format.SecondFractionDisplay
+ */
+public final class IncrementalSplitSecondFormatter implements ICharMillisFormatter
+{
+	//region Fields
+
+	private final int mDecimalPlaces;
+
+	private final char[] mBuffer = new char[MAX_FORMATTED_LENGTH];
+	private final char[] mScratchBuffer = new char[MAX_FORMATTED_LENGTH];
+	private int mLength;
+	private int mFirstChangedIndex;
+
+	//values and positions of currently rendered parts, negative hours mean nothing was rendered yet
+	private long mHours = -1;
+	private int mMinutes;
+	private int mSeconds;
+	private int mMillis;
+
+	private int mMinutesIndex;
+	private int mSecondsIndex;
+	private int mFractionIndex;
+
+	//endregion
+
+	//region Constructors
+
+	public IncrementalSplitSecondFormatter(SecondFractionDisplay secondFractionDisplay)
+	{
+		if (secondFractionDisplay == null)
+		{
+			throw new IllegalArgumentException("secondFractionDisplay cannot be null");
+		}
+
+		mDecimalPlaces = secondFractionDisplay.getDecimalPlaces();
+	}
+
+	//endregion
+
+	//region Properties
+
+	/**
+	 * Gets buffer with currently rendered text. Buffer content is changed by next update.
+	 *
+	 * @return Buffer with rendered text starting at index 0.
+	 */
+	public char[] getBuffer()
+	{
+		return mBuffer;
+	}
+
+	/**
+	 * @return Length of currently rendered text.
+	 */
+	public int getLength()
+	{
+		return mLength;
+	}
+
+	/**
+	 * Gets index of first char which changed by last update.
+	 *
+	 * @return Index of first changed char, or length of text if the text did not change.
+	 */
+	public int getFirstChangedIndex()
+	{
+		return mFirstChangedIndex;
+	}
+
+	//endregion
+
+	//region ICharMillisFormatter implementation
+
+	@Override
+	public String formatElapsedTime(long totalMs)
+	{
+		update(totalMs);
+
+		return new String(mBuffer, 0, mLength);
+	}
+
+	@Override
+	public int formatElapsedTime(long totalMs, char[] buffer, int offset)
+	{
+		update(totalMs);
+		System.arraycopy(mBuffer, 0, buffer, offset, mLength);
+
+		return mLength;
+	}
+
+	//endregion
+
+	//region Methods
+
+	/**
+	 * Renders new value to buffer, recomputing only changed parts of time.
+	 *
+	 * @param totalMs Milliseconds to render, negative values are rendered as zero.
+	 * @return Index of first changed char, or length of text if the text did not change.
+	 */
+	public int update(long totalMs)
+	{
+		final long ms = Math.max(totalMs, 0);
+
+		final long hours = TableSplitSecondFormatter.splitHours(ms);
+		final int millisInHour = (int) (ms - hours * TableSplitSecondFormatter.MILLIS_IN_HOUR);
+
+		final int minutes = TableSplitSecondFormatter.splitMinutes(millisInHour);
+		final int millisInMinute = millisInHour - minutes * TableSplitSecondFormatter.MILLIS_IN_MINUTE;
+
+		final int seconds = TableSplitSecondFormatter.splitSeconds(millisInMinute);
+		final int millis = millisInMinute - seconds * TableSplitSecondFormatter.MILLIS_IN_SECOND;
+
+		if (hours != mHours)
+		{
+			//hours can change the layout of whole text
+			renderAll(ms, hours);
+		}
+		else
+		{
+			int firstChanged = mLength;
+
+			if (minutes != mMinutes)
+			{
+				firstChanged = Math.min(firstChanged, rewritePair(minutes, mMinutesIndex));
+			}
+
+			if (seconds != mSeconds)
+			{
+				firstChanged = Math.min(firstChanged, rewritePair(seconds, mSecondsIndex));
+			}
+
+			if (millis != mMillis && mDecimalPlaces > 0)
+			{
+				firstChanged = Math.min(firstChanged, rewriteFraction(millis));
+			}
+
+			mFirstChangedIndex = firstChanged;
+		}
+
+		mHours = hours;
+		mMinutes = minutes;
+		mSeconds = seconds;
+		mMillis = millis;
+
+		return mFirstChangedIndex;
+	}
+
+	/**
+	 * Forgets previously rendered text, next update will render everything.
+	 */
+	public void reset()
+	{
+		mHours = -1;
+		mLength = 0;
+		mFirstChangedIndex = 0;
+	}
+
+	private void renderAll(long totalMs, long hours)
+	{
+		final char[] scratch = mScratchBuffer;
+		final int length = TableSplitSecondFormatter.format(totalMs, mDecimalPlaces, scratch, 0);
+
+		int firstChanged = 0;
+		final int commonLength = Math.min(length, mLength);
+		while (firstChanged < commonLength && scratch[firstChanged] == mBuffer[firstChanged])
+		{
+			firstChanged++;
+		}
+
+		if (firstChanged == length && length == mLength)
+		{
+			mFirstChangedIndex = length;
+		}
+		else
+		{
+			mFirstChangedIndex = firstChanged;
+		}
+
+		System.arraycopy(scratch, firstChanged, mBuffer, firstChanged, length - firstChanged);
+		mLength = length;
+
+		//layout is [h:]mm:ss[.f]
+		mMinutesIndex = hours > 0 ? indexOf(TableSplitSecondFormatter.TIME_SEPARATOR, 0) + 1 : 0;
+		mSecondsIndex = mMinutesIndex + 3;
+		mFractionIndex = mSecondsIndex + 3;
+	}
+
+	private int indexOf(char c, int from)
+	{
+		for (int i = from; i < mLength; i++)
+		{
+			if (mBuffer[i] == c)
+			{
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	private int rewritePair(int value, int index)
+	{
+		final char tens = DigitTables.PAIR_TENS[value];
+		final char ones = DigitTables.PAIR_ONES[value];
+
+		int firstChanged = mLength;
+		if (mBuffer[index] != tens)
+		{
+			mBuffer[index] = tens;
+			firstChanged = index;
+		}
+
+		if (mBuffer[index + 1] != ones)
+		{
+			mBuffer[index + 1] = ones;
+			firstChanged = Math.min(firstChanged, index + 1);
+		}
+
+		return firstChanged;
+	}
+
+	private int rewriteFraction(int millis)
+	{
+		final int tableIndex = millis * 3;
+
+		int firstChanged = mLength;
+		for (int i = mDecimalPlaces - 1; i >= 0; i--)
+		{
+			final char digit = DigitTables.TRIPLES[tableIndex + i];
+			final int index = mFractionIndex + i;
+			if (mBuffer[index] != digit)
+			{
+				mBuffer[index] = digit;
+				firstChanged = index;
+			}
+		}
+
+		return firstChanged;
+	}
+
+	//endregion
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Formats large arrays of values in chunks on provided executor, results are the same as
+ * {@link com.jraska.time.format.BulkFormatting#formatElapsedTimes(ICharMillisFormatter, long[], int, int, char[], int, int[])}.
+ * <p/>
+ * Each chunk is formatted to its own buffer and chunks are then packed to output in order,
+ * so it pays off only for thousands of values. Arrays up to chunk size are formatted on calling thread.
+ * On JVM any executor including {@link java.util.concurrent.ForkJoinPool} can be used.
+ * Formatter must be thread safe, which all built-in formatters except
+ * {@link com.jraska.time.format.IncrementalSplitSecondFormatter} are.
+ */
+public final class ParallelBulkFormatter
+{
+	//region Constants
+
+	public static final int DEFAULT_CHUNK_SIZE = 2048;
+
+	//enough for h:mm:ss.SSS, chunk buffer grows if texts are longer
+	private static final int EXPECTED_CHARS_PER_VALUE = 12;
+
+	//endregion
+
+	//region Fields
+
+	private final ExecutorService mExecutor;
+	private final int mChunkSize;
+
+	//endregion
+
+	//region Constructors
+
+	public ParallelBulkFormatter(ExecutorService executor)
+	{
+		this(executor, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * @param executor  Executor running chunks.
+	 * @param chunkSize Count of values formatted by one task.
+	 * @throws java.lang.IllegalArgumentException If executor is null or chunk size is not positive.
+	 */
+	public ParallelBulkFormatter(ExecutorService executor, int chunkSize)
+	{
+		if (executor == null)
+		{
+			throw new IllegalArgumentException("executor cannot be null");
+		}
+
+		if (chunkSize < 1)
+		{
+			throw new IllegalArgumentException("chunkSize must be positive");
+		}
+
+		mExecutor = executor;
+		mChunkSize = chunkSize;
+	}
+
+	//endregion
+
+	//region Properties
+
+	public int getChunkSize()
+	{
+		return mChunkSize;
+	}
+
+	//endregion
+
+	//region Methods
+
+	/**
+	 * Formats values in parallel, contract is the same as
+	 * {@link com.jraska.time.format.IBulkMillisFormatter#formatElapsedTimes(long[], int, int, char[], int, int[])}.
+	 *
+	 * @throws InterruptedException If the calling thread is interrupted while waiting for chunks.
+	 */
+	public int formatElapsedTimes(ICharMillisFormatter formatter, long[] values, int offset, int length,
+								  char[] output, int outputOffset, int[] textOffsets) throws InterruptedException
+	{
+		if (formatter == null)
+		{
+			throw new IllegalArgumentException("formatter cannot be null");
+		}
+
+		BulkFormatting.checkRanges(values, offset, length, output, outputOffset, textOffsets);
+
+		if (length <= mChunkSize)
+		{
+			return BulkFormatting.formatElapsedTimes(formatter, values, offset, length, output, outputOffset, textOffsets);
+		}
+
+		List<Future<Chunk>> futures = new ArrayList<Future<Chunk>>();
+		boolean completed = false;
+		try
+		{
+			for (int start = 0; start < length; start += mChunkSize)
+			{
+				int chunkLength = Math.min(mChunkSize, length - start);
+				futures.add(mExecutor.submit(new Chunk(formatter, values, offset + start, chunkLength)));
+			}
+
+			int written = packChunks(futures, offset, output, outputOffset, textOffsets);
+			textOffsets[length] = outputOffset + written;
+
+			completed = true;
+			return written;
+		}
+		finally
+		{
+			//failed chunk, interrupt or too small output make results of remaining chunks useless
+			if (!completed)
+			{
+				cancelAll(futures);
+			}
+		}
+	}
+
+	private static int packChunks(List<Future<Chunk>> futures, int offset, char[] output, int outputOffset, int[] textOffsets)
+			throws InterruptedException
+	{
+		int position = outputOffset;
+		int textIndex = 0;
+		for (Future<Chunk> future : futures)
+		{
+			Chunk chunk = getResult(future);
+
+			int textsLength = chunk.mTextOffsets[chunk.mLength];
+			if (output.length - position < textsLength)
+			{
+				throw new IllegalArgumentException("Output of length " + output.length + " is too small, value at "
+						+ (offset + textIndex) + " does not fit.");
+			}
+
+			System.arraycopy(chunk.mOutput, 0, output, position, textsLength);
+			for (int i = 0; i < chunk.mLength; i++)
+			{
+				textOffsets[textIndex++] = position + chunk.mTextOffsets[i];
+			}
+
+			position += textsLength;
+		}
+
+		return position - outputOffset;
+	}
+
+	private static void cancelAll(List<Future<Chunk>> futures)
+	{
+		for (Future<Chunk> future : futures)
+		{
+			future.cancel(true);
+		}
+	}
+
+	private static Chunk getResult(Future<Chunk> future) throws InterruptedException
+	{
+		try
+		{
+			return future.get();
+		}
+		catch (ExecutionException e)
+		{
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
+			{
+				throw (RuntimeException) cause;
+			}
+
+			if (cause instanceof Error)
+			{
+				throw (Error) cause;
+			}
+
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	//endregion
+
+	//region Nested classes
+
+	private static final class Chunk implements Callable<Chunk>
+	{
+		private final ICharMillisFormatter mFormatter;
+		private final long[] mValues;
+		private final int mOffset;
+		private final int mLength;
+
+		private char[] mOutput;
+		private int[] mTextOffsets;
+
+		Chunk(ICharMillisFormatter formatter, long[] values, int offset, int length)
+		{
+			mFormatter = formatter;
+			mValues = values;
+			mOffset = offset;
+			mLength = length;
+		}
+
+		@Override
+		public Chunk call()
+		{
+			final int maxLength = ICharMillisFormatter.MAX_FORMATTED_LENGTH;
+			final int[] textOffsets = new int[mLength + 1];
+			char[] output = new char[mLength * EXPECTED_CHARS_PER_VALUE + maxLength];
+
+			int position = 0;
+			for (int i = 0; i < mLength; i++)
+			{
+				if (output.length - position < maxLength)
+				{
+					char[] grown = new char[output.length * 2];
+					System.arraycopy(output, 0, grown, 0, position);
+					output = grown;
+				}
+
+				textOffsets[i] = position;
+				position += mFormatter.formatElapsedTime(mValues[mOffset + i], output, position);
+			}
+
+			textOffsets[mLength] = position;
+
+			mOutput = output;
+			mTextOffsets = textOffsets;
+			return this;
+		}
+	}
+
+	//endregion
+}
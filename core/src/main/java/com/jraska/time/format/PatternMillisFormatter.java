@@ -0,0 +1,599 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+/**
+ * Formatter writing time according to pattern like "HH:mm:ss.SS".
+ * <p/>
+ * Pattern is compiled once in constructor into flat array of render ops, formatting then only walks
+ * the ops without any parsing and allocations on char buffer path.
+ * <p/>
+ * Pattern letters:
+ * <ul>
+ * <li>H - hours, m - minutes, s - seconds. Repeating the letter sets minimal zero padded width, e.g. mm writes 05.</li>
+ * <li>S - fraction of second, count of letters 1 - 3 is count of digits. Fraction is truncated, not rounded.</li>
+ * <li>'text' - quoted literal, two single quotes write one quote. Other non-letter chars are literals as they are.</li>
+ * <li>[...] - optional section written only if some of its fields is not zero, e.g. "[H:]mm:ss".</li>
+ * </ul>
+ * Largest unit in pattern absorbs all time above it, so "mm:ss" shows 90:00 for hour and half.
+ * Other letters are reserved and rejected.
+ */
+public final class PatternMillisFormatter implements ICharMillisFormatter, IBoundaryAwareMillisFormatter
+{
+	//region Constants
+
+	private static final char QUOTE = '\'';
+	private static final char SECTION_START = '[';
+	private static final char SECTION_END = ']';
+
+	private static final int UNIT_HOURS = 0;
+	private static final int UNIT_MINUTES = 1;
+	private static final int UNIT_SECONDS = 2;
+	private static final int NO_UNIT = 3;
+
+	private static final int MAX_FRACTION_DIGITS = 3;
+
+	//op codes followed by their arguments in ops array
+	private static final int OP_LITERAL = 0; //start in literals, length
+	private static final int OP_FIELD = 1; //unit, width
+	private static final int OP_FRACTION = 2; //digits
+	private static final int OP_SECTION = 3; //mask of section units, index of op after section
+
+	//endregion
+
+	//region Fields
+
+	private final String mPattern;
+	private final int[] mOps;
+	private final char[] mLiterals;
+	private final int mLargestUnit;
+	private final int mMaxLength;
+	private final long mDisplayResolution;
+
+	//endregion
+
+	//region Constructors
+
+	/**
+	 * Compiles the pattern.
+	 *
+	 * @param pattern Pattern to format time with.
+	 * @throws java.lang.IllegalArgumentException If the pattern is null, invalid or can produce text longer
+	 *                                            than {@link #MAX_FORMATTED_LENGTH}.
+	 */
+	public PatternMillisFormatter(String pattern)
+	{
+		if (pattern == null)
+		{
+			throw new IllegalArgumentException("pattern cannot be null");
+		}
+
+		Compiler compiler = new Compiler(pattern);
+		compiler.compile();
+
+		mPattern = pattern;
+		mOps = compiler.getOps();
+		mLiterals = compiler.getLiterals();
+		mLargestUnit = compiler.mLargestUnit;
+		mMaxLength = countMaxLength(mOps, mLargestUnit);
+		mDisplayResolution = compiler.getDisplayResolution();
+
+		if (mMaxLength > MAX_FORMATTED_LENGTH)
+		{
+			throw new IllegalArgumentException("Pattern '" + pattern + "' can produce up to " + mMaxLength
+					+ " chars, maximum is " + MAX_FORMATTED_LENGTH);
+		}
+	}
+
+	//endregion
+
+	//region Properties
+
+	public String getPattern()
+	{
+		return mPattern;
+	}
+
+	/**
+	 * @return Maximum count of chars this formatter can write.
+	 */
+	public int getMaxLength()
+	{
+		return mMaxLength;
+	}
+
+	//endregion
+
+	//region ICharMillisFormatter implementation
+
+	@Override
+	public String formatElapsedTime(long totalMs)
+	{
+		final char[] buffer = new char[MAX_FORMATTED_LENGTH];
+		int length = formatElapsedTime(totalMs, buffer, 0);
+
+		return new String(buffer, 0, length);
+	}
+
+	/**
+	 * Negative milliseconds are formatted as zero.
+	 */
+	@Override
+	public int formatElapsedTime(long totalMs, char[] buffer, int offset)
+	{
+		final long ms = Math.max(totalMs, 0);
+
+		long hours = 0;
+		long minutes = 0;
+		long seconds;
+		int millis;
+
+		//largest unit takes all, smaller ones are within their range and use fast int splitting
+		int millisInMinute;
+		switch (mLargestUnit)
+		{
+			case UNIT_HOURS:
+				hours = TableSplitSecondFormatter.splitHours(ms);
+				int millisInHour = (int) (ms - hours * TableSplitSecondFormatter.MILLIS_IN_HOUR);
+				minutes = TableSplitSecondFormatter.splitMinutes(millisInHour);
+				millisInMinute = millisInHour - (int) minutes * TableSplitSecondFormatter.MILLIS_IN_MINUTE;
+				break;
+			case UNIT_MINUTES:
+				minutes = ms / TableSplitSecondFormatter.MILLIS_IN_MINUTE;
+				millisInMinute = (int) (ms - minutes * TableSplitSecondFormatter.MILLIS_IN_MINUTE);
+				break;
+			default:
+				seconds = ms / TableSplitSecondFormatter.MILLIS_IN_SECOND;
+				millis = (int) (ms - seconds * TableSplitSecondFormatter.MILLIS_IN_SECOND);
+				return render(hours, minutes, seconds, millis, buffer, offset);
+		}
+
+		seconds = TableSplitSecondFormatter.splitSeconds(millisInMinute);
+		millis = millisInMinute - (int) seconds * TableSplitSecondFormatter.MILLIS_IN_SECOND;
+
+		return render(hours, minutes, seconds, millis, buffer, offset);
+	}
+
+	//endregion
+
+	//region IBoundaryAwareMillisFormatter implementation
+
+	@Override
+	public long nextDisplayChange(long totalMs)
+	{
+		return DisplayChanges.nextForResolution(totalMs, mDisplayResolution);
+	}
+
+	@Override
+	public long previousDisplayChange(long totalMs)
+	{
+		return DisplayChanges.previousForResolution(totalMs, mDisplayResolution);
+	}
+
+	//endregion
+
+	//region Methods
+
+	private int render(long hours, long minutes, long seconds, int millis, char[] buffer, int offset)
+	{
+		final int[] ops = mOps;
+		final int opsLength = ops.length;
+
+		int index = offset;
+		int op = 0;
+		while (op < opsLength)
+		{
+			switch (ops[op])
+			{
+				case OP_LITERAL:
+				{
+					int start = ops[op + 1];
+					int length = ops[op + 2];
+					System.arraycopy(mLiterals, start, buffer, index, length);
+					index += length;
+					op += 3;
+					break;
+				}
+				case OP_FIELD:
+				{
+					long value = fieldValue(ops[op + 1], hours, minutes, seconds);
+					index = DigitTables.writePadded(value, ops[op + 2], buffer, index);
+					op += 3;
+					break;
+				}
+				case OP_FRACTION:
+				{
+					index = DigitTables.writeLeadingDigits(millis, ops[op + 1], buffer, index);
+					op += 2;
+					break;
+				}
+				case OP_SECTION:
+				{
+					int mask = ops[op + 1];
+					boolean allZero = ((mask & (1 << UNIT_HOURS)) == 0 || hours == 0)
+							&& ((mask & (1 << UNIT_MINUTES)) == 0 || minutes == 0)
+							&& ((mask & (1 << UNIT_SECONDS)) == 0 || seconds == 0);
+
+					op = allZero ? ops[op + 2] : op + 3;
+					break;
+				}
+				default:
+					throw new IllegalStateException("Unknown op " + ops[op]);
+			}
+		}
+
+		return index - offset;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "PatternMillisFormatter{" + mPattern + "}";
+	}
+
+	//endregion
+
+	//region Static methods
+
+	private static long fieldValue(int unit, long hours, long minutes, long seconds)
+	{
+		switch (unit)
+		{
+			case UNIT_HOURS:
+				return hours;
+			case UNIT_MINUTES:
+				return minutes;
+			default:
+				return seconds;
+		}
+	}
+
+	private static int countMaxLength(int[] ops, int largestUnit)
+	{
+		int maxLength = 0;
+		int op = 0;
+		while (op < ops.length)
+		{
+			switch (ops[op])
+			{
+				case OP_LITERAL:
+					maxLength += ops[op + 2];
+					op += 3;
+					break;
+				case OP_FIELD:
+					int unit = ops[op + 1];
+					int maxDigits = unit == largestUnit ? DigitTables.countDigits(Long.MAX_VALUE / unitMillis(unit)) : 2;
+					maxLength += Math.max(maxDigits, ops[op + 2]);
+					op += 3;
+					break;
+				case OP_FRACTION:
+					maxLength += ops[op + 1];
+					op += 2;
+					break;
+				default:
+					op += 3;
+					break;
+			}
+		}
+
+		return maxLength;
+	}
+
+	private static long unitMillis(int unit)
+	{
+		switch (unit)
+		{
+			case UNIT_HOURS:
+				return TableSplitSecondFormatter.MILLIS_IN_HOUR;
+			case UNIT_MINUTES:
+				return TableSplitSecondFormatter.MILLIS_IN_MINUTE;
+			default:
+				return TableSplitSecondFormatter.MILLIS_IN_SECOND;
+		}
+	}
+
+	//endregion
+
+	//region Nested classes
+
+	/**
+	 * Single use parser of pattern into ops.
+	 */
+	private static final class Compiler
+	{
+		private final String mPattern;
+
+		private int[] mOps = new int[16];
+		private int mOpsLength;
+		private final StringBuilder mLiterals = new StringBuilder();
+		private int mPendingLiteralStart = -1;
+
+		private int mUsedUnits;
+		private int mFractionDigits;
+		private int mLargestUnit = NO_UNIT;
+
+		private int mSectionOp = -1;
+		private int mSectionMask;
+
+		Compiler(String pattern)
+		{
+			mPattern = pattern;
+		}
+
+		void compile()
+		{
+			final String pattern = mPattern;
+			final int length = pattern.length();
+
+			int i = 0;
+			while (i < length)
+			{
+				char c = pattern.charAt(i);
+
+				if (c == QUOTE)
+				{
+					i = readQuoted(i);
+				}
+				else if (c == SECTION_START)
+				{
+					startSection(i);
+					i++;
+				}
+				else if (c == SECTION_END)
+				{
+					endSection(i);
+					i++;
+				}
+				else if (isLetter(c))
+				{
+					int count = countRepeats(i);
+					addLetter(c, count, i);
+					i += count;
+				}
+				else
+				{
+					appendLiteral(c);
+					i++;
+				}
+			}
+
+			flushLiteral();
+
+			if (mSectionOp >= 0)
+			{
+				throw invalid("optional section is not closed");
+			}
+
+			if (mLargestUnit == NO_UNIT)
+			{
+				throw invalid("no hours, minutes or seconds field");
+			}
+		}
+
+		int[] getOps()
+		{
+			int[] ops = new int[mOpsLength];
+			System.arraycopy(mOps, 0, ops, 0, mOpsLength);
+			return ops;
+		}
+
+		/**
+		 * @return Milliseconds of the smallest displayed unit.
+		 */
+		long getDisplayResolution()
+		{
+			if (mFractionDigits > 0)
+			{
+				return TableSplitSecondFormatter.resolution(mFractionDigits);
+			}
+
+			int smallestUnit = UNIT_HOURS;
+			for (int unit = UNIT_HOURS; unit < NO_UNIT; unit++)
+			{
+				if ((mUsedUnits & (1 << unit)) != 0)
+				{
+					smallestUnit = unit;
+				}
+			}
+
+			return unitMillis(smallestUnit);
+		}
+
+		char[] getLiterals()
+		{
+			char[] literals = new char[mLiterals.length()];
+			mLiterals.getChars(0, literals.length, literals, 0);
+			return literals;
+		}
+
+		private int readQuoted(int quoteIndex)
+		{
+			final String pattern = mPattern;
+			int i = quoteIndex + 1;
+
+			//'' outside of quotes is escaped quote
+			if (i < pattern.length() && pattern.charAt(i) == QUOTE)
+			{
+				appendLiteral(QUOTE);
+				return i + 1;
+			}
+
+			while (i < pattern.length())
+			{
+				char c = pattern.charAt(i);
+				if (c == QUOTE)
+				{
+					if (i + 1 < pattern.length() && pattern.charAt(i + 1) == QUOTE)
+					{
+						appendLiteral(QUOTE);
+						i += 2;
+						continue;
+					}
+
+					return i + 1;
+				}
+
+				appendLiteral(c);
+				i++;
+			}
+
+			throw invalid("quote at " + quoteIndex + " is not closed");
+		}
+
+		private void startSection(int index)
+		{
+			if (mSectionOp >= 0)
+			{
+				throw invalid("nested optional section at " + index);
+			}
+
+			flushLiteral();
+			mSectionOp = mOpsLength;
+			mSectionMask = 0;
+			addOp(OP_SECTION, 0, 0);
+		}
+
+		private void endSection(int index)
+		{
+			if (mSectionOp < 0)
+			{
+				throw invalid("unexpected " + SECTION_END + " at " + index);
+			}
+
+			if (mSectionMask == 0)
+			{
+				throw invalid("optional section ending at " + index + " has no hours, minutes or seconds field");
+			}
+
+			flushLiteral();
+			mOps[mSectionOp + 1] = mSectionMask;
+			mOps[mSectionOp + 2] = mOpsLength;
+			mSectionOp = -1;
+		}
+
+		private void addLetter(char letter, int count, int index)
+		{
+			flushLiteral();
+
+			if (letter == 'S')
+			{
+				if (mFractionDigits > 0)
+				{
+					throw invalid("fraction is repeated at " + index);
+				}
+
+				if (count > MAX_FRACTION_DIGITS)
+				{
+					throw invalid("fraction can have at most " + MAX_FRACTION_DIGITS + " digits");
+				}
+
+				mFractionDigits = count;
+				addOp(OP_FRACTION, count);
+				return;
+			}
+
+			int unit;
+			switch (letter)
+			{
+				case 'H':
+					unit = UNIT_HOURS;
+					break;
+				case 'm':
+					unit = UNIT_MINUTES;
+					break;
+				case 's':
+					unit = UNIT_SECONDS;
+					break;
+				default:
+					throw invalid("letter '" + letter + "' at " + index + " is reserved, quote it to use as literal");
+			}
+
+			int unitBit = 1 << unit;
+			if ((mUsedUnits & unitBit) != 0)
+			{
+				throw invalid("field '" + letter + "' is repeated at " + index);
+			}
+
+			mUsedUnits |= unitBit;
+			if (mSectionOp >= 0)
+			{
+				mSectionMask |= unitBit;
+			}
+
+			mLargestUnit = Math.min(mLargestUnit, unit);
+			addOp(OP_FIELD, unit, count);
+		}
+
+		private int countRepeats(int index)
+		{
+			final char c = mPattern.charAt(index);
+			int end = index + 1;
+			while (end < mPattern.length() && mPattern.charAt(end) == c)
+			{
+				end++;
+			}
+
+			return end - index;
+		}
+
+		private void appendLiteral(char c)
+		{
+			if (mPendingLiteralStart < 0)
+			{
+				mPendingLiteralStart = mLiterals.length();
+			}
+
+			mLiterals.append(c);
+		}
+
+		private void flushLiteral()
+		{
+			if (mPendingLiteralStart < 0)
+			{
+				return;
+			}
+
+			addOp(OP_LITERAL, mPendingLiteralStart, mLiterals.length() - mPendingLiteralStart);
+			mPendingLiteralStart = -1;
+		}
+
+		private void addOp(int... values)
+		{
+			if (mOpsLength + values.length > mOps.length)
+			{
+				int[] ops = new int[mOps.length * 2];
+				System.arraycopy(mOps, 0, ops, 0, mOpsLength);
+				mOps = ops;
+			}
+
+			System.arraycopy(values, 0, mOps, mOpsLength, values.length);
+			mOpsLength += values.length;
+		}
+
+		private IllegalArgumentException invalid(String message)
+		{
+			return new IllegalArgumentException("Invalid pattern '" + mPattern + "': " + message);
+		}
+
+		private static boolean isLetter(char c)
+		{
+			return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+		}
+	}
+
+	//endregion
+}
@@ -21,14 +21,17 @@ package com.jraska.time.format;
  * <p/>
  * Can ensure that handling milliseconds on screen will be like only values 1.05, 1.10,
  * not 1,06, 1,11 for the interval of 50 ms.
+ * <p/>
+ * Writing to char buffer is allocation free only if the decorated formatter is {@link ICharMillisFormatter} too.
  */
-public final class RoundingMillisDecoratorFormatter implements IMillisFormatter
+public final class RoundingMillisDecoratorFormatter implements IBulkMillisFormatter, IBoundaryAwareMillisFormatter
 {
 	//region Fields
 
 	private final IMillisFormatter mFormatter;
 	private final long mIncrement;
 	private final long mIncrementRoundingThreshold;
+	private final long mRoundingShift; //rounded value is floor((totalMs + shift) / increment) * increment
 
 	//endregion
 
@@ -56,6 +59,7 @@ public final class RoundingMillisDecoratorFormatter implements IMillisFormatter
 		mFormatter = formatter;
 		mIncrement = increment;
 		mIncrementRoundingThreshold = (increment / 2 - 1);
+		mRoundingShift = increment - increment / 2;
 	}
 
 	//endregion
@@ -74,7 +78,7 @@ public final class RoundingMillisDecoratorFormatter implements IMillisFormatter
 
 	//endregion
 
-	//region IMillisFormatter implementation
+	//region IBulkMillisFormatter implementation
 
 	@Override
 	public String formatElapsedTime(long totalMs)
@@ -84,6 +88,80 @@ public final class RoundingMillisDecoratorFormatter implements IMillisFormatter
 		return mFormatter.formatElapsedTime(newMillis);
 	}
 
+	@Override
+	public int formatElapsedTime(long totalMs, char[] buffer, int offset)
+	{
+		long newMillis = countNewMillis(totalMs);
+
+		if (mFormatter instanceof ICharMillisFormatter)
+		{
+			return ((ICharMillisFormatter) mFormatter).formatElapsedTime(newMillis, buffer, offset);
+		}
+
+		String formatted = mFormatter.formatElapsedTime(newMillis);
+		formatted.getChars(0, formatted.length(), buffer, offset);
+
+		return formatted.length();
+	}
+
+	@Override
+	public int formatElapsedTimes(long[] values, int offset, int length, char[] output, int outputOffset, int[] textOffsets)
+	{
+		return BulkFormatting.formatElapsedTimes(this, values, offset, length, output, outputOffset, textOffsets);
+	}
+
+	//endregion
+
+	//region IBoundaryAwareMillisFormatter implementation
+
+	/**
+	 * Finds next change of rounded value, which the inner formatter displays differently.
+	 * If the inner formatter is not boundary aware each change of rounded value is considered as display change.
+	 */
+	@Override
+	public long nextDisplayChange(long totalMs)
+	{
+		long rounded = countNewMillis(totalMs);
+
+		long innerNext = rounded + mIncrement;
+		if (mFormatter instanceof IBoundaryAwareMillisFormatter)
+		{
+			innerNext = ((IBoundaryAwareMillisFormatter) mFormatter).nextDisplayChange(rounded);
+		}
+
+		if (innerNext > Long.MAX_VALUE - mIncrement)
+		{
+			return NO_NEXT_CHANGE;
+		}
+
+		//first rounded value reaching the inner change and first raw value rounded to it
+		long roundedChange = ((innerNext + mIncrement - 1) / mIncrement) * mIncrement;
+		return roundedChange - mRoundingShift;
+	}
+
+	@Override
+	public long previousDisplayChange(long totalMs)
+	{
+		long rounded = countNewMillis(totalMs);
+
+		long innerPrevious = rounded - 1;
+		if (mFormatter instanceof IBoundaryAwareMillisFormatter)
+		{
+			innerPrevious = ((IBoundaryAwareMillisFormatter) mFormatter).previousDisplayChange(rounded);
+		}
+
+		if (innerPrevious < 0)
+		{
+			return NO_PREVIOUS_CHANGE;
+		}
+
+		//last rounded value within the inner change and last raw value rounded to it
+		long roundedChange = (innerPrevious / mIncrement) * mIncrement;
+		long previous = roundedChange + mIncrement - mRoundingShift - 1;
+
+		return Math.max(previous, NO_PREVIOUS_CHANGE);
+	}
+
 	//endregion
 
 	//region Methods
@@ -95,8 +173,8 @@ public final class RoundingMillisDecoratorFormatter implements IMillisFormatter
 
 		long removingPart = totalMs % mIncrement;
 
-		//rounding to up border
-		if (removingPart > mIncrementRoundingThreshold)
+		//rounding to up border, values too close to Long.MAX_VALUE stay rounded down instead of overflowing
+		if (removingPart > mIncrementRoundingThreshold && newMillis <= Long.MAX_VALUE - mIncrement)
 		{
 			newMillis += mIncrement;
 		}
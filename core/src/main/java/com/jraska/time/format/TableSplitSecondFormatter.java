@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+/**
+ * Formatter producing same output as {@link com.jraska.time.format.FastSplitSecondFormatter}
+ * with table driven formatting engine.
+ * <p/>
+ * Time parts are split with multiplications by precomputed reciprocals instead of divisions
+ * and digits are copied from precomputed 00 - 99 and 000 - 999 tables.
+ *
+ * @see com.jraska.time.format.SecondFractionDisplay
+ */
+public final class TableSplitSecondFormatter implements IBulkMillisFormatter, IBoundaryAwareMillisFormatter
+{
+	//region Constants
+
+	static final char TIME_SEPARATOR = ':';
+	static final char FRACTION_SEPARATOR = '.';
+
+	static final int MILLIS_IN_SECOND = 1000;
+	static final int MILLIS_IN_MINUTE = 60 * MILLIS_IN_SECOND;
+	static final int MILLIS_IN_HOUR = 60 * MILLIS_IN_MINUTE;
+
+	//reciprocals verified to give exact quotients for whole range of their dividends
+	private static final long HOUR_RECIPROCAL = 1250999897L; //totalMs < 2^31
+	private static final int HOUR_SHIFT = 52;
+	private static final long MINUTE_RECIPROCAL = 4581299L; //millis in hour < 3 600 000
+	private static final int MINUTE_SHIFT = 38;
+	private static final long SECOND_RECIPROCAL = 67109L; //millis in minute < 60 000
+	private static final int SECOND_SHIFT = 26;
+
+	//endregion
+
+	//region Fields
+
+	private final int mDecimalPlaces;
+
+	//endregion
+
+	//region Constructors
+
+	public TableSplitSecondFormatter(SecondFractionDisplay secondFractionDisplay)
+	{
+		if (secondFractionDisplay == null)
+		{
+			throw new IllegalArgumentException("secondFractionDisplay cannot be null");
+		}
+
+		mDecimalPlaces = secondFractionDisplay.getDecimalPlaces();
+	}
+
+	//endregion
+
+	//region IBulkMillisFormatter implementation
+
+	@Override
+	public String formatElapsedTime(long totalMs)
+	{
+		final char[] buffer = new char[MAX_FORMATTED_LENGTH];
+		int length = format(totalMs, mDecimalPlaces, buffer, 0);
+
+		return new String(buffer, 0, length);
+	}
+
+	@Override
+	public int formatElapsedTime(long totalMs, char[] buffer, int offset)
+	{
+		return format(totalMs, mDecimalPlaces, buffer, offset);
+	}
+
+	@Override
+	public int formatElapsedTimes(long[] values, int offset, int length, char[] output, int outputOffset, int[] textOffsets)
+	{
+		return BulkFormatting.formatElapsedTimes(this, values, offset, length, output, outputOffset, textOffsets);
+	}
+
+	//endregion
+
+	//region IBoundaryAwareMillisFormatter implementation
+
+	@Override
+	public long nextDisplayChange(long totalMs)
+	{
+		return DisplayChanges.nextForResolution(totalMs, resolution(mDecimalPlaces));
+	}
+
+	@Override
+	public long previousDisplayChange(long totalMs)
+	{
+		return DisplayChanges.previousForResolution(totalMs, resolution(mDecimalPlaces));
+	}
+
+	//endregion
+
+	//region Static methods
+
+	/**
+	 * Formatting engine writing time as [h:]mm:ss[.f] to buffer.
+	 *
+	 * @param totalMs       Milliseconds to format, negative values are formatted as zero.
+	 * @param decimalPlaces Count of second fraction digits 0 - 3. Zero means no fraction part and no separator.
+	 * @return Count of chars written.
+	 */
+	static int format(long totalMs, int decimalPlaces, char[] buffer, int offset)
+	{
+		final long ms = Math.max(totalMs, 0);
+
+		final long hours = splitHours(ms);
+		final int millisInHour = (int) (ms - hours * MILLIS_IN_HOUR);
+
+		final int minutes = splitMinutes(millisInHour);
+		final int millisInMinute = millisInHour - minutes * MILLIS_IN_MINUTE;
+
+		final int seconds = splitSeconds(millisInMinute);
+		final int millis = millisInMinute - seconds * MILLIS_IN_SECOND;
+
+		int index = offset;
+		if (hours > 0)
+		{
+			index = DigitTables.writeNumber(hours, buffer, index);
+			buffer[index++] = TIME_SEPARATOR;
+		}
+
+		index = DigitTables.writePair(minutes, buffer, index);
+		buffer[index++] = TIME_SEPARATOR;
+		index = DigitTables.writePair(seconds, buffer, index);
+
+		if (decimalPlaces > 0)
+		{
+			buffer[index++] = FRACTION_SEPARATOR;
+			index = DigitTables.writeLeadingDigits(millis, decimalPlaces, buffer, index);
+		}
+
+		return index - offset;
+	}
+
+	/**
+	 * @return Milliseconds of the last displayed digit for count of decimal places.
+	 */
+	static long resolution(int decimalPlaces)
+	{
+		switch (decimalPlaces)
+		{
+			case 0:
+				return MILLIS_IN_SECOND;
+			case 1:
+				return 100;
+			case 2:
+				return 10;
+			default:
+				return 1;
+		}
+	}
+
+	/**
+	 * @param totalMs Non-negative milliseconds.
+	 */
+	static long splitHours(long totalMs)
+	{
+		if (totalMs <= Integer.MAX_VALUE)
+		{
+			return (totalMs * HOUR_RECIPROCAL) >>> HOUR_SHIFT;
+		}
+
+		//over 596 hours, not worth optimizing
+		return totalMs / MILLIS_IN_HOUR;
+	}
+
+	static int splitMinutes(int millisInHour)
+	{
+		return (int) ((millisInHour * MINUTE_RECIPROCAL) >>> MINUTE_SHIFT);
+	}
+
+	static int splitSeconds(int millisInMinute)
+	{
+		return (int) ((millisInMinute * SECOND_RECIPROCAL) >>> SECOND_SHIFT);
+	}
+
+	//endregion
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import com.jraska.time.common.IClock;
+
+/**
+ * Converts times of ticker clock to times of delivery clock, by which are ticks really delivered.
+ * <p/>
+ * On Android ticks are scheduled by elapsed realtime, which counts deep sleep, but Handler messages are delivered
+ * by uptime, which stops in sleep. Offset of these clocks grows by duration of each sleep. Anchor remembers
+ * the offset and when it changes more than threshold, reports a gap and re-anchors to the new offset, so next
+ * ticks are delivered on the right times of ticker clock again.
+ * <p/>
+ * Class is not thread safe.
+ */
+public final class ClockAnchor
+{
+	//region Constants
+
+	/**
+	 * Reads of two clocks are not atomic, so small offset changes are not gaps.
+	 */
+	public static final long DEFAULT_GAP_THRESHOLD = 5;
+
+	//endregion
+
+	//region Fields
+
+	private final IClock mDeliveryClock;
+	private final long mGapThreshold;
+
+	private long mOffset;
+	private long mGapCount;
+	private long mTotalGapMs;
+
+	//endregion
+
+	//region Constructors
+
+	public ClockAnchor(IClock deliveryClock)
+	{
+		this(deliveryClock, DEFAULT_GAP_THRESHOLD);
+	}
+
+	/**
+	 * @param deliveryClock Clock by which are ticks delivered.
+	 * @param gapThreshold  Non-negative ms of offset change which is not reported as gap.
+	 * @throws java.lang.IllegalArgumentException If the clock is null or threshold negative.
+	 */
+	public ClockAnchor(IClock deliveryClock, long gapThreshold)
+	{
+		if (deliveryClock == null)
+		{
+			throw new IllegalArgumentException("deliveryClock cannot be null");
+		}
+
+		if (gapThreshold < 0)
+		{
+			throw new IllegalArgumentException("gapThreshold cannot be negative");
+		}
+
+		mDeliveryClock = deliveryClock;
+		mGapThreshold = gapThreshold;
+	}
+
+	//endregion
+
+	//region Properties
+
+	/**
+	 * @return Difference of ticker clock and delivery clock at last anchoring.
+	 */
+	public long getOffset()
+	{
+		return mOffset;
+	}
+
+	/**
+	 * @return Count of detected gaps, on Android count of deep sleeps while running.
+	 */
+	public long getGapCount()
+	{
+		return mGapCount;
+	}
+
+	/**
+	 * @return Total ms of detected gaps.
+	 */
+	public long getTotalGapMs()
+	{
+		return mTotalGapMs;
+	}
+
+	//endregion
+
+	//region Methods
+
+	/**
+	 * Anchors the clocks without detecting gap, e.g. on start of ticker.
+	 *
+	 * @param clockTime Current time of ticker clock.
+	 */
+	public void anchor(long clockTime)
+	{
+		mOffset = clockTime - mDeliveryClock.getTimeMs();
+	}
+
+	/**
+	 * Re-anchors the clocks and detects whether delivery clock stopped since last anchoring.
+	 *
+	 * @param clockTime Current time of ticker clock.
+	 * @return Ms for which was the delivery clock stopped, zero if no gap was detected.
+	 */
+	public long checkGap(long clockTime)
+	{
+		long previousOffset = mOffset;
+		anchor(clockTime);
+
+		long gap = mOffset - previousOffset;
+		if (gap <= mGapThreshold)
+		{
+			return 0;
+		}
+
+		mGapCount++;
+		mTotalGapMs += gap;
+
+		return gap;
+	}
+
+	/**
+	 * @param clockTime Time of ticker clock.
+	 * @return Time of delivery clock corresponding to provided time with current anchor.
+	 */
+	public long toDeliveryTime(long clockTime)
+	{
+		return clockTime - mOffset;
+	}
+
+	//endregion
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import com.jraska.time.common.IClock;
+import com.jraska.time.common.IStartStop;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread safe variant of {@link com.jraska.time.utils.StopWatch}, which can be controlled and read from any thread.
+ * <p/>
+ * Whole state is packed in single atomic word - running flag in the lowest bit and value in the rest. Value is
+ * elapsed time when stopped and clock time of zero elapsed time when running, so elapsed time is counted from
+ * one read of the state and one read of the clock. Reading is wait-free and does not allocate, state transitions
+ * are done by compare and set.
+ * <p/>
+ * Read racing with stop can count to the time of its clock read, which is later than the stop, so it can be
+ * larger than the stopped value by the duration of the read.
+ */
+public final class ConcurrentStopWatch implements IStartStop
+{
+	//region Constants
+
+	private static final long RUNNING_FLAG = 1;
+	private static final long STOPPED_ZERO = 0;
+
+	//endregion
+
+	//region Fields
+
+	private final IClock mClock;
+	private final AtomicLong mState = new AtomicLong(STOPPED_ZERO);
+
+	//endregion
+
+	//region Constructors
+
+	/**
+	 * Creates StopWatch measuring with {@link com.jraska.time.utils.MonotonicClock}.
+	 */
+	public ConcurrentStopWatch()
+	{
+		this(MonotonicClock.INSTANCE);
+	}
+
+	/**
+	 * Creates StopWatch measuring with provided clock. The clock must be thread safe.
+	 *
+	 * @param clock Clock to measure time with.
+	 * @throws java.lang.IllegalArgumentException If the clock is null.
+	 */
+	public ConcurrentStopWatch(IClock clock)
+	{
+		if (clock == null)
+		{
+			throw new IllegalArgumentException("clock cannot be null");
+		}
+
+		mClock = clock;
+	}
+
+	//endregion
+
+	//region Properties
+
+	public boolean isRunning()
+	{
+		return isRunning(mState.get());
+	}
+
+	/**
+	 * @return Time which StopWatch spent in running state.
+	 */
+	public long getElapsedMs()
+	{
+		long state = mState.get();
+		if (isRunning(state))
+		{
+			return mClock.getTimeMs() - value(state);
+		}
+
+		return value(state);
+	}
+
+	/**
+	 * Gets elapsed time at provided time of StopWatch clock. Allows counting more values from single clock read.
+	 *
+	 * @param timeMs Time of the clock, which should not be earlier than last start.
+	 * @return Time which StopWatch spent in running state until the provided time.
+	 */
+	public long getElapsedMs(long timeMs)
+	{
+		long state = mState.get();
+		if (isRunning(state))
+		{
+			return timeMs - value(state);
+		}
+
+		return value(state);
+	}
+
+	/**
+	 * @return Clock which is the StopWatch measuring with.
+	 */
+	public IClock getClock()
+	{
+		return mClock;
+	}
+
+	/**
+	 * Moves StopWatch to state with already measured time.
+	 *
+	 * @param elapsed Not negative elapsed time.
+	 * @throws java.lang.IllegalArgumentException if the setting value is negative
+	 */
+	public void setElapsedMs(long elapsed)
+	{
+		if (elapsed < 0)
+		{
+			throw new IllegalArgumentException("Elapsed cannot be negative");
+		}
+
+		while (true)
+		{
+			long state = mState.get();
+			long newState = isRunning(state) ? running(mClock.getTimeMs() - elapsed) : stopped(elapsed);
+
+			if (mState.compareAndSet(state, newState))
+			{
+				return;
+			}
+		}
+	}
+
+	//endregion
+
+	//region IStartStop impl
+
+	public void start()
+	{
+		while (true)
+		{
+			long state = mState.get();
+			if (isRunning(state))
+			{
+				return;
+			}
+
+			long now = mClock.getTimeMs();
+			if (mState.compareAndSet(state, running(now - value(state))))
+			{
+				return;
+			}
+		}
+	}
+
+	public void stop()
+	{
+		while (true)
+		{
+			long state = mState.get();
+			if (!isRunning(state))
+			{
+				return;
+			}
+
+			long now = mClock.getTimeMs();
+			if (mState.compareAndSet(state, stopped(now - value(state))))
+			{
+				return;
+			}
+		}
+	}
+
+	public void reset()
+	{
+		mState.set(STOPPED_ZERO);
+	}
+
+	/**
+	 * Atomically resets the StopWatch and starts it, no thread can see it stopped in between.
+	 */
+	public void restart()
+	{
+		mState.set(running(mClock.getTimeMs()));
+	}
+
+	//endregion
+
+	//region Methods
+
+	private static boolean isRunning(long state)
+	{
+		return (state & RUNNING_FLAG) != 0;
+	}
+
+	private static long value(long state)
+	{
+		return state >> 1;
+	}
+
+	private static long running(long zeroElapsedTime)
+	{
+		return (zeroElapsedTime << 1) | RUNNING_FLAG;
+	}
+
+	private static long stopped(long elapsed)
+	{
+		return elapsed << 1;
+	}
+
+	//endregion
+
+	//region Object implementation
+
+	@Override
+	public String toString()
+	{
+		return "ConcurrentStopWatch: " + "Elapsed millis: " + getElapsedMs() + (isRunning() ? " Running" : " Not running");
+	}
+
+	//endregion
+}
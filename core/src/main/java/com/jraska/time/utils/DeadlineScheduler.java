@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import com.jraska.time.common.IClock;
+import com.jraska.time.common.IStartStop;
+
+/**
+ * Fires many deadlines from single {@link com.jraska.time.utils.Ticker} through
+ * {@link com.jraska.time.utils.TimingWheel}. Ticker does not tick periodically, each tick is delayed exactly
+ * to the next deadline, so pending deadlines cost single scheduled wakeup. Ticker runs only while the scheduler
+ * is running and some deadline is pending.
+ * <p/>
+ * Planned wakeup is moved only by deadline earlier than it. Wakeup planned to deadline which was cancelled
+ * or moved later stays and the next one is planned when it comes, so scheduling does not search the wheel.
+ * <p/>
+ * Class is not thread safe, it has to be used only on the thread its ticker ticks on, e.g. the looper thread
+ * of {@link com.jraska.time.utils.HandlerTicker}. Listeners are called there too and can schedule and cancel deadlines.
+ */
+public final class DeadlineScheduler implements IStartStop
+{
+	//region Constants
+
+	private static final long WHEEL_TICK_MS = 1;
+
+	//endregion
+
+	//region Fields
+
+	private final IClock mClock;
+	private final Ticker mTicker;
+	private final TimingWheel mWheel;
+
+	private boolean mRunning;
+	private boolean mExpiring;
+	private long mWakeupMs = TimingWheel.NO_DEADLINE;
+
+	private final Ticker.OnTickListener mTickListener = new Ticker.OnTickListener()
+	{
+		@Override
+		public void onTick(Ticker ticker)
+		{
+			expireDue();
+		}
+	};
+
+	//endregion
+
+	//region Constructors
+
+	/**
+	 * Creates scheduler firing from the ticker. Scheduler becomes the ticker listener and sets delays of its ticks,
+	 * so ticker interval does not matter.
+	 *
+	 * @param ticker Ticker to fire deadlines from, not used by anything else.
+	 * @param clock  Clock of deadlines.
+	 * @throws java.lang.IllegalArgumentException If ticker or clock are null.
+	 */
+	public DeadlineScheduler(Ticker ticker, IClock clock)
+	{
+		if (ticker == null)
+		{
+			throw new IllegalArgumentException("ticker cannot be null");
+		}
+
+		if (clock == null)
+		{
+			throw new IllegalArgumentException("clock cannot be null");
+		}
+
+		mTicker = ticker;
+		mClock = clock;
+		mWheel = new TimingWheel(WHEEL_TICK_MS, clock.getTimeMs());
+
+		ticker.setOnTickListener(mTickListener);
+	}
+
+	//endregion
+
+	//region Properties
+
+	public IClock getClock()
+	{
+		return mClock;
+	}
+
+	public Ticker getTicker()
+	{
+		return mTicker;
+	}
+
+	public int getPendingCount()
+	{
+		return mWheel.getPendingCount();
+	}
+
+	public boolean isRunning()
+	{
+		return mRunning;
+	}
+
+	/**
+	 * @return Time of scheduler clock the ticker wakes up at, {@link TimingWheel#NO_DEADLINE} if it is stopped.
+	 */
+	public long getWakeupMs()
+	{
+		return mWakeupMs;
+	}
+
+	//endregion
+
+	//region IStartStop impl
+
+	/**
+	 * Starts firing deadlines, deadlines passed while stopped fire at next tick.
+	 */
+	public void start()
+	{
+		if (mRunning)
+		{
+			return;
+		}
+
+		mRunning = true;
+		planWakeup(mWheel.getNextDeadlineMs());
+	}
+
+	/**
+	 * Stops firing deadlines, scheduled deadlines are kept.
+	 */
+	public void stop()
+	{
+		if (!mRunning)
+		{
+			return;
+		}
+
+		mRunning = false;
+		stopWakeup();
+	}
+
+	/**
+	 * Stops and cancels all deadlines.
+	 */
+	public void reset()
+	{
+		stop();
+		mWheel.clear();
+	}
+
+	public void restart()
+	{
+		reset();
+		start();
+	}
+
+	//endregion
+
+	//region Methods
+
+	/**
+	 * Schedules deadline, timeout already pending here is moved to the new deadline.
+	 *
+	 * @param timeout    Timeout to fire.
+	 * @param deadlineMs Time of scheduler clock to fire at.
+	 */
+	public void schedule(TimingWheel.Timeout timeout, long deadlineMs)
+	{
+		if (mWheel.isEmpty())
+		{
+			//empty wheel moves without cost, deadlines are then placed relative to now
+			mWheel.advanceTo(mClock.getTimeMs());
+		}
+
+		mWheel.schedule(timeout, deadlineMs);
+
+		//wakeup is planned after expiring when called from listener
+		if (!mExpiring && deadlineMs < mWakeupMs)
+		{
+			planWakeup(deadlineMs);
+		}
+	}
+
+	/**
+	 * Schedules deadline after delay from now.
+	 *
+	 * @param timeout Timeout to fire.
+	 * @param delayMs Delay from now.
+	 */
+	public void scheduleIn(TimingWheel.Timeout timeout, long delayMs)
+	{
+		schedule(timeout, mClock.getTimeMs() + delayMs);
+	}
+
+	/**
+	 * Cancels deadline. Wakeup planned to cancelled deadline is kept if other deadlines are pending.
+	 *
+	 * @param timeout Timeout to cancel.
+	 * @return True if the timeout was pending here.
+	 */
+	public boolean cancel(TimingWheel.Timeout timeout)
+	{
+		boolean cancelled = mWheel.cancel(timeout);
+		if (cancelled && mWheel.isEmpty() && !mExpiring)
+		{
+			stopWakeup();
+		}
+
+		return cancelled;
+	}
+
+	private void expireDue()
+	{
+		long now = getTickTimeMs();
+		mWheel.advanceTo(now);
+
+		mExpiring = true;
+
+		TimingWheel.Timeout timeout;
+		while ((timeout = mWheel.pollExpired()) != null)
+		{
+			timeout.getListener().onExpired(timeout);
+		}
+
+		mExpiring = false;
+		planNextTick(now);
+	}
+
+	private long getTickTimeMs()
+	{
+		if (mTicker.getTickClock() == mClock)
+		{
+			long tickTime = mTicker.getTickTime();
+			if (tickTime != Ticker.NO_TICK_TIME)
+			{
+				return tickTime;
+			}
+		}
+
+		return mClock.getTimeMs();
+	}
+
+	private void planWakeup(long deadlineMs)
+	{
+		if (!mRunning || deadlineMs == TimingWheel.NO_DEADLINE)
+		{
+			stopWakeup();
+			return;
+		}
+
+		//restart applies the delay to pending tick
+		mWakeupMs = deadlineMs;
+		mTicker.stop();
+		mTicker.setNextTickDelay(Math.max(deadlineMs - mClock.getTimeMs(), 0));
+		mTicker.start();
+	}
+
+	private void planNextTick(long now)
+	{
+		long nextDeadline = mWheel.getNextDeadlineMs();
+		if (!mRunning || nextDeadline == TimingWheel.NO_DEADLINE)
+		{
+			stopWakeup();
+			return;
+		}
+
+		//during tick the delay applies to next tick
+		mWakeupMs = nextDeadline;
+		mTicker.setNextTickDelay(Math.max(nextDeadline - now, 0));
+	}
+
+	private void stopWakeup()
+	{
+		mWakeupMs = TimingWheel.NO_DEADLINE;
+		mTicker.stop();
+	}
+
+	//endregion
+}
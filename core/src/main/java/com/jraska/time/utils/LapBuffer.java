@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+/**
+ * Laps recorded by {@link com.jraska.time.utils.StopWatch}. Lap is time measured since previous lap,
+ * split is elapsed time of the StopWatch when the lap was taken.
+ * <p/>
+ * Laps are kept in primitive ring buffers, so recording does not box values and is O(1). Unbounded buffer grows,
+ * bounded one keeps only last laps and overwrites the oldest. Index 0 is always the oldest kept lap.
+ * <p/>
+ * Minimum, maximum, mean and variance are updated on each lap, so reading them does not scan the laps.
+ * They are counted from all laps since last clear, including laps already overwritten in bounded buffer.
+ * <p/>
+ * Class is not thread safe, same as the StopWatch.
+ */
+public final class LapBuffer
+{
+	//region Constants
+
+	/**
+	 * Capacity of unbounded buffer.
+	 */
+	public static final int UNBOUNDED = -1;
+
+	private static final int INITIAL_GROW_CAPACITY = 8;
+	private static final long[] EMPTY = new long[0];
+
+	//endregion
+
+	//region Fields
+
+	private final int mMaxLaps;
+
+	private long[] mLaps = EMPTY;
+	private long[] mSplits = EMPTY;
+	private int mHead;
+	private int mCount;
+
+	private long mTotalCount;
+	private long mMinLapMs;
+	private long mMaxLapMs;
+	private double mMeanLapMs;
+	private double mSquaredDeviationsSum;
+
+	//endregion
+
+	//region Constructors
+
+	/**
+	 * Creates unbounded buffer, which does not allocate until first lap.
+	 */
+	public LapBuffer()
+	{
+		mMaxLaps = UNBOUNDED;
+	}
+
+	/**
+	 * Creates bounded buffer keeping last laps.
+	 *
+	 * @param maxLaps Count of kept laps.
+	 * @throws java.lang.IllegalArgumentException If maxLaps is not positive.
+	 */
+	public LapBuffer(int maxLaps)
+	{
+		if (maxLaps <= 0)
+		{
+			throw new IllegalArgumentException("maxLaps must be positive, was: " + maxLaps);
+		}
+
+		mMaxLaps = maxLaps;
+		mLaps = new long[maxLaps];
+		mSplits = new long[maxLaps];
+	}
+
+	//endregion
+
+	//region Properties
+
+	/**
+	 * @return Max count of kept laps or {@link #UNBOUNDED}.
+	 */
+	public int getMaxLaps()
+	{
+		return mMaxLaps;
+	}
+
+	/**
+	 * @return Count of kept laps, which can be accessed by index.
+	 */
+	public int getCount()
+	{
+		return mCount;
+	}
+
+	/**
+	 * @return Count of all laps since last clear, including overwritten ones.
+	 */
+	public long getTotalCount()
+	{
+		return mTotalCount;
+	}
+
+	/**
+	 * @param index Index of kept lap, 0 is the oldest.
+	 * @return Duration of the lap.
+	 * @throws java.lang.IndexOutOfBoundsException If there is no kept lap at index.
+	 */
+	public long getLapMs(int index)
+	{
+		return mLaps[toBufferIndex(index)];
+	}
+
+	/**
+	 * @param index Index of kept lap, 0 is the oldest.
+	 * @return Elapsed time of the StopWatch at the end of the lap.
+	 * @throws java.lang.IndexOutOfBoundsException If there is no kept lap at index.
+	 */
+	public long getSplitMs(int index)
+	{
+		return mSplits[toBufferIndex(index)];
+	}
+
+	/**
+	 * @return Shortest lap or 0 if there are no laps.
+	 */
+	public long getMinLapMs()
+	{
+		return mMinLapMs;
+	}
+
+	/**
+	 * @return Longest lap or 0 if there are no laps.
+	 */
+	public long getMaxLapMs()
+	{
+		return mMaxLapMs;
+	}
+
+	/**
+	 * @return Mean lap duration or 0 if there are no laps.
+	 */
+	public double getMeanLapMs()
+	{
+		return mMeanLapMs;
+	}
+
+	/**
+	 * @return Sample variance of lap durations or 0 if there are less than two laps.
+	 */
+	public double getLapVariance()
+	{
+		if (mTotalCount < 2)
+		{
+			return 0;
+		}
+
+		return mSquaredDeviationsSum / (mTotalCount - 1);
+	}
+
+	/**
+	 * @return Sample standard deviation of lap durations or 0 if there are less than two laps.
+	 */
+	public double getLapStandardDeviation()
+	{
+		return Math.sqrt(getLapVariance());
+	}
+
+	//endregion
+
+	//region Methods
+
+	/**
+	 * Copies kept laps from the oldest to provided array.
+	 *
+	 * @param destination Array to copy into.
+	 * @param offset      Position in destination of the oldest lap.
+	 * @return Count of copied laps.
+	 * @throws java.lang.IndexOutOfBoundsException If the laps do not fit into destination.
+	 */
+	public int copyLaps(long[] destination, int offset)
+	{
+		return copy(mLaps, destination, offset);
+	}
+
+	/**
+	 * Copies splits of kept laps from the oldest to provided array.
+	 *
+	 * @param destination Array to copy into.
+	 * @param offset      Position in destination of the oldest split.
+	 * @return Count of copied splits.
+	 * @throws java.lang.IndexOutOfBoundsException If the splits do not fit into destination.
+	 */
+	public int copySplits(long[] destination, int offset)
+	{
+		return copy(mSplits, destination, offset);
+	}
+
+	/**
+	 * Removes all laps and clears statistics. Buffer keeps its capacity.
+	 */
+	public void clear()
+	{
+		mHead = 0;
+		mCount = 0;
+
+		mTotalCount = 0;
+		mMinLapMs = 0;
+		mMaxLapMs = 0;
+		mMeanLapMs = 0;
+		mSquaredDeviationsSum = 0;
+	}
+
+	void add(long lapMs, long splitMs)
+	{
+		if (mCount == mLaps.length)
+		{
+			if (mMaxLaps == UNBOUNDED)
+			{
+				grow();
+			}
+			else
+			{
+				//overwrite the oldest
+				mHead = next(mHead);
+				mCount--;
+			}
+		}
+
+		int index = mHead + mCount;
+		if (index >= mLaps.length)
+		{
+			index -= mLaps.length;
+		}
+
+		mLaps[index] = lapMs;
+		mSplits[index] = splitMs;
+		mCount++;
+
+		updateStatistics(lapMs);
+	}
+
+	private void updateStatistics(long lapMs)
+	{
+		mTotalCount++;
+
+		if (mTotalCount == 1)
+		{
+			mMinLapMs = lapMs;
+			mMaxLapMs = lapMs;
+		}
+		else
+		{
+			mMinLapMs = Math.min(mMinLapMs, lapMs);
+			mMaxLapMs = Math.max(mMaxLapMs, lapMs);
+		}
+
+		//Welford's online algorithm, stable even for many laps of similar length
+		double delta = lapMs - mMeanLapMs;
+		mMeanLapMs += delta / mTotalCount;
+		mSquaredDeviationsSum += delta * (lapMs - mMeanLapMs);
+	}
+
+	private void grow()
+	{
+		int capacity = Math.max(INITIAL_GROW_CAPACITY, mLaps.length * 2);
+
+		long[] laps = new long[capacity];
+		long[] splits = new long[capacity];
+		copy(mLaps, laps, 0);
+		copy(mSplits, splits, 0);
+
+		mLaps = laps;
+		mSplits = splits;
+		mHead = 0;
+	}
+
+	private int copy(long[] source, long[] destination, int offset)
+	{
+		if (offset < 0 || offset + mCount > destination.length)
+		{
+			throw new IndexOutOfBoundsException("Cannot copy " + mCount + " laps to offset " + offset
+					+ " of array with length " + destination.length);
+		}
+
+		int firstPart = Math.min(mCount, source.length - mHead);
+		System.arraycopy(source, mHead, destination, offset, firstPart);
+		System.arraycopy(source, 0, destination, offset + firstPart, mCount - firstPart);
+
+		return mCount;
+	}
+
+	private int toBufferIndex(int index)
+	{
+		if (index < 0 || index >= mCount)
+		{
+			throw new IndexOutOfBoundsException("Index: " + index + ", laps count: " + mCount);
+		}
+
+		int bufferIndex = mHead + index;
+		if (bufferIndex >= mLaps.length)
+		{
+			bufferIndex -= mLaps.length;
+		}
+
+		return bufferIndex;
+	}
+
+	private int next(int index)
+	{
+		index++;
+		return index == mLaps.length ? 0 : index;
+	}
+
+	//endregion
+
+	//region Object implementation
+
+	@Override
+	public String toString()
+	{
+		return "Laps: " + mTotalCount + " Min: " + mMinLapMs + " Max: " + mMaxLapMs + " Mean: " + mMeanLapMs;
+	}
+
+	//endregion
+}
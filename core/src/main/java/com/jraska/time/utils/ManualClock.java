@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import com.jraska.time.common.IClock;
+
+/**
+ * Clock which moves only when advanced. Allows deterministic tests and simulations of long running timers
+ * without waiting for real time.
+ *
+ * @see com.jraska.time.utils.ManualTickScheduler
+ */
+public final class ManualClock implements IClock
+{
+	//region Fields
+
+	private long mTimeMs;
+
+	//endregion
+
+	//region Constructors
+
+	public ManualClock()
+	{
+		this(0);
+	}
+
+	public ManualClock(long startTimeMs)
+	{
+		mTimeMs = startTimeMs;
+	}
+
+	//endregion
+
+	//region IClock implementation
+
+	@Override
+	public long getTimeMs()
+	{
+		return mTimeMs;
+	}
+
+	//endregion
+
+	//region Methods
+
+	/**
+	 * Moves the clock forward.
+	 *
+	 * @param ms Non-negative ms to move the clock by.
+	 * @throws java.lang.IllegalArgumentException If the ms are negative.
+	 */
+	public void advance(long ms)
+	{
+		if (ms < 0)
+		{
+			throw new IllegalArgumentException("Clock cannot go back");
+		}
+
+		mTimeMs += ms;
+	}
+
+	/**
+	 * Moves the clock to provided time.
+	 *
+	 * @param timeMs Time not earlier than current one.
+	 * @throws java.lang.IllegalArgumentException If the time is earlier than current.
+	 */
+	public void setTimeMs(long timeMs)
+	{
+		advance(timeMs - mTimeMs);
+	}
+
+	//endregion
+}
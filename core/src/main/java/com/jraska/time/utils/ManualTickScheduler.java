@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+/**
+ * Scheduler delivering ticks of {@link com.jraska.time.utils.ManualTicker}s in virtual time of
+ * {@link com.jraska.time.utils.ManualClock}. Time moves only by advancing the scheduler, which fires all ticks
+ * due in the advanced period in order of their times and moves the clock to each of them, so ticks are never
+ * late. Hours of ticking take only the time of tick callbacks.
+ * <p/>
+ * Class is not thread safe, tickers must be used on the thread advancing the scheduler.
+ */
+public final class ManualTickScheduler
+{
+	//region Fields
+
+	private final ManualClock mClock;
+
+	private ManualTicker[] mTickers = new ManualTicker[4];
+	private int mTickersCount;
+
+	private long mDispatchedTicks;
+
+	//endregion
+
+	//region Constructors
+
+	public ManualTickScheduler()
+	{
+		this(new ManualClock());
+	}
+
+	/**
+	 * @throws java.lang.IllegalArgumentException If the clock is null.
+	 */
+	public ManualTickScheduler(ManualClock clock)
+	{
+		if (clock == null)
+		{
+			throw new IllegalArgumentException("clock cannot be null");
+		}
+
+		mClock = clock;
+	}
+
+	//endregion
+
+	//region Properties
+
+	public ManualClock getClock()
+	{
+		return mClock;
+	}
+
+	/**
+	 * @return Count of running tickers.
+	 */
+	public int getTickersCount()
+	{
+		return mTickersCount;
+	}
+
+	/**
+	 * @return Count of ticks fired since creation.
+	 */
+	public long getDispatchedTicks()
+	{
+		return mDispatchedTicks;
+	}
+
+	//endregion
+
+	//region Methods
+
+	/**
+	 * Advances virtual time and fires all ticks due till the end of period.
+	 *
+	 * @param ms Non-negative ms to advance by.
+	 * @throws java.lang.IllegalArgumentException If the ms are negative.
+	 */
+	public void advanceBy(long ms)
+	{
+		if (ms < 0)
+		{
+			throw new IllegalArgumentException("ms cannot be negative");
+		}
+
+		advanceTo(mClock.getTimeMs() + ms);
+	}
+
+	/**
+	 * Advances virtual time to provided time and fires all ticks due till then.
+	 *
+	 * @param timeMs Time to advance to, earlier time than current fires only ticks already due.
+	 */
+	public void advanceTo(long timeMs)
+	{
+		ManualTicker ticker = findNextTicker(timeMs);
+		while (ticker != null)
+		{
+			dispatchTick(ticker);
+			ticker = findNextTicker(timeMs);
+		}
+
+		if (timeMs > mClock.getTimeMs())
+		{
+			mClock.setTimeMs(timeMs);
+		}
+	}
+
+	/**
+	 * Advances virtual time to the nearest tick and fires it.
+	 *
+	 * @return True if some tick was fired, false if no ticker is running.
+	 */
+	public boolean runNextTick()
+	{
+		ManualTicker ticker = findNextTicker(Long.MAX_VALUE);
+		if (ticker == null)
+		{
+			return false;
+		}
+
+		dispatchTick(ticker);
+		return true;
+	}
+
+	void subscribe(ManualTicker ticker)
+	{
+		if (mTickersCount == mTickers.length)
+		{
+			ManualTicker[] tickers = new ManualTicker[mTickers.length * 2];
+			System.arraycopy(mTickers, 0, tickers, 0, mTickersCount);
+			mTickers = tickers;
+		}
+
+		ticker.setSchedulerIndex(mTickersCount);
+		mTickers[mTickersCount++] = ticker;
+	}
+
+	void unsubscribe(ManualTicker ticker)
+	{
+		int index = ticker.getSchedulerIndex();
+		if (index < 0)
+		{
+			return;
+		}
+
+		int lastIndex = --mTickersCount;
+		ManualTicker last = mTickers[lastIndex];
+		mTickers[index] = last;
+		last.setSchedulerIndex(index);
+		mTickers[lastIndex] = null;
+
+		ticker.setSchedulerIndex(-1);
+	}
+
+	private ManualTicker findNextTicker(long untilTime)
+	{
+		ManualTicker next = null;
+		for (int i = 0; i < mTickersCount; i++)
+		{
+			ManualTicker ticker = mTickers[i];
+			if (ticker.getDueTime() <= untilTime && (next == null || ticker.getDueTime() < next.getDueTime()))
+			{
+				next = ticker;
+			}
+		}
+
+		return next;
+	}
+
+	private void dispatchTick(ManualTicker ticker)
+	{
+		long dueTime = ticker.getDueTime();
+		if (dueTime > mClock.getTimeMs())
+		{
+			mClock.setTimeMs(dueTime);
+		}
+
+		mDispatchedTicks++;
+		ticker.dispatchTick(mClock.getTimeMs());
+	}
+
+	//endregion
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import com.jraska.time.common.IClock;
+import com.jraska.time.common.IStartStop;
+
+/**
+ * Ticker ticking in virtual time of {@link com.jraska.time.utils.ManualTickScheduler}.
+ * <p/>
+ * Behaviour of pausing, moves and delays is the same as of other tickers, computing of tick times is delegated
+ * to {@link com.jraska.time.utils.TickSchedule}, so tests of tick timing can run without waiting for real time.
+ */
+public final class ManualTicker extends Ticker implements IStartStop
+{
+	//region Fields
+
+	private final ManualTickScheduler mScheduler;
+	private final TickSchedule mSchedule = new TickSchedule();
+	private boolean mRunning;
+	private int mSchedulerIndex = -1;
+
+	//endregion
+
+	//region Constructors
+
+	/**
+	 * @throws java.lang.IllegalArgumentException If the scheduler is null or interval not positive.
+	 */
+	public ManualTicker(ManualTickScheduler scheduler, OnTickListener onTickListener, long tickInterval)
+	{
+		super(onTickListener, tickInterval);
+
+		if (scheduler == null)
+		{
+			throw new IllegalArgumentException("scheduler cannot be null");
+		}
+
+		mScheduler = scheduler;
+	}
+
+	//endregion
+
+	//region Properties
+
+	public ManualTickScheduler getScheduler()
+	{
+		return mScheduler;
+	}
+
+	public boolean isRunning()
+	{
+		return mRunning;
+	}
+
+	@Override
+	public long getRemainingToNextTick()
+	{
+		if (!isRunning())
+		{
+			return mSchedule.countRemainingToNextTickStopped(getTickInterval());
+		}
+
+		return mSchedule.countRemainingToNextTick(getTimeMs(mScheduler.getClock()));
+	}
+
+	@Override
+	public IClock getTickClock()
+	{
+		return mScheduler.getClock();
+	}
+
+	@Override
+	public long getNextTickMove()
+	{
+		return mSchedule.getNextTickMove();
+	}
+
+	@Override
+	public void setNextTickMove(long moveMs)
+	{
+		mSchedule.setNextTickMove(moveMs);
+	}
+
+	@Override
+	public void setNextTickDelay(long delayMs)
+	{
+		if (delayMs < 0)
+		{
+			throw new IllegalArgumentException("delayMs cannot be negative");
+		}
+
+		if (isRunning())
+		{
+			mSchedule.setNextTickDelay(getTimeMs(mScheduler.getClock()), delayMs, getTickInterval());
+		}
+		else
+		{
+			mSchedule.setStartDelay(delayMs, getTickInterval());
+		}
+	}
+
+	long getDueTime()
+	{
+		return mSchedule.getFutureTickTime();
+	}
+
+	int getSchedulerIndex()
+	{
+		return mSchedulerIndex;
+	}
+
+	void setSchedulerIndex(int schedulerIndex)
+	{
+		mSchedulerIndex = schedulerIndex;
+	}
+
+	//endregion
+
+	//region IStartStop impl
+
+	public void start()
+	{
+		if (isRunning())
+		{
+			return;
+		}
+
+		mSchedule.start(getTimeMs(mScheduler.getClock()), getTickInterval());
+		mRunning = true;
+
+		mScheduler.subscribe(this);
+	}
+
+	public void stop()
+	{
+		if (!isRunning())
+		{
+			return;
+		}
+
+		mSchedule.stop(getTimeMs(mScheduler.getClock()), getTickInterval());
+		mRunning = false;
+
+		mScheduler.unsubscribe(this);
+	}
+
+	public void reset()
+	{
+		stop();
+
+		mSchedule.reset();
+	}
+
+	public void restart()
+	{
+		stop();
+		reset();
+		start();
+	}
+
+	//endregion
+
+	//region Methods
+
+	void dispatchTick(long now)
+	{
+		tick(now);
+
+		//listener could stop or restart the ticker, restarted one has already new schedule
+		if (isRunning() && mSchedule.getFutureTickTime() <= now)
+		{
+			mSchedule.scheduleNextTick(now, getTickInterval());
+		}
+	}
+
+	//endregion
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+/**
+ * Policies how ticker handles ticks, whose time passed while the thread delivering ticks was busy.
+ *
+ * @see com.jraska.time.utils.TickSchedule#scheduleNextTick(long, long)
+ */
+public enum MissedTickPolicy
+{
+	//region Enum members
+
+	/**
+	 * Missed ticks are skipped and the next tick comes on the first future tick time, so the phase is kept.
+	 */
+	Coalesce,
+
+	/**
+	 * All missed ticks fire one by one without delay to catch up.
+	 */
+	ReplayAll,
+
+	/**
+	 * One tick fires immediately for all missed ones and following ticks are phased from it.
+	 */
+	FireNowAndRephase
+
+	//endregion
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import com.jraska.time.common.IClock;
+
+/**
+ * Plain Java clock based on {@link System#nanoTime()}.
+ * <p/>
+ * Note that on Android this clock does not count time spent in deep sleep.
+ */
+public final class MonotonicClock implements IClock
+{
+	//region Constants
+
+	public static final MonotonicClock INSTANCE = new MonotonicClock();
+
+	//endregion
+
+	//region IClock implementation
+
+	@Override
+	public long getTimeMs()
+	{
+		return System.nanoTime() / 1000000;
+	}
+
+	//endregion
+}
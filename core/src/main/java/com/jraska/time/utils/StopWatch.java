@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2013, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import com.jraska.time.common.IClock;
+import com.jraska.time.common.IStartStop;
+
+/**
+ * Class measuring elapsed time in milliseconds. Can be set to zero state,
+ * pause and continued or set to some initial time and start after that.
+ * <p/>
+ * Laps are recorded by {@link #lap()} to {@link com.jraska.time.utils.LapBuffer}.
+ */
+public final class StopWatch implements IStartStop
+{
+	//region Fields
+
+	private final IClock m_clock;
+	private final LapBuffer m_laps;
+
+	private long m_elapsedMs = 0;
+	private long m_lastMs = 0;
+	private boolean m_running = false;
+	private long m_lapStartMs = 0;
+
+	//endregion
+
+	//region Constructors
+
+	/**
+	 * Creates StopWatch measuring with {@link com.jraska.time.utils.MonotonicClock}.
+	 */
+	public StopWatch()
+	{
+		this(MonotonicClock.INSTANCE);
+	}
+
+	/**
+	 * Creates StopWatch measuring with provided clock.
+	 *
+	 * @param clock Clock to measure time with.
+	 * @throws java.lang.IllegalArgumentException If the clock is null.
+	 */
+	public StopWatch(IClock clock)
+	{
+		this(clock, new LapBuffer());
+	}
+
+	/**
+	 * Creates StopWatch measuring with provided clock, which keeps only last laps.
+	 *
+	 * @param clock   Clock to measure time with.
+	 * @param maxLaps Count of kept laps.
+	 * @throws java.lang.IllegalArgumentException If the clock is null or maxLaps not positive.
+	 */
+	public StopWatch(IClock clock, int maxLaps)
+	{
+		this(clock, new LapBuffer(maxLaps));
+	}
+
+	private StopWatch(IClock clock, LapBuffer laps)
+	{
+		if (clock == null)
+		{
+			throw new IllegalArgumentException("clock cannot be null");
+		}
+
+		m_clock = clock;
+		m_laps = laps;
+	}
+
+	//endregion
+
+	//region Properties
+
+	/**
+	 * Gets if the StopWatch is running or not.
+	 *
+	 * @return True if the StopWatch is in running state, false otherwise.
+	 */
+	public boolean isRunning()
+	{
+		return m_running;
+	}
+
+	/**
+	 * Gets total elapsed millisecond time of running these StopWatch
+	 *
+	 * @return Time which StopWatch spent in running state.
+	 */
+	public long getElapsedMs()
+	{
+		if (m_running)
+		{
+			return getElapsedMs(m_clock.getTimeMs());
+		}
+
+		return m_elapsedMs;
+	}
+
+	/**
+	 * Gets elapsed time at provided time of StopWatch clock. Allows counting more values from single clock read.
+	 *
+	 * @param timeMs Time of the clock, which should not be earlier than last start.
+	 * @return Time which StopWatch spent in running state until the provided time.
+	 */
+	public long getElapsedMs(long timeMs)
+	{
+		if (m_running)
+		{
+			return m_elapsedMs + (timeMs - m_lastMs);
+		}
+
+		return m_elapsedMs;
+	}
+
+	/**
+	 * @return Clock which is the StopWatch measuring with.
+	 */
+	public IClock getClock()
+	{
+		return m_clock;
+	}
+
+	/**
+	 * @return Recorded laps with their statistics.
+	 */
+	public LapBuffer getLaps()
+	{
+		return m_laps;
+	}
+
+	/**
+	 * @return Time measured since last lap or start of measuring.
+	 */
+	public long getCurrentLapMs()
+	{
+		return getElapsedMs() - m_lapStartMs;
+	}
+
+	/**
+	 * Moves StopWatch to state with already measured time. Current lap starts again from the set time.
+	 * <p/>
+	 * Not negative value must be set
+	 *
+	 * @throws java.lang.IllegalArgumentException if the setting value is negative
+	 */
+	public void setElapsedMs(long elapsed)
+	{
+		if (elapsed < 0)
+		{
+			throw new IllegalArgumentException("Elapsed cannot be negative");
+		}
+
+		if (m_running)
+		{
+			//on running clear elapsed and handle everything with mLastElapsed
+			long now = m_clock.getTimeMs();
+			m_elapsedMs = 0;
+			m_lastMs = now - elapsed; //this causes now elapsed time to elapsed
+		}
+		else
+		{
+			m_elapsedMs = elapsed;
+		}
+
+		m_lapStartMs = elapsed;
+	}
+
+	//endregion
+
+	//region Methods
+
+	/**
+	 * Starts count elapsed time.
+	 */
+	public void start()
+	{
+		//do nothing if the stopwatch is already running
+		if (m_running)
+		{
+			return;
+		}
+		m_running = true;
+
+		//get the time information as last part for better precision
+		m_lastMs = m_clock.getTimeMs();
+	}
+
+	/**
+	 * Stops counting elapsed time.
+	 */
+	public void stop()
+	{
+		//get the time information as first part for better precision
+		long systemMs = m_clock.getTimeMs();
+
+		//if it was already stopped or did not even run, do nothing
+		if (!m_running)
+		{
+			return;
+		}
+
+		m_elapsedMs += (systemMs - m_lastMs);
+
+		m_running = false;
+	}
+
+	/**
+	 * Records lap ending now and starts next one.
+	 *
+	 * @return Duration of the recorded lap.
+	 */
+	public long lap()
+	{
+		return lap(m_clock.getTimeMs());
+	}
+
+	/**
+	 * Records lap ending at provided time of StopWatch clock and starts next one.
+	 *
+	 * @param timeMs Time of the clock, which should not be earlier than last start.
+	 * @return Duration of the recorded lap.
+	 */
+	public long lap(long timeMs)
+	{
+		long splitMs = getElapsedMs(timeMs);
+		long lapMs = splitMs - m_lapStartMs;
+
+		m_laps.add(lapMs, splitMs);
+		m_lapStartMs = splitMs;
+
+		return lapMs;
+	}
+
+	/**
+	 * Reset the StopWatch to init state with elapsed time of zero and no laps.
+	 */
+	public void reset()
+	{
+		m_running = false;
+		m_elapsedMs = 0;
+		m_lastMs = 0;
+		m_lapStartMs = 0;
+		m_laps.clear();
+	}
+
+	/**
+	 * Resets stopwatch to initial state and start count time from beginning.
+	 */
+	public void restart()
+	{
+		stop();
+		reset();
+		start();
+	}
+
+	//endregion
+
+	//region Object implementation
+
+	@Override
+	public String toString()
+	{
+		return "Stopwatch: " + "Elapsed millis: " + getElapsedMs() + (m_running ? " Running" : " Not running");
+	}
+
+	//endregion
+}
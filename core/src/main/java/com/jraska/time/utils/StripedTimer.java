@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import com.jraska.time.common.IClock;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Timer accumulating active time of many threads measuring against one total.
+ * <p/>
+ * Each thread measures its intervals by own {@link com.jraska.time.utils.StripedTimer.Measurement} and adds
+ * finished intervals to one of striped counters, so threads do not contend on single counter. Stripes are
+ * padded to own cache lines. Aggregate values are summed over all stripes on read.
+ * <p/>
+ * Besides total active time and count of intervals the timer counts concurrency weighted time - each interval
+ * multiplied by mean of intervals active when it began and when it ended, including itself. Weighted time divided
+ * by total time is mean concurrency the intervals ran in, see {@link #getMeanConcurrency()}. Active intervals
+ * are counted by single counter padded to own cache line, which each interval updates on begin and end.
+ * <p/>
+ * Values read during running measurements are not a consistent snapshot, each of them is exact for
+ * all intervals finished before the read started.
+ */
+public final class StripedTimer
+{
+	//region Constants
+
+	private static final int MAX_STRIPES = 64;
+
+	//two cache lines of longs, so stripes are not on adjacent lines fetched together
+	private static final int STRIPE_LENGTH = 16;
+	private static final int ACTIVE_TIME_CELL = 0;
+	private static final int WEIGHTED_TIME_CELL = 1;
+	private static final int COUNT_CELL = 2;
+
+	//endregion
+
+	//region Fields
+
+	private final IClock mClock;
+	private final AtomicLongArray mCells;
+	private final int mStripeMask;
+	private final int mActiveCountCell;
+
+	//endregion
+
+	//region Constructors
+
+	/**
+	 * Creates timer measuring with {@link com.jraska.time.utils.MonotonicClock} with stripe for each processor.
+	 */
+	public StripedTimer()
+	{
+		this(MonotonicClock.INSTANCE);
+	}
+
+	public StripedTimer(IClock clock)
+	{
+		this(clock, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param clock   Thread safe clock to measure with.
+	 * @param stripes Count of counters, rounded up to power of two up to 64.
+	 * @throws java.lang.IllegalArgumentException If the clock is null or stripes are not positive.
+	 */
+	public StripedTimer(IClock clock, int stripes)
+	{
+		if (clock == null)
+		{
+			throw new IllegalArgumentException("clock cannot be null");
+		}
+
+		if (stripes <= 0)
+		{
+			throw new IllegalArgumentException("stripes must be positive, was: " + stripes);
+		}
+
+		int stripesCount = 1;
+		while (stripesCount < stripes && stripesCount < MAX_STRIPES)
+		{
+			stripesCount <<= 1;
+		}
+
+		mClock = clock;
+		mStripeMask = stripesCount - 1;
+
+		//first stripe is also padded from array header, active count follows the last stripe on own line
+		mActiveCountCell = cellBase(stripesCount);
+		mCells = new AtomicLongArray((stripesCount + 2) * STRIPE_LENGTH);
+	}
+
+	//endregion
+
+	//region Properties
+
+	public IClock getClock()
+	{
+		return mClock;
+	}
+
+	public int getStripesCount()
+	{
+		return mStripeMask + 1;
+	}
+
+	/**
+	 * @return Sum of durations of all finished intervals.
+	 */
+	public long getTotalActiveMs()
+	{
+		return sum(ACTIVE_TIME_CELL);
+	}
+
+	/**
+	 * Concurrency of interval is sampled only at its begin and end, so intervals which began and ended
+	 * during it are not counted and the value is an approximation of time weighted concurrency.
+	 *
+	 * @return Sum of durations of finished intervals, each multiplied by mean concurrency at its begin and end.
+	 */
+	public long getConcurrencyWeightedMs()
+	{
+		//cells hold durations multiplied by sum of both samples
+		return sum(WEIGHTED_TIME_CELL) / 2;
+	}
+
+	/**
+	 * @return Count of finished intervals.
+	 */
+	public long getCount()
+	{
+		return sum(COUNT_CELL);
+	}
+
+	/**
+	 * @return Count of intervals active now.
+	 */
+	public long getActiveCount()
+	{
+		return mCells.get(mActiveCountCell);
+	}
+
+	/**
+	 * @return Mean count of intervals running together, weighted by duration. 0 if no time was measured.
+	 */
+	public double getMeanConcurrency()
+	{
+		long totalActiveMs = getTotalActiveMs();
+		if (totalActiveMs == 0)
+		{
+			return 0;
+		}
+
+		return (double) getConcurrencyWeightedMs() / totalActiveMs;
+	}
+
+	//endregion
+
+	//region Methods
+
+	/**
+	 * Creates measurement for calling thread. Measurement should be kept by the thread and reused.
+	 *
+	 * @return New measurement adding to this timer.
+	 */
+	public Measurement newMeasurement()
+	{
+		return new Measurement(this, stripeOf(Thread.currentThread()));
+	}
+
+	/**
+	 * Clears all counters. Intervals finishing during reset can be kept partially.
+	 */
+	public void reset()
+	{
+		for (int stripe = 0; stripe <= mStripeMask; stripe++)
+		{
+			int base = cellBase(stripe);
+			mCells.set(base + ACTIVE_TIME_CELL, 0);
+			mCells.set(base + WEIGHTED_TIME_CELL, 0);
+			mCells.set(base + COUNT_CELL, 0);
+		}
+	}
+
+	/**
+	 * @return Count of active intervals including the begun one.
+	 */
+	long begin()
+	{
+		return mCells.incrementAndGet(mActiveCountCell);
+	}
+
+	void end(int stripe, long durationMs, long beginConcurrency)
+	{
+		//ending interval is still counted in its end concurrency
+		long endConcurrency = mCells.getAndDecrement(mActiveCountCell);
+
+		int base = cellBase(stripe);
+		mCells.addAndGet(base + ACTIVE_TIME_CELL, durationMs);
+		mCells.addAndGet(base + WEIGHTED_TIME_CELL, durationMs * (beginConcurrency + endConcurrency));
+		mCells.incrementAndGet(base + COUNT_CELL);
+	}
+
+	private long sum(int cell)
+	{
+		long sum = 0;
+		for (int stripe = 0; stripe <= mStripeMask; stripe++)
+		{
+			sum += mCells.get(cellBase(stripe) + cell);
+		}
+
+		return sum;
+	}
+
+	private int stripeOf(Thread thread)
+	{
+		//spread sequential thread ids
+		long id = thread.getId();
+		int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+
+		return (hash ^ (hash >>> 16)) & mStripeMask;
+	}
+
+	private static int cellBase(int stripe)
+	{
+		return (stripe + 1) * STRIPE_LENGTH;
+	}
+
+	//endregion
+
+	//region Object implementation
+
+	@Override
+	public String toString()
+	{
+		return "StripedTimer: Active ms: " + getTotalActiveMs() + " Count: " + getCount() + " Mean concurrency: " + getMeanConcurrency();
+	}
+
+	//endregion
+
+	//region Nested classes
+
+	/**
+	 * Measures intervals of one thread. Not thread safe, each thread should have own measurement.
+	 */
+	public static final class Measurement
+	{
+		//region Fields
+
+		private final StripedTimer mTimer;
+		private final int mStripe;
+
+		private boolean mActive;
+		private long mBeginMs;
+		private long mConcurrency;
+
+		//endregion
+
+		//region Constructors
+
+		Measurement(StripedTimer timer, int stripe)
+		{
+			mTimer = timer;
+			mStripe = stripe;
+		}
+
+		//endregion
+
+		//region Properties
+
+		public boolean isActive()
+		{
+			return mActive;
+		}
+
+		//endregion
+
+		//region Methods
+
+		/**
+		 * Begins measured interval.
+		 *
+		 * @throws java.lang.IllegalStateException If the interval is already active.
+		 */
+		public void begin()
+		{
+			if (mActive)
+			{
+				throw new IllegalStateException("Measurement already began.");
+			}
+
+			mConcurrency = mTimer.begin();
+			mActive = true;
+
+			//get the time information as last part for better precision
+			mBeginMs = mTimer.mClock.getTimeMs();
+		}
+
+		/**
+		 * Ends measured interval and adds it to the timer.
+		 *
+		 * @return Duration of the interval.
+		 * @throws java.lang.IllegalStateException If no interval is active.
+		 */
+		public long end()
+		{
+			//get the time information as first part for better precision
+			long endMs = mTimer.mClock.getTimeMs();
+
+			if (!mActive)
+			{
+				throw new IllegalStateException("Measurement did not begin.");
+			}
+
+			long durationMs = endMs - mBeginMs;
+			mTimer.end(mStripe, durationMs, mConcurrency);
+			mActive = false;
+
+			return durationMs;
+		}
+
+		//endregion
+	}
+
+	//endregion
+}
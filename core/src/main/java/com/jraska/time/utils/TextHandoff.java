@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free single slot handoff of formatted text from one producer thread to one consumer thread.
+ * <p/>
+ * Producer writes text to frame obtained by {@link #obtainFrame(int)} and publishes it, the latest published frame
+ * wins and older unconsumed one is reused for next text. Flags published with the replaced frame are merged to the newer
+ * one, so consumer does not miss them. Consumer takes the frame and recycles it when it is not displayed anymore. Frames circulate between producer, slot, consumer and free slot, so in steady state nothing
+ * is allocated.
+ * <p/>
+ * Methods of producer and of consumer must be each called from single thread.
+ */
+public final class TextHandoff
+{
+	//region Fields
+
+	private final AtomicReference<Frame> mPending = new AtomicReference<Frame>();
+	private final AtomicReference<Frame> mFree = new AtomicReference<Frame>();
+	private final AtomicLong mDroppedCount = new AtomicLong();
+
+	private Frame mWriting; //owned by producer
+
+	//endregion
+
+	//region Properties
+
+	/**
+	 * @return Count of published frames replaced by newer before consumer took them.
+	 */
+	public long getDroppedCount()
+	{
+		return mDroppedCount.get();
+	}
+
+	//endregion
+
+	//region Producer methods
+
+	/**
+	 * Gets frame to write next text to. Repeated calls without publishing return the same frame.
+	 *
+	 * @param capacity Minimal length of frame buffer.
+	 * @return Frame owned by producer till publishing.
+	 */
+	public Frame obtainFrame(int capacity)
+	{
+		Frame frame = mWriting;
+		if (frame == null)
+		{
+			frame = mFree.getAndSet(null);
+			if (frame == null)
+			{
+				frame = new Frame();
+			}
+
+			mWriting = frame;
+		}
+
+		frame.ensureCapacity(capacity);
+		return frame;
+	}
+
+	/**
+	 * Publishes the obtained frame with written text.
+	 *
+	 * @param length Length of text written to frame.
+	 * @param millis Millis the text was formatted from.
+	 * @return True if the slot was empty and consumer must be notified, false if it replaced pending frame,
+	 * which consumer was already notified about.
+	 * @throws java.lang.IllegalStateException If no frame was obtained.
+	 */
+	public boolean publish(int length, long millis)
+	{
+		return publish(length, millis, 0);
+	}
+
+	/**
+	 * Publishes the obtained frame with written text and flags for consumer.
+	 *
+	 * @param length Length of text written to frame.
+	 * @param millis Millis the text was formatted from.
+	 * @param flags  Flags for consumer, they are merged with flags of replaced pending frame.
+	 * @return True if the slot was empty and consumer must be notified, false if it replaced pending frame,
+	 * which consumer was already notified about.
+	 * @throws java.lang.IllegalStateException If no frame was obtained.
+	 */
+	public boolean publish(int length, long millis, int flags)
+	{
+		Frame frame = mWriting;
+		if (frame == null)
+		{
+			throw new IllegalStateException("Frame must be obtained before publishing");
+		}
+
+		frame.mLength = length;
+		frame.mMillis = millis;
+
+		//only consumer can take pending frame meanwhile, then the frame is published to empty slot
+		Frame replaced;
+		do
+		{
+			replaced = mPending.get();
+			frame.mFlags = replaced == null ? flags : flags | replaced.mFlags;
+		}
+		while (!mPending.compareAndSet(replaced, frame));
+
+		mWriting = replaced;
+
+		if (replaced != null)
+		{
+			mDroppedCount.incrementAndGet();
+			return false;
+		}
+
+		return true;
+	}
+
+	//endregion
+
+	//region Consumer methods
+
+	/**
+	 * Takes the latest published frame.
+	 *
+	 * @return Frame owned by consumer till recycling, null if nothing new was published.
+	 */
+	public Frame take()
+	{
+		return mPending.getAndSet(null);
+	}
+
+	/**
+	 * Returns frame, which consumer does not use anymore, to producer.
+	 *
+	 * @param frame Frame taken by {@link #take()}, null is ignored.
+	 */
+	public void recycle(Frame frame)
+	{
+		if (frame != null)
+		{
+			mFree.set(frame);
+		}
+	}
+
+	//endregion
+
+	//region Nested classes
+
+	public static final class Frame
+	{
+		//region Fields
+
+		private char[] mChars = new char[0];
+		private int mLength;
+		private long mMillis;
+		private int mFlags;
+
+		//endregion
+
+		//region Constructors
+
+		Frame()
+		{
+		}
+
+		//endregion
+
+		//region Properties
+
+		public char[] getChars()
+		{
+			return mChars;
+		}
+
+		public int getLength()
+		{
+			return mLength;
+		}
+
+		public long getMillis()
+		{
+			return mMillis;
+		}
+
+		public int getFlags()
+		{
+			return mFlags;
+		}
+
+		//endregion
+
+		//region Methods
+
+		void ensureCapacity(int capacity)
+		{
+			if (mChars.length < capacity)
+			{
+				mChars = new char[capacity];
+			}
+		}
+
+		//endregion
+	}
+
+	//endregion
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed size histogram of tick lateness - difference of actual and scheduled tick time.
+ * <p/>
+ * Lateness below 16 ms is counted exactly, larger values in buckets with eight buckets per power of two,
+ * so relative error of percentiles is at most 12.5%. Lateness above {@link #MAX_TRACKED_LATENESS} falls to
+ * the last bucket, maximum is tracked exactly. Recording does not allocate, so it can be done on each tick.
+ * <p/>
+ * Histogram can have parent, which records all values too, so one parent aggregates more tickers.
+ * Class is thread safe, it is recorded on ticker thread and can be polled from any thread. Values read
+ * while recording are approximate.
+ *
+ * @see com.jraska.time.utils.HandlerTicker#setLatencyHistogram(TickLatencyHistogram)
+ */
+public final class TickLatencyHistogram
+{
+	//region Constants
+
+	private static final int EXACT_BUCKETS = 16;
+	private static final int EXACT_BUCKETS_EXPONENT = 4;
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int MAX_EXPONENT = 24;
+
+	private static final int BUCKETS_COUNT = EXACT_BUCKETS + (MAX_EXPONENT - EXACT_BUCKETS_EXPONENT + 1) * SUB_BUCKETS;
+
+	/**
+	 * Largest lateness with its own bucket, about four and half hour.
+	 */
+	public static final long MAX_TRACKED_LATENESS = (1L << (MAX_EXPONENT + 1)) - 1;
+
+	//endregion
+
+	//region Fields
+
+	private final TickLatencyHistogram mParent;
+
+	private final AtomicLongArray mBuckets = new AtomicLongArray(BUCKETS_COUNT);
+	private final AtomicLong mTickCount = new AtomicLong();
+	private final AtomicLong mMissedTickCount = new AtomicLong();
+	private final AtomicLong mMaxLateness = new AtomicLong();
+
+	//endregion
+
+	//region Constructors
+
+	public TickLatencyHistogram()
+	{
+		this(null);
+	}
+
+	/**
+	 * @param parent Histogram aggregating values of this one, can be null.
+	 */
+	public TickLatencyHistogram(TickLatencyHistogram parent)
+	{
+		mParent = parent;
+	}
+
+	//endregion
+
+	//region Properties
+
+	public TickLatencyHistogram getParent()
+	{
+		return mParent;
+	}
+
+	/**
+	 * @return Count of recorded ticks.
+	 */
+	public long getTickCount()
+	{
+		return mTickCount.get();
+	}
+
+	/**
+	 * @return Count of ticks which came late at least by whole tick interval, so their period was missed.
+	 */
+	public long getMissedTickCount()
+	{
+		return mMissedTickCount.get();
+	}
+
+	/**
+	 * @return Exact maximal recorded lateness in ms, zero if nothing was recorded.
+	 */
+	public long getMaxLatenessMs()
+	{
+		return mMaxLateness.get();
+	}
+
+	//endregion
+
+	//region Methods
+
+	/**
+	 * Records one tick.
+	 *
+	 * @param latenessMs   Ms between scheduled and actual tick time, negative values are counted as zero.
+	 * @param tickInterval Interval of the ticker to detect missed ticks.
+	 */
+	public void recordTick(long latenessMs, long tickInterval)
+	{
+		long lateness = Math.max(latenessMs, 0);
+
+		mBuckets.incrementAndGet(bucketIndex(lateness));
+		mTickCount.incrementAndGet();
+
+		if (lateness >= tickInterval)
+		{
+			mMissedTickCount.incrementAndGet();
+		}
+
+		long max = mMaxLateness.get();
+		while (lateness > max && !mMaxLateness.compareAndSet(max, lateness))
+		{
+			max = mMaxLateness.get();
+		}
+
+		if (mParent != null)
+		{
+			mParent.recordTick(lateness, tickInterval);
+		}
+	}
+
+	/**
+	 * Counts lateness which is not exceeded by provided percent of ticks. Value is the upper bound of the bucket,
+	 * but never more than the maximum.
+	 *
+	 * @param percentile Percentile from 0 to 100.
+	 * @return Lateness in ms of the percentile, zero if nothing was recorded.
+	 * @throws java.lang.IllegalArgumentException If the percentile is out of range.
+	 */
+	public long getPercentileMs(double percentile)
+	{
+		if (percentile < 0 || percentile > 100)
+		{
+			throw new IllegalArgumentException("percentile must be in range 0 to 100");
+		}
+
+		long total = 0;
+		for (int i = 0; i < BUCKETS_COUNT; i++)
+		{
+			total += mBuckets.get(i);
+		}
+
+		if (total == 0)
+		{
+			return 0;
+		}
+
+		long target = Math.max((long) Math.ceil(total * percentile / 100), 1);
+		long max = mMaxLateness.get();
+
+		long count = 0;
+		for (int i = 0; i < BUCKETS_COUNT - 1; i++)
+		{
+			count += mBuckets.get(i);
+			if (count >= target)
+			{
+				return Math.min(bucketUpperBound(i), max);
+			}
+		}
+
+		//last bucket has no upper bound
+		return max;
+	}
+
+	/**
+	 * Clears all recorded values. Parent is not affected.
+	 */
+	public void reset()
+	{
+		for (int i = 0; i < BUCKETS_COUNT; i++)
+		{
+			mBuckets.set(i, 0);
+		}
+
+		mTickCount.set(0);
+		mMissedTickCount.set(0);
+		mMaxLateness.set(0);
+	}
+
+	//endregion
+
+	//region Object implementation
+
+	@Override
+	public String toString()
+	{
+		return "TickLatencyHistogram: ticks: " + getTickCount() + " missed: " + getMissedTickCount()
+				+ " p50: " + getPercentileMs(50) + " p99: " + getPercentileMs(99) + " max: " + getMaxLatenessMs();
+	}
+
+	//endregion
+
+	//region Static methods
+
+	static int bucketIndex(long lateness)
+	{
+		if (lateness < EXACT_BUCKETS)
+		{
+			return (int) lateness;
+		}
+
+		if (lateness > MAX_TRACKED_LATENESS)
+		{
+			return BUCKETS_COUNT - 1;
+		}
+
+		int exponent = 63 - Long.numberOfLeadingZeros(lateness);
+		int subBucket = (int) (lateness >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+		return EXACT_BUCKETS + (exponent - EXACT_BUCKETS_EXPONENT) * SUB_BUCKETS + subBucket;
+	}
+
+	static long bucketUpperBound(int index)
+	{
+		if (index < EXACT_BUCKETS)
+		{
+			return index;
+		}
+
+		int exponent = EXACT_BUCKETS_EXPONENT + (index - EXACT_BUCKETS) / SUB_BUCKETS;
+		int subBucket = (index - EXACT_BUCKETS) % SUB_BUCKETS;
+		int shift = exponent - SUB_BUCKET_BITS;
+
+		long lowerBound = (long) (SUB_BUCKETS + subBucket) << shift;
+		return lowerBound + (1L << shift) - 1;
+	}
+
+	//endregion
+}
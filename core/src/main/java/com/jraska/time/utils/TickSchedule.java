@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+/**
+ * Scheduling state of ticker independent on the mechanism delivering ticks. Computes when the next tick should come
+ * including tick moves and pausing in the middle of interval.
+ * <p/>
+ * All times are absolute values of the clock which ticker uses. Ticks whose time passed before they were scheduled
+ * are handled by {@link com.jraska.time.utils.MissedTickPolicy}. Class is not thread safe.
+ *
+ * @see com.jraska.time.utils.Ticker
+ */
+public final class TickSchedule
+{
+	//region Fields
+
+	private long mFutureTickTime;
+	private long mExecutedLastTickTime = 0;
+	private long mNextTickMove = 0;
+
+	private MissedTickPolicy mMissedTickPolicy = MissedTickPolicy.Coalesce;
+	private long mSkippedTickCount;
+
+	//endregion
+
+	//region Properties
+
+	/**
+	 * @return Clock time at which the next tick is scheduled. Valid only while running.
+	 */
+	public long getFutureTickTime()
+	{
+		return mFutureTickTime;
+	}
+
+	public long getNextTickMove()
+	{
+		return mNextTickMove;
+	}
+
+	public void setNextTickMove(long moveMs)
+	{
+		mNextTickMove = moveMs;
+	}
+
+	public MissedTickPolicy getMissedTickPolicy()
+	{
+		return mMissedTickPolicy;
+	}
+
+	/**
+	 * @param missedTickPolicy Policy of ticks missed while ticker was blocked, default is coalescing.
+	 * @throws java.lang.IllegalArgumentException If the policy is null.
+	 */
+	public void setMissedTickPolicy(MissedTickPolicy missedTickPolicy)
+	{
+		if (missedTickPolicy == null)
+		{
+			throw new IllegalArgumentException("missedTickPolicy cannot be null");
+		}
+
+		mMissedTickPolicy = missedTickPolicy;
+	}
+
+	/**
+	 * @return Count of ticks which were not fired due to missed tick policy since creation.
+	 */
+	public long getSkippedTickCount()
+	{
+		return mSkippedTickCount;
+	}
+
+	//endregion
+
+	//region Methods
+
+	/**
+	 * Starts scheduling, continuing in the part of interval executed before stop.
+	 *
+	 * @param now          Current clock time.
+	 * @param tickInterval Interval of ticker.
+	 * @return Delay of the first tick from now.
+	 */
+	public long start(long now, long tickInterval)
+	{
+		mFutureTickTime = now + tickInterval - mExecutedLastTickTime + mNextTickMove;
+		mNextTickMove = 0;
+
+		return mFutureTickTime - now;
+	}
+
+	/**
+	 * Stops scheduling and remembers which part of interval was already executed.
+	 *
+	 * @param now          Current clock time.
+	 * @param tickInterval Interval of ticker.
+	 */
+	public void stop(long now, long tickInterval)
+	{
+		long remaining = mFutureTickTime - now;
+		mExecutedLastTickTime = tickInterval - remaining;
+	}
+
+	/**
+	 * Forgets executed part of interval, so next start will wait whole interval.
+	 */
+	public void reset()
+	{
+		mExecutedLastTickTime = 0;
+	}
+
+	/**
+	 * Moves schedule to next tick after the tick was executed. If the next tick time already passed,
+	 * it is handled by the missed tick policy.
+	 *
+	 * @param now          Current clock time.
+	 * @param tickInterval Interval of ticker.
+	 * @return Delay of the next tick from now, negative only for replayed ticks.
+	 */
+	public long scheduleNextTick(long now, long tickInterval)
+	{
+		mFutureTickTime = mFutureTickTime + tickInterval + mNextTickMove;
+		mNextTickMove = 0;
+
+		long late = now - mFutureTickTime;
+		if (late > 0)
+		{
+			//count of tick times which passed including the next one
+			long missed = (late + tickInterval - 1) / tickInterval;
+
+			switch (mMissedTickPolicy)
+			{
+				case Coalesce:
+					mFutureTickTime += missed * tickInterval;
+					mSkippedTickCount += missed;
+					break;
+
+				case FireNowAndRephase:
+					mFutureTickTime = now;
+					mSkippedTickCount += missed - 1;
+					break;
+
+				case ReplayAll:
+					break;
+			}
+		}
+
+		return mFutureTickTime - now;
+	}
+
+	/**
+	 * Sets move of running schedule, so the tick scheduled by next {@link #scheduleNextTick(long, long)}
+	 * comes after delay from now. Used from tick callbacks.
+	 *
+	 * @param now          Current clock time.
+	 * @param delay        Requested delay of next tick from now.
+	 * @param tickInterval Interval of ticker.
+	 */
+	public void setNextTickDelay(long now, long delay, long tickInterval)
+	{
+		mNextTickMove = now + delay - mFutureTickTime - tickInterval;
+	}
+
+	/**
+	 * Sets move of stopped schedule, so the first tick after start comes after delay.
+	 *
+	 * @param delay        Requested delay of first tick from start.
+	 * @param tickInterval Interval of ticker.
+	 */
+	public void setStartDelay(long delay, long tickInterval)
+	{
+		mNextTickMove = delay - tickInterval + mExecutedLastTickTime;
+	}
+
+	/**
+	 * Counts remaining time to next tick of running schedule.
+	 *
+	 * @param now Current clock time.
+	 * @return Remaining ms, zero if the tick is already late.
+	 */
+	public long countRemainingToNextTick(long now)
+	{
+		long remaining = mFutureTickTime - now;
+		if (remaining < 0)
+		{
+			return 0;
+		}
+
+		return remaining;
+	}
+
+	/**
+	 * Counts time which will the next tick wait after start of stopped schedule.
+	 *
+	 * @param tickInterval Interval of ticker.
+	 * @return Remaining ms to next tick after start.
+	 */
+	public long countRemainingToNextTickStopped(long tickInterval)
+	{
+		return tickInterval - mExecutedLastTickTime + mNextTickMove;
+	}
+
+	//endregion
+}
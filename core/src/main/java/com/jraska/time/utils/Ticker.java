@@ -16,6 +16,7 @@
 
 package com.jraska.time.utils;
 
+import com.jraska.time.common.IClock;
 import com.jraska.time.common.IStartStop;
 
 /**
@@ -30,6 +31,11 @@ public abstract class Ticker implements IStartStop
 
 	public static final long DEFAULT_TICK_INTERVAL = 1000; //second
 
+	/**
+	 * Returned by {@link #getTickTime()} outside of tick callback or if the ticker does not provide tick times.
+	 */
+	public static final long NO_TICK_TIME = Long.MIN_VALUE;
+
 	private static final String TICK_INTERVAL_MUST_BE_POSITIVE = "tickInterval must be positive";
 
 	//endregion
@@ -38,6 +44,7 @@ public abstract class Ticker implements IStartStop
 
 	private OnTickListener mOnTickListener;
 	private long mTickInterval;
+	private long mTickTime = NO_TICK_TIME;
 
 	//endregion
 
@@ -111,6 +118,25 @@ public abstract class Ticker implements IStartStop
 
 	//region Methods
 
+	/**
+	 * Fires tick for the time snapshot, which is available to listeners by {@link #getTickTime()}.
+	 *
+	 * @param tickTime Time of {@link #getTickClock()} read for this tick.
+	 */
+	protected final void tick(long tickTime)
+	{
+		long previousTickTime = mTickTime;
+		mTickTime = tickTime;
+		try
+		{
+			tick();
+		}
+		finally
+		{
+			mTickTime = previousTickTime;
+		}
+	}
+
 	protected final void tick()
 	{
 		if (mOnTickListener != null)
@@ -124,6 +150,23 @@ public abstract class Ticker implements IStartStop
 	{
 	}
 
+	/**
+	 * Current time of clock for scheduling. During tick returns the tick time snapshot, so the tick is scheduled
+	 * from the same time as listeners see.
+	 *
+	 * @param clock Clock of tick times.
+	 * @return Tick time in tick callback, current time of the clock otherwise.
+	 */
+	protected final long getTimeMs(IClock clock)
+	{
+		if (mTickTime != NO_TICK_TIME)
+		{
+			return mTickTime;
+		}
+
+		return clock.getTimeMs();
+	}
+
 	/**
 	 * Changes current ticker tick duration if is some tick pending.
 	 * <p/>
@@ -135,6 +178,74 @@ public abstract class Ticker implements IStartStop
 
 	public abstract long getNextTickMove();
 
+	/**
+	 * Time of clock read once for the current tick. Listeners should count all values of the tick from this
+	 * snapshot instead of reading clock again, so synchronization, displayed value and callbacks agree.
+	 * Frame driven tickers return the frame time.
+	 *
+	 * @return Tick time of {@link #getTickClock()} during tick callback, {@link #NO_TICK_TIME} otherwise.
+	 */
+	public long getTickTime()
+	{
+		return mTickTime;
+	}
+
+	/**
+	 * Clock in which are returned tick times.
+	 *
+	 * @return Clock of {@link #getTickTime()}, null if the ticker does not provide tick times.
+	 */
+	public IClock getTickClock()
+	{
+		return null;
+	}
+
+	/**
+	 * Sets delay of the next scheduled tick instead of regular interval, which is used for following ticks again.
+	 * <p/>
+	 * While running, the delay is counted from now and should be set from tick callback, because the already
+	 * pending tick is not affected. For stopped ticker it is the delay of the first tick after start.
+	 * Default implementation counts the delay by tick moves, subclasses can set it exactly.
+	 *
+	 * @param delayMs Non-negative delay of the tick.
+	 * @throws java.lang.IllegalArgumentException If the delay is negative.
+	 */
+	public void setNextTickDelay(long delayMs)
+	{
+		if (delayMs < 0)
+		{
+			throw new IllegalArgumentException("delayMs cannot be negative");
+		}
+
+		if (isRunning())
+		{
+			setNextTickMove(delayMs - getTickInterval() - getRemainingToNextTick());
+		}
+		else
+		{
+			setNextTickMove(delayMs - getRemainingToNextTick() + getNextTickMove());
+		}
+	}
+
+	//endregion
+
+	//region Static methods
+
+	/**
+	 * Counts move of next tick, which will make ticks come on whole multiples of interval of elapsed time.
+	 *
+	 * @param tickInterval        Interval of ticker.
+	 * @param remainingToNextTick Time remaining to next tick of ticker.
+	 * @param elapsedMs           Elapsed time to which should be ticks synchronized.
+	 * @return Move to set to ticker as next tick move.
+	 */
+	public static long countSyncTickMove(long tickInterval, long remainingToNextTick, long elapsedMs)
+	{
+		long toNextIntervalPeriod = tickInterval - (elapsedMs % tickInterval);
+
+		return toNextIntervalPeriod - remainingToNextTick;
+	}
+
 	//endregion
 
 	//region Inner interface
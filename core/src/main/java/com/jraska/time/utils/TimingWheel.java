@@ -0,0 +1,577 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+/**
+ * Hierarchical timing wheel tracking many deadlines with O(1) schedule and cancel.
+ * <p/>
+ * Time is divided to ticks of {@link #getTickMs()}. Each of six levels has 64 slots, slot of level n spans
+ * 64^n ticks. Timeout is linked to slot of the lowest level its deadline fits to and moved to lower level when
+ * the wheel reaches its slot, so each timeout is touched at most once per level. Deadlines further than
+ * 64^6 ticks, over two years for millisecond ticks, wait in the last slot of top level and are placed again
+ * when it is reached. Advancing jumps directly to the next occupied slot of any level, so its cost does not
+ * depend on the advanced time.
+ * <p/>
+ * Timeout expires when the wheel advances to tick of its deadline rounded up, so it never expires early.
+ * Expired timeouts are queued and taken by {@link #pollExpired()}, so caller decides where to call listeners.
+ * <p/>
+ * Class is not thread safe.
+ */
+public final class TimingWheel
+{
+	//region Constants
+
+	private static final int SLOT_BITS = 6;
+	private static final int SLOTS = 1 << SLOT_BITS;
+	private static final int SLOT_MASK = SLOTS - 1;
+	private static final int LEVELS = 6;
+
+	/**
+	 * Next deadline of wheel without pending timeouts.
+	 */
+	public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+	private static final int NO_SLOT = -1;
+	private static final int EXPIRED_SLOT = -2;
+
+	//endregion
+
+	//region Fields
+
+	private final long mTickMs;
+	private final Timeout[] mSlots = new Timeout[LEVELS * SLOTS];
+	private final long[] mOccupiedSlots = new long[LEVELS];
+
+	private Timeout mExpiredHead;
+	private Timeout mExpiredTail;
+
+	private long mCurrentTick;
+	private int mPendingCount;
+
+	//endregion
+
+	//region Constructors
+
+	/**
+	 * @param tickMs      Resolution of the wheel.
+	 * @param startTimeMs Time to start at.
+	 * @throws java.lang.IllegalArgumentException If tick is not positive.
+	 */
+	public TimingWheel(long tickMs, long startTimeMs)
+	{
+		if (tickMs <= 0)
+		{
+			throw new IllegalArgumentException("tickMs must be positive, was: " + tickMs);
+		}
+
+		mTickMs = tickMs;
+		mCurrentTick = floorTick(startTimeMs);
+	}
+
+	//endregion
+
+	//region Properties
+
+	public long getTickMs()
+	{
+		return mTickMs;
+	}
+
+	/**
+	 * @return Start time of the tick to which the wheel advanced.
+	 */
+	public long getTimeMs()
+	{
+		return mCurrentTick * mTickMs;
+	}
+
+	/**
+	 * @return Count of scheduled timeouts including expired not polled yet.
+	 */
+	public int getPendingCount()
+	{
+		return mPendingCount;
+	}
+
+	public boolean isEmpty()
+	{
+		return mPendingCount == 0;
+	}
+
+	/**
+	 * Finds the earliest deadline of pending timeouts, expired timeouts not polled yet give their past deadline.
+	 * Cost is count of timeouts in first occupied slot of each level.
+	 *
+	 * @return Earliest deadline, {@link #NO_DEADLINE} if there is no pending timeout.
+	 */
+	public long getNextDeadlineMs()
+	{
+		if (mExpiredHead != null)
+		{
+			return mExpiredHead.mDeadlineMs;
+		}
+
+		long nextDeadline = NO_DEADLINE;
+		for (int level = 0; level < LEVELS; level++)
+		{
+			Timeout timeout = mSlots[level * SLOTS + firstSlotInTimeOrder(level)];
+			while (timeout != null)
+			{
+				nextDeadline = Math.min(nextDeadline, timeout.mDeadlineMs);
+				timeout = timeout.mNext;
+			}
+		}
+
+		return nextDeadline;
+	}
+
+	//endregion
+
+	//region Methods
+
+	/**
+	 * Schedules timeout to deadline. Timeout already pending in this wheel is moved.
+	 * Timeout with deadline not after current tick is expired immediately.
+	 *
+	 * @param timeout    Timeout to schedule.
+	 * @param deadlineMs Time when the timeout expires.
+	 * @throws java.lang.IllegalArgumentException If the timeout is null.
+	 * @throws java.lang.IllegalStateException    If the timeout is pending in other wheel.
+	 */
+	public void schedule(Timeout timeout, long deadlineMs)
+	{
+		if (timeout == null)
+		{
+			throw new IllegalArgumentException("timeout cannot be null");
+		}
+
+		if (timeout.mWheel != null && timeout.mWheel != this)
+		{
+			throw new IllegalStateException("Timeout is pending in other wheel.");
+		}
+
+		if (timeout.mWheel == this)
+		{
+			unlink(timeout);
+		}
+		else
+		{
+			timeout.mWheel = this;
+			mPendingCount++;
+		}
+
+		timeout.mDeadlineMs = deadlineMs;
+		timeout.mDeadlineTick = ceilTick(deadlineMs);
+
+		if (timeout.mDeadlineTick <= mCurrentTick)
+		{
+			linkExpired(timeout);
+		}
+		else
+		{
+			place(timeout);
+		}
+	}
+
+	/**
+	 * Cancels the timeout, expired timeout not polled yet is cancelled too.
+	 *
+	 * @param timeout Timeout to cancel.
+	 * @return True if the timeout was pending in this wheel.
+	 */
+	public boolean cancel(Timeout timeout)
+	{
+		if (timeout == null || timeout.mWheel != this)
+		{
+			return false;
+		}
+
+		unlink(timeout);
+		timeout.mWheel = null;
+		mPendingCount--;
+
+		return true;
+	}
+
+	/**
+	 * Advances wheel to provided time and queues timeouts expired until then.
+	 * Wheel does not move back when earlier time is provided.
+	 *
+	 * @param timeMs Time to advance to.
+	 */
+	public void advanceTo(long timeMs)
+	{
+		long targetTick = floorTick(timeMs);
+
+		while (mCurrentTick < targetTick)
+		{
+			if (mPendingCount == 0)
+			{
+				mCurrentTick = targetTick;
+				return;
+			}
+
+			long tick = Math.min(nextEventTick(), targetTick);
+			mCurrentTick = tick;
+
+			if ((tick & SLOT_MASK) == 0)
+			{
+				cascade(tick);
+			}
+
+			expireSlot((int) (tick & SLOT_MASK));
+		}
+	}
+
+	/**
+	 * Takes next expired timeout. Taken timeout is not pending anymore and can be scheduled again.
+	 *
+	 * @return Expired timeout or null if there is none.
+	 */
+	public Timeout pollExpired()
+	{
+		Timeout timeout = mExpiredHead;
+		if (timeout != null)
+		{
+			cancel(timeout);
+		}
+
+		return timeout;
+	}
+
+	/**
+	 * Advances the wheel and calls listeners of all expired timeouts. Listeners can schedule and cancel timeouts.
+	 *
+	 * @param timeMs Time to advance to.
+	 * @return Count of expired timeouts.
+	 */
+	public int expireTo(long timeMs)
+	{
+		advanceTo(timeMs);
+
+		int expiredCount = 0;
+		Timeout timeout;
+		while ((timeout = pollExpired()) != null)
+		{
+			expiredCount++;
+			timeout.mListener.onExpired(timeout);
+		}
+
+		return expiredCount;
+	}
+
+	/**
+	 * Cancels all timeouts.
+	 */
+	public void clear()
+	{
+		for (int slot = 0; slot < mSlots.length; slot++)
+		{
+			Timeout timeout;
+			while ((timeout = mSlots[slot]) != null)
+			{
+				cancel(timeout);
+			}
+		}
+
+		while (mExpiredHead != null)
+		{
+			cancel(mExpiredHead);
+		}
+	}
+
+	private long nextEventTick()
+	{
+		//start of the next occupied slot over all levels, lowest level slots expire there, higher ones cascade
+		long nextTick = Long.MAX_VALUE;
+		for (int level = 0; level < LEVELS; level++)
+		{
+			long occupied = mOccupiedSlots[level];
+			if (occupied == 0)
+			{
+				continue;
+			}
+
+			int slotShift = SLOT_BITS * level;
+			int roundShift = slotShift + SLOT_BITS;
+			long roundStart = (mCurrentTick >> roundShift) << roundShift;
+
+			int slot = firstSlotInTimeOrder(level);
+			long slotTick = roundStart + ((long) slot << slotShift);
+			if (slotTick <= mCurrentTick)
+			{
+				//slot in the next round
+				slotTick += 1L << roundShift;
+			}
+
+			nextTick = Math.min(nextTick, slotTick);
+		}
+
+		return nextTick;
+	}
+
+	private int firstSlotInTimeOrder(int level)
+	{
+		long occupied = mOccupiedSlots[level];
+		if (occupied == 0)
+		{
+			return 0;
+		}
+
+		//slots after current one are in this round, the others in the next one
+		int currentSlot = (int) ((mCurrentTick >> (SLOT_BITS * level)) & SLOT_MASK);
+		long laterSlots = currentSlot == SLOT_MASK ? 0 : occupied & (-1L << (currentSlot + 1));
+		if (laterSlots != 0)
+		{
+			return Long.numberOfTrailingZeros(laterSlots);
+		}
+
+		return Long.numberOfTrailingZeros(occupied);
+	}
+
+	private void cascade(long tick)
+	{
+		for (int level = 1; level < LEVELS; level++)
+		{
+			int slot = (int) ((tick >> (SLOT_BITS * level)) & SLOT_MASK);
+
+			int index = level * SLOTS + slot;
+			Timeout timeout;
+			while ((timeout = mSlots[index]) != null)
+			{
+				unlink(timeout);
+				place(timeout);
+			}
+
+			//higher level moves only when this one wraps
+			if (slot != 0)
+			{
+				return;
+			}
+		}
+	}
+
+	private void expireSlot(int slot)
+	{
+		Timeout timeout;
+		while ((timeout = mSlots[slot]) != null)
+		{
+			unlink(timeout);
+			linkExpired(timeout);
+		}
+	}
+
+	private void place(Timeout timeout)
+	{
+		long deadlineTick = timeout.mDeadlineTick;
+		long delta = deadlineTick - mCurrentTick;
+
+		for (int level = 0; level < LEVELS; level++)
+		{
+			if ((delta >> (SLOT_BITS * (level + 1))) == 0)
+			{
+				int slot = (int) ((deadlineTick >> (SLOT_BITS * level)) & SLOT_MASK);
+				link(timeout, level, slot);
+				return;
+			}
+		}
+
+		//too far, wait in the last reached slot of top level
+		int topShift = SLOT_BITS * (LEVELS - 1);
+		int slot = (int) (((mCurrentTick >> topShift) + SLOT_MASK) & SLOT_MASK);
+		link(timeout, LEVELS - 1, slot);
+	}
+
+	private void link(Timeout timeout, int level, int slot)
+	{
+		int index = level * SLOTS + slot;
+
+		Timeout head = mSlots[index];
+		timeout.mNext = head;
+		timeout.mPrevious = null;
+		if (head != null)
+		{
+			head.mPrevious = timeout;
+		}
+
+		mSlots[index] = timeout;
+		mOccupiedSlots[level] |= 1L << slot;
+		timeout.mSlot = index;
+	}
+
+	private void linkExpired(Timeout timeout)
+	{
+		timeout.mNext = null;
+		timeout.mPrevious = mExpiredTail;
+		if (mExpiredTail == null)
+		{
+			mExpiredHead = timeout;
+		}
+		else
+		{
+			mExpiredTail.mNext = timeout;
+		}
+
+		mExpiredTail = timeout;
+		timeout.mSlot = EXPIRED_SLOT;
+	}
+
+	private void unlink(Timeout timeout)
+	{
+		Timeout previous = timeout.mPrevious;
+		Timeout next = timeout.mNext;
+
+		if (next != null)
+		{
+			next.mPrevious = previous;
+		}
+
+		if (timeout.mSlot == EXPIRED_SLOT)
+		{
+			if (previous == null)
+			{
+				mExpiredHead = next;
+			}
+			else
+			{
+				previous.mNext = next;
+			}
+
+			if (next == null)
+			{
+				mExpiredTail = previous;
+			}
+		}
+		else if (previous == null)
+		{
+			int index = timeout.mSlot;
+			mSlots[index] = next;
+			if (next == null)
+			{
+				mOccupiedSlots[index / SLOTS] &= ~(1L << (index % SLOTS));
+			}
+		}
+		else
+		{
+			previous.mNext = next;
+		}
+
+		timeout.mPrevious = null;
+		timeout.mNext = null;
+		timeout.mSlot = NO_SLOT;
+	}
+
+	private long floorTick(long timeMs)
+	{
+		long tick = timeMs / mTickMs;
+		if (tick * mTickMs > timeMs)
+		{
+			tick--;
+		}
+
+		return tick;
+	}
+
+	private long ceilTick(long timeMs)
+	{
+		long tick = timeMs / mTickMs;
+		if (tick * mTickMs < timeMs)
+		{
+			tick++;
+		}
+
+		return tick;
+	}
+
+	//endregion
+
+	//region Nested classes
+
+	/**
+	 * Deadline tracked by the wheel. Timeout can be scheduled again after it expired or was cancelled,
+	 * so one instance can serve repeated deadlines without allocation.
+	 */
+	public static final class Timeout
+	{
+		//region Fields
+
+		private final OnExpiredListener mListener;
+
+		private TimingWheel mWheel;
+		private Timeout mPrevious;
+		private Timeout mNext;
+		private int mSlot = NO_SLOT;
+		private long mDeadlineMs;
+		private long mDeadlineTick;
+
+		//endregion
+
+		//region Constructors
+
+		/**
+		 * @param listener Listener called when the timeout expires.
+		 * @throws java.lang.IllegalArgumentException If the listener is null.
+		 */
+		public Timeout(OnExpiredListener listener)
+		{
+			if (listener == null)
+			{
+				throw new IllegalArgumentException("listener cannot be null");
+			}
+
+			mListener = listener;
+		}
+
+		//endregion
+
+		//region Properties
+
+		public OnExpiredListener getListener()
+		{
+			return mListener;
+		}
+
+		/**
+		 * @return Deadline of last scheduling.
+		 */
+		public long getDeadlineMs()
+		{
+			return mDeadlineMs;
+		}
+
+		/**
+		 * @return True if the timeout is scheduled and its listener was not called yet.
+		 */
+		public boolean isPending()
+		{
+			return mWheel != null;
+		}
+
+		//endregion
+	}
+
+	//endregion
+
+	//region Inner interface
+
+	public interface OnExpiredListener
+	{
+		void onExpired(Timeout timeout);
+	}
+
+	//endregion
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class BoundaryAwareFormatterTest extends TestCase
+{
+	//region Constants
+
+	private static final int TEST_ITERATIONS = 1000;
+
+	//endregion
+
+	//region Tests
+
+	public void testSplitSecondFormatters() throws Exception
+	{
+		for (SecondFractionDisplay fractionDisplay : SecondFractionDisplay.values())
+		{
+			runTestBoundaries(new FastSplitSecondFormatter(fractionDisplay));
+			runTestBoundaries(new TableSplitSecondFormatter(fractionDisplay));
+		}
+	}
+
+	public void testSecondsFormatter() throws Exception
+	{
+		FastSecondsFormatter formatter = new FastSecondsFormatter();
+		runTestBoundaries(formatter);
+
+		assertEquals(2000, formatter.nextDisplayChange(1000));
+		assertEquals(999, formatter.previousDisplayChange(1999));
+		assertEquals(IBoundaryAwareMillisFormatter.NO_PREVIOUS_CHANGE, formatter.previousDisplayChange(999));
+	}
+
+	public void testPatternFormatter() throws Exception
+	{
+		runTestBoundaries(new PatternMillisFormatter("[H:]mm:ss.SS"));
+		runTestBoundaries(new PatternMillisFormatter("H:mm"));
+		runTestBoundaries(new PatternMillisFormatter("s"));
+	}
+
+	public void testNegativeDisplaysAsZero() throws Exception
+	{
+		IBoundaryAwareMillisFormatter[] formatters = {new TableSplitSecondFormatter(SecondFractionDisplay.Tenth),
+				new FastSplitSecondFormatter(SecondFractionDisplay.Tenth), new PatternMillisFormatter("mm:ss.S")};
+
+		for (IBoundaryAwareMillisFormatter formatter : formatters)
+		{
+			assertEquals(100, formatter.nextDisplayChange(-1));
+			assertEquals(100, formatter.nextDisplayChange(Long.MIN_VALUE));
+			assertEquals(IBoundaryAwareMillisFormatter.NO_PREVIOUS_CHANGE, formatter.previousDisplayChange(-1));
+		}
+	}
+
+	public void testRoundingDecorator() throws Exception
+	{
+		long[] increments = {1, 2, 5, 10, 15, 50, 100, 333, 1000};
+		for (long increment : increments)
+		{
+			runTestBoundaries(new RoundingMillisDecoratorFormatter(new FastSecondsFormatter(), increment));
+			runTestBoundaries(new RoundingMillisDecoratorFormatter(new TableSplitSecondFormatter(SecondFractionDisplay.Hundredth), increment));
+		}
+	}
+
+	public void testRoundingDecoratorOfUnawareFormatter() throws Exception
+	{
+		IMillisFormatter unaware = new IMillisFormatter()
+		{
+			@Override
+			public String formatElapsedTime(long totalMs)
+			{
+				return Long.toString(totalMs);
+			}
+		};
+
+		runTestBoundaries(new RoundingMillisDecoratorFormatter(unaware, 20));
+	}
+
+	//endregion
+
+	//region Methods
+
+	private static void runTestBoundaries(IBoundaryAwareMillisFormatter formatter)
+	{
+		Random random = new Random();
+		for (int i = 0; i < TEST_ITERATIONS; i++)
+		{
+			//small values to hit zero and first boundaries often
+			long ms = i < TEST_ITERATIONS / 2 ? random.nextInt(5000) : Math.abs(random.nextInt());
+			assertBoundaries(formatter, ms);
+		}
+	}
+
+	private static void assertBoundaries(IBoundaryAwareMillisFormatter formatter, long ms)
+	{
+		String text = formatter.formatElapsedTime(ms);
+
+		long next = formatter.nextDisplayChange(ms);
+		assertTrue(formatter + " next change of " + ms + " is " + next, next > ms);
+		assertFalse(text.equals(formatter.formatElapsedTime(next)));
+		assertEquals(text, formatter.formatElapsedTime(next - 1));
+
+		long previous = formatter.previousDisplayChange(ms);
+		assertTrue(previous < ms);
+		if (previous == IBoundaryAwareMillisFormatter.NO_PREVIOUS_CHANGE)
+		{
+			assertEquals(text, formatter.formatElapsedTime(0));
+		}
+		else
+		{
+			assertFalse(text.equals(formatter.formatElapsedTime(previous)));
+			assertEquals(text, formatter.formatElapsedTime(previous + 1));
+		}
+	}
+
+	//endregion
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BulkFormattingTest extends TestCase
+{
+	//region Constants
+
+	private static final int VALUES_COUNT = 10000;
+
+	//endregion
+
+	//region Tests
+
+	public void testSplitSecondFormatter() throws Exception
+	{
+		runTestBulk(new FastSplitSecondFormatter(SecondFractionDisplay.Hundredth));
+	}
+
+	public void testTableSplitSecondFormatter() throws Exception
+	{
+		runTestBulk(new TableSplitSecondFormatter(SecondFractionDisplay.Millis));
+	}
+
+	public void testRoundingDecorator() throws Exception
+	{
+		runTestBulk(new RoundingMillisDecoratorFormatter(new FastSplitSecondFormatter(SecondFractionDisplay.Tenth), 100));
+	}
+
+	public void testOffsets() throws Exception
+	{
+		IBulkMillisFormatter formatter = new FastSplitSecondFormatter(SecondFractionDisplay.Tenth);
+		long[] values = {1, 1500, 62000, 3600000, 5};
+
+		char[] output = new char[40];
+		int[] textOffsets = new int[4];
+		int written = formatter.formatElapsedTimes(values, 1, 3, output, 2, textOffsets);
+
+		assertEquals("00:01.5", text(output, textOffsets, 0));
+		assertEquals("01:02.0", text(output, textOffsets, 1));
+		assertEquals("1:00:00.0", text(output, textOffsets, 2));
+		assertEquals(2, textOffsets[0]);
+		assertEquals(written, textOffsets[3] - 2);
+	}
+
+	public void testTooSmallOutput() throws Exception
+	{
+		IBulkMillisFormatter formatter = new FastSplitSecondFormatter(SecondFractionDisplay.Tenth);
+		long[] values = {1, 2, 3};
+
+		try
+		{
+			formatter.formatElapsedTimes(values, 0, 3, new char[20], 0, new int[4]);
+			fail("Output for 21 chars should be too small");
+		}
+		catch (IllegalArgumentException expected)
+		{
+		}
+	}
+
+	public void testParallelSameAsSequential() throws Exception
+	{
+		ICharMillisFormatter formatter = new TableSplitSecondFormatter(SecondFractionDisplay.Millis);
+		long[] values = createValues();
+
+		char[] expectedOutput = new char[BulkFormatting.maxOutputLength(VALUES_COUNT)];
+		int[] expectedOffsets = new int[VALUES_COUNT + 1];
+		int expectedLength = BulkFormatting.formatElapsedTimes(formatter, values, 0, VALUES_COUNT, expectedOutput, 0, expectedOffsets);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			ParallelBulkFormatter parallelFormatter = new ParallelBulkFormatter(executor, 333);
+
+			char[] output = new char[expectedLength + 5];
+			int[] textOffsets = new int[VALUES_COUNT + 1];
+			int length = parallelFormatter.formatElapsedTimes(formatter, values, 0, VALUES_COUNT, output, 5, textOffsets);
+
+			assertEquals(expectedLength, length);
+			for (int i = 0; i < VALUES_COUNT; i++)
+			{
+				assertEquals(text(expectedOutput, expectedOffsets, i), text(output, textOffsets, i));
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	public void testParallelFailureCancelsRemainingChunks() throws Exception
+	{
+		final ICharMillisFormatter tableFormatter = new TableSplitSecondFormatter(SecondFractionDisplay.Millis);
+		final CountDownLatch blockLatch = new CountDownLatch(1);
+		final AtomicInteger formattedAfterBlock = new AtomicInteger();
+
+		//first chunk fails, second blocks the only thread, so the rest can run only if not cancelled
+		ICharMillisFormatter formatter = new ICharMillisFormatter()
+		{
+			@Override
+			public int formatElapsedTime(long totalMs, char[] buffer, int offset)
+			{
+				if (totalMs == 0)
+				{
+					throw new IllegalStateException("Failing chunk");
+				}
+
+				if (totalMs == 10)
+				{
+					try
+					{
+						blockLatch.await();
+					}
+					catch (InterruptedException e)
+					{
+						Thread.currentThread().interrupt();
+					}
+				}
+
+				if (totalMs >= 20)
+				{
+					formattedAfterBlock.incrementAndGet();
+				}
+
+				return tableFormatter.formatElapsedTime(totalMs, buffer, offset);
+			}
+
+			@Override
+			public String formatElapsedTime(long totalMs)
+			{
+				return tableFormatter.formatElapsedTime(totalMs);
+			}
+		};
+
+		long[] values = new long[40];
+		for (int i = 0; i < values.length; i++)
+		{
+			values[i] = i;
+		}
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try
+		{
+			ParallelBulkFormatter parallelFormatter = new ParallelBulkFormatter(executor, 10);
+			parallelFormatter.formatElapsedTimes(formatter, values, 0, values.length, new char[BulkFormatting.maxOutputLength(values.length)], 0, new int[values.length + 1]);
+			fail("Failing chunk should throw");
+		}
+		catch (IllegalStateException expected)
+		{
+		}
+		finally
+		{
+			blockLatch.countDown();
+			executor.shutdown();
+		}
+
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		assertEquals(0, formattedAfterBlock.get());
+	}
+
+	//endregion
+
+	//region Methods
+
+	private static void runTestBulk(IBulkMillisFormatter formatter)
+	{
+		long[] values = createValues();
+
+		char[] output = new char[BulkFormatting.maxOutputLength(VALUES_COUNT)];
+		int[] textOffsets = new int[VALUES_COUNT + 1];
+		formatter.formatElapsedTimes(values, 0, VALUES_COUNT, output, 0, textOffsets);
+
+		for (int i = 0; i < VALUES_COUNT; i++)
+		{
+			assertEquals(formatter.formatElapsedTime(values[i]), text(output, textOffsets, i));
+		}
+	}
+
+	private static long[] createValues()
+	{
+		long[] values = new long[VALUES_COUNT];
+		for (int i = 0; i < VALUES_COUNT; i++)
+		{
+			values[i] = (long) i * i * 7919 + i;
+		}
+
+		return values;
+	}
+
+	private static String text(char[] output, int[] textOffsets, int index)
+	{
+		return new String(output, textOffsets[index], textOffsets[index + 1] - textOffsets[index]);
+	}
+
+	//endregion
+}
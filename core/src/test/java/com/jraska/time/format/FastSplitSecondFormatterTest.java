@@ -54,7 +54,7 @@ public class FastSplitSecondFormatterTest extends TestCase
 		runTestFormatter(fastSplitSecondFormatter, referenceFormatter);
 	}
 
-	public static void runTestFormatter(FastSplitSecondFormatter formatter, ReferenceFormatter referenceFormatter)
+	public static void runTestFormatter(IMillisFormatter formatter, ReferenceFormatter referenceFormatter)
 	{
 		Random random = new Random();
 		for (int i = 0, count = TEST_ITERATIONS; i < count; i++)
@@ -68,5 +68,38 @@ public class FastSplitSecondFormatterTest extends TestCase
 		}
 	}
 
+	public void testCharBufferOutput() throws Exception
+	{
+		for (SecondFractionDisplay fractionDisplay : SecondFractionDisplay.values())
+		{
+			runTestCharBuffer(new FastSplitSecondFormatter(fractionDisplay));
+		}
+	}
+
+	public void testRoundingCharBufferOutput() throws Exception
+	{
+		FastSplitSecondFormatter formatter = new FastSplitSecondFormatter(SecondFractionDisplay.Hundredth);
+
+		runTestCharBuffer(new RoundingMillisDecoratorFormatter(formatter, 10));
+	}
+
+	public static void runTestCharBuffer(ICharMillisFormatter formatter)
+	{
+		final int offset = 3;
+		char[] buffer = new char[ICharMillisFormatter.MAX_FORMATTED_LENGTH + offset];
+
+		Random random = new Random();
+		for (int i = 0, count = TEST_ITERATIONS; i < count; i++)
+		{
+			long ms = Math.abs(random.nextInt()) * (long) (i + 1);
+
+			final String formatted = formatter.formatElapsedTime(ms);
+			final int length = formatter.formatElapsedTime(ms, buffer, offset);
+			final String fromBuffer = new String(buffer, offset, length);
+
+			assertEquals(String.format("Buffer text differs! %s != %s", fromBuffer, formatted), formatted, fromBuffer);
+		}
+	}
+
 	//endregion
 }
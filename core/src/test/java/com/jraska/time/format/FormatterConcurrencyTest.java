@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stress test calling shared formatter instances from several threads at once.
+ */
+public class FormatterConcurrencyTest extends TestCase
+{
+	//region Constants
+
+	private static final int THREADS_COUNT = 4;
+	private static final int VALUES_COUNT = 20000;
+
+	//endregion
+
+	//region Tests
+
+	public void testSplitSecondFormatters() throws Exception
+	{
+		for (SecondFractionDisplay fractionDisplay : SecondFractionDisplay.values())
+		{
+			runConcurrently(new FastSplitSecondFormatter(fractionDisplay));
+			runConcurrently(new TableSplitSecondFormatter(fractionDisplay));
+		}
+	}
+
+	public void testSecondsFormatter() throws Exception
+	{
+		runConcurrently(new FastSecondsFormatter());
+	}
+
+	public void testPatternFormatter() throws Exception
+	{
+		runConcurrently(new PatternMillisFormatter("[H:]mm:ss.SS"));
+	}
+
+	public void testRoundingDecorator() throws Exception
+	{
+		runConcurrently(new RoundingMillisDecoratorFormatter(new TableSplitSecondFormatter(SecondFractionDisplay.Hundredth), 10));
+	}
+
+	//endregion
+
+	//region Methods
+
+	private static void runConcurrently(final ICharMillisFormatter formatter) throws InterruptedException
+	{
+		final long[] values = new long[VALUES_COUNT];
+		final String[] expected = new String[VALUES_COUNT];
+		for (int i = 0; i < VALUES_COUNT; i++)
+		{
+			//values over all magnitudes, so threads write texts of different lengths
+			values[i] = (long) i * i * 7919 + i;
+			expected[i] = formatter.formatElapsedTime(values[i]);
+		}
+
+		final CountDownLatch startLatch = new CountDownLatch(1);
+		final CountDownLatch finishLatch = new CountDownLatch(THREADS_COUNT);
+		final AtomicReference<String> failure = new AtomicReference<String>();
+
+		for (int thread = 0; thread < THREADS_COUNT; thread++)
+		{
+			final int firstIndex = thread * (VALUES_COUNT / THREADS_COUNT);
+			new Thread(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						startLatch.await();
+						formatAll(formatter, values, expected, firstIndex, failure);
+					}
+					catch (InterruptedException e)
+					{
+						failure.compareAndSet(null, e.toString());
+					}
+					finally
+					{
+						finishLatch.countDown();
+					}
+				}
+			}).start();
+		}
+
+		startLatch.countDown();
+
+		assertTrue("Threads did not finish", finishLatch.await(30, TimeUnit.SECONDS));
+		assertNull(failure.get(), failure.get());
+	}
+
+	private static void formatAll(ICharMillisFormatter formatter, long[] values, String[] expected, int firstIndex,
+								  AtomicReference<String> failure)
+	{
+		char[] buffer = new char[ICharMillisFormatter.MAX_FORMATTED_LENGTH];
+
+		//each thread starts on different index, so they format different values at the same time
+		for (int i = 0; i < VALUES_COUNT; i++)
+		{
+			int index = (firstIndex + i) % VALUES_COUNT;
+
+			String formatted = formatter.formatElapsedTime(values[index]);
+			int length = formatter.formatElapsedTime(values[index], buffer, 0);
+
+			if (!expected[index].equals(formatted) || !expected[index].contentEquals(new String(buffer, 0, length)))
+			{
+				failure.compareAndSet(null, formatter + " formatted " + values[index] + " as " + formatted
+						+ ", expected " + expected[index]);
+				return;
+			}
+		}
+	}
+
+	//endregion
+}
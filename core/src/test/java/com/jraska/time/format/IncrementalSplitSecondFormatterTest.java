@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class IncrementalSplitSecondFormatterTest extends TestCase
+{
+	//region Test methods
+
+	public void testTickSequence() throws Exception
+	{
+		//crosses minute and hour boundaries including the change of text length
+		long start = 3600000 - 70000;
+		for (SecondFractionDisplay fractionDisplay : SecondFractionDisplay.values())
+		{
+			IncrementalSplitSecondFormatter incrementalFormatter = new IncrementalSplitSecondFormatter(fractionDisplay);
+			TableSplitSecondFormatter referenceFormatter = new TableSplitSecondFormatter(fractionDisplay);
+
+			String previous = "";
+			for (long ms = start; ms < start + 140000; ms += 7)
+			{
+				previous = assertUpdate(incrementalFormatter, referenceFormatter, previous, ms);
+			}
+		}
+	}
+
+	public void testRandomValues() throws Exception
+	{
+		Random random = new Random();
+		for (SecondFractionDisplay fractionDisplay : SecondFractionDisplay.values())
+		{
+			IncrementalSplitSecondFormatter incrementalFormatter = new IncrementalSplitSecondFormatter(fractionDisplay);
+			TableSplitSecondFormatter referenceFormatter = new TableSplitSecondFormatter(fractionDisplay);
+
+			String previous = "";
+			for (int i = 0; i < FastSplitSecondFormatterTest.TEST_ITERATIONS; i++)
+			{
+				previous = assertUpdate(incrementalFormatter, referenceFormatter, previous, Math.abs(random.nextInt()));
+			}
+		}
+	}
+
+	public void testNoChange() throws Exception
+	{
+		IncrementalSplitSecondFormatter formatter = new IncrementalSplitSecondFormatter(SecondFractionDisplay.Tenth);
+
+		assertEquals(0, formatter.update(1234));
+		assertEquals(formatter.getLength(), formatter.update(1299));
+	}
+
+	public void testNegativeRendersAsZero() throws Exception
+	{
+		IncrementalSplitSecondFormatter formatter = new IncrementalSplitSecondFormatter(SecondFractionDisplay.Hundredth);
+
+		assertEquals("00:00.00", formatter.formatElapsedTime(-1));
+		assertEquals("00:00.00", formatter.formatElapsedTime(Long.MIN_VALUE));
+		assertEquals(formatter.getLength(), formatter.update(0));
+	}
+
+	public void testReset() throws Exception
+	{
+		IncrementalSplitSecondFormatter formatter = new IncrementalSplitSecondFormatter(SecondFractionDisplay.Tenth);
+
+		formatter.update(1234);
+		formatter.reset();
+
+		assertEquals(0, formatter.update(1234));
+	}
+
+	//endregion
+
+	//region Methods
+
+	private static String assertUpdate(IncrementalSplitSecondFormatter formatter, IMillisFormatter referenceFormatter,
+									   String previous, long ms)
+	{
+		final int firstChanged = formatter.update(ms);
+		final String current = new String(formatter.getBuffer(), 0, formatter.getLength());
+
+		assertEquals(referenceFormatter.formatElapsedTime(ms), current);
+		assertEquals("Wrong first changed index for " + previous + " -> " + current, expectedFirstChange(previous, current), firstChanged);
+
+		return current;
+	}
+
+	private static int expectedFirstChange(String previous, String current)
+	{
+		if (previous.equals(current))
+		{
+			return current.length();
+		}
+
+		int index = 0;
+		while (index < previous.length() && index < current.length() && previous.charAt(index) == current.charAt(index))
+		{
+			index++;
+		}
+
+		return index;
+	}
+
+	//endregion
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+import junit.framework.TestCase;
+
+public class PatternMillisFormatterTest extends TestCase
+{
+	//region Tests
+
+	public void testOptionalHoursSameAsTableFormatter() throws Exception
+	{
+		FastSplitSecondFormatterTest.runTestFormatter(new PatternMillisFormatter("[H:]mm:ss.S"), new ReferenceFormatter(1));
+		FastSplitSecondFormatterTest.runTestFormatter(new PatternMillisFormatter("[H:]mm:ss.SS"), new ReferenceFormatter(2));
+		FastSplitSecondFormatterTest.runTestFormatter(new PatternMillisFormatter("[H:]mm:ss.SSS"), new ReferenceFormatter(3));
+
+		PatternMillisFormatter secondsFormatter = new PatternMillisFormatter("[H:]mm:ss");
+		FastSecondsFormatter fastSecondsFormatter = new FastSecondsFormatter();
+		long[] testValues = {0, 999, 59999, 60000, 3599999, 3600000, 36000000, Integer.MAX_VALUE + 1L, Long.MAX_VALUE};
+		for (long value : testValues)
+		{
+			assertEquals(fastSecondsFormatter.formatElapsedTime(value), secondsFormatter.formatElapsedTime(value));
+		}
+	}
+
+	public void testPaddedFields() throws Exception
+	{
+		PatternMillisFormatter formatter = new PatternMillisFormatter("HH:mm:ss.SS");
+
+		assertEquals("00:00:00.00", formatter.formatElapsedTime(0));
+		assertEquals("01:02:03.45", formatter.formatElapsedTime(3723456));
+		assertEquals("123:00:00.00", formatter.formatElapsedTime(123 * 3600000L));
+	}
+
+	public void testLargestUnitAbsorbsOverflow() throws Exception
+	{
+		assertEquals("90:00", new PatternMillisFormatter("mm:ss").formatElapsedTime(5400000));
+		assertEquals("5400.5", new PatternMillisFormatter("s.S").formatElapsedTime(5400500));
+		assertEquals("1:30", new PatternMillisFormatter("H:mm").formatElapsedTime(5459999));
+	}
+
+	public void testLiterals() throws Exception
+	{
+		PatternMillisFormatter formatter = new PatternMillisFormatter("m'm 'ss's'' left'");
+
+		assertEquals("2m 05s' left", formatter.formatElapsedTime(125000));
+	}
+
+	public void testOptionalSectionWithMoreFields() throws Exception
+	{
+		PatternMillisFormatter formatter = new PatternMillisFormatter("[H'h 'm'm ']s's'");
+
+		assertEquals("7s", formatter.formatElapsedTime(7000));
+		assertEquals("0h 1m 7s", formatter.formatElapsedTime(67000));
+		assertEquals("2h 0m 0s", formatter.formatElapsedTime(7200000));
+	}
+
+	public void testNegativeFormatsAsZero() throws Exception
+	{
+		String[] patterns = {"HH:mm:ss.SS", "mm:ss", "s.S", "[H:]mm:ss"};
+		long[] negativeValues = {-1, -1000, -3600000, Integer.MIN_VALUE - 1L, Long.MIN_VALUE};
+
+		for (String pattern : patterns)
+		{
+			PatternMillisFormatter formatter = new PatternMillisFormatter(pattern);
+			for (long value : negativeValues)
+			{
+				assertEquals(formatter.formatElapsedTime(0), formatter.formatElapsedTime(value));
+			}
+		}
+	}
+
+	public void testInvalidPatterns() throws Exception
+	{
+		String[] invalidPatterns = {"", "'mm:ss", "mm:ss.SSSS", "hh:mm", "mm:ss:mm", "[mm:ss", "mm]:ss", "[[H]]:mm", "[:]mm", ".SS",
+				"HHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHHH"};
+
+		for (String pattern : invalidPatterns)
+		{
+			try
+			{
+				new PatternMillisFormatter(pattern);
+				fail("Pattern '" + pattern + "' should be rejected");
+			}
+			catch (IllegalArgumentException expected)
+			{
+			}
+		}
+	}
+
+	public void testMaxLengthFitsBuffer() throws Exception
+	{
+		PatternMillisFormatter formatter = new PatternMillisFormatter("HH:mm:ss.SSS");
+
+		char[] buffer = new char[formatter.getMaxLength()];
+		int length = formatter.formatElapsedTime(Long.MAX_VALUE, buffer, 0);
+
+		assertEquals(formatter.getMaxLength(), length);
+	}
+
+	public void testCharBufferOutput() throws Exception
+	{
+		FastSplitSecondFormatterTest.runTestCharBuffer(new PatternMillisFormatter("[H:]mm:ss.SS"));
+		FastSplitSecondFormatterTest.runTestCharBuffer(new PatternMillisFormatter("'T-'mm:ss"));
+	}
+
+	//endregion
+}
@@ -16,12 +16,10 @@
 
 package com.jraska.time.format;
 
-import android.text.format.DateUtils;
-
 /**
  * Reference formatter which will act as reference to test other formatters to others.
  * <p/>
- * Uses slow but easy String.format method.
+ * Uses slow but easy String.format method, whole seconds are formatted the same way as android DateUtils does.
  */
 class ReferenceFormatter implements IMillisFormatter
 {
@@ -52,7 +50,7 @@ class ReferenceFormatter implements IMillisFormatter
 	@Override
 	public String formatElapsedTime(long totalMs)
 	{
-		String dateUtilsValue = DateUtils.formatElapsedTime(totalMs / 1000);
+		String dateUtilsValue = formatSeconds(totalMs / 1000);
 
 		long fraction = totalMs % 1000;
 
@@ -65,4 +63,22 @@ class ReferenceFormatter implements IMillisFormatter
 	}
 
 	//endregion
+
+	//region Methods
+
+	static String formatSeconds(long totalSeconds)
+	{
+		long hours = totalSeconds / 3600;
+		long minutes = (totalSeconds % 3600) / 60;
+		long seconds = totalSeconds % 60;
+
+		if (hours > 0)
+		{
+			return String.format("%d:%02d:%02d", hours, minutes, seconds);
+		}
+
+		return String.format("%02d:%02d", minutes, seconds);
+	}
+
+	//endregion
 }
@@ -16,7 +16,6 @@
 
 package com.jraska.time.format;
 
-import android.os.SystemClock;
 import junit.framework.TestCase;
 
 import java.util.ArrayList;
@@ -57,13 +56,40 @@ public class RoundingMillisDecoratorFormatterTest extends TestCase
 		testRoundingIncrement(1000);
 	}
 
+	public void testNegativeFormatsAsZero() throws Exception
+	{
+		RoundingMillisDecoratorFormatter formatter = new RoundingMillisDecoratorFormatter(new FastSecondsFormatter(), 1000);
+
+		assertEquals("00:00", formatter.formatElapsedTime(-1));
+		assertEquals("00:00", formatter.formatElapsedTime(-1499));
+		assertEquals("00:00", formatter.formatElapsedTime(-1500));
+		assertEquals("00:00", formatter.formatElapsedTime(-3600000));
+		assertEquals("00:00", formatter.formatElapsedTime(Long.MIN_VALUE));
+	}
+
+	public void testMaxValueDoesNotOverflow() throws Exception
+	{
+		long[] increments = {2, 10, 1000, 1000000};
+		for (long increment : increments)
+		{
+			RoundingMillisDecoratorFormatter formatter = new RoundingMillisDecoratorFormatter(new FastSecondsFormatter(), increment);
+
+			long rounded = formatter.countNewMillis(Long.MAX_VALUE);
+			assertTrue(rounded > 0);
+			assertEquals(0, rounded % increment);
+			assertTrue(Long.MAX_VALUE - rounded < increment);
+
+			assertEquals(new FastSecondsFormatter().formatElapsedTime(rounded), formatter.formatElapsedTime(Long.MAX_VALUE));
+		}
+	}
+
 	//endregion
 
 	//region Static methods
 
 	private static void testRoundingIncrement(long increment)
 	{
-		final List<RoundTestEntry> entries = generateTestData(increment, (SystemClock.elapsedRealtime() / increment) * increment);
+		final List<RoundTestEntry> entries = generateTestData(increment, (System.currentTimeMillis() / increment) * increment);
 
 		testDecoratorRounding(entries, newDecoratorFormatter(increment));
 	}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+import junit.framework.TestCase;
+
+public class TableSplitSecondFormatterTest extends TestCase
+{
+	//region Tests
+
+	public void testTenths() throws Exception
+	{
+		TableSplitSecondFormatter formatter = new TableSplitSecondFormatter(SecondFractionDisplay.Tenth);
+
+		FastSplitSecondFormatterTest.runTestFormatter(formatter, new ReferenceFormatter(1));
+	}
+
+	public void testHundredths() throws Exception
+	{
+		TableSplitSecondFormatter formatter = new TableSplitSecondFormatter(SecondFractionDisplay.Hundredth);
+
+		FastSplitSecondFormatterTest.runTestFormatter(formatter, new ReferenceFormatter(2));
+	}
+
+	public void testMillis() throws Exception
+	{
+		TableSplitSecondFormatter formatter = new TableSplitSecondFormatter(SecondFractionDisplay.Millis);
+
+		FastSplitSecondFormatterTest.runTestFormatter(formatter, new ReferenceFormatter(3));
+	}
+
+	public void testSameAsFastFormatter() throws Exception
+	{
+		//hour boundaries and values over the int range use different splitting paths
+		long[] testValues = {0, 999, 1000, 59999, 60000, 3599999, 3600000, 35999999, 36000000,
+				Integer.MAX_VALUE - 1, Integer.MAX_VALUE, Integer.MAX_VALUE + 1L, 99 * 3600000L * 1000, Long.MAX_VALUE};
+
+		for (SecondFractionDisplay fractionDisplay : SecondFractionDisplay.values())
+		{
+			FastSplitSecondFormatter fastFormatter = new FastSplitSecondFormatter(fractionDisplay);
+			TableSplitSecondFormatter tableFormatter = new TableSplitSecondFormatter(fractionDisplay);
+
+			for (long value : testValues)
+			{
+				assertEquals(fastFormatter.formatElapsedTime(value), tableFormatter.formatElapsedTime(value));
+			}
+		}
+	}
+
+	public void testNegativeFormatsAsZero() throws Exception
+	{
+		long[] negativeValues = {-1, -999, -1000, -3600000, Integer.MIN_VALUE, Integer.MIN_VALUE - 1L, Long.MIN_VALUE};
+
+		for (SecondFractionDisplay fractionDisplay : SecondFractionDisplay.values())
+		{
+			TableSplitSecondFormatter tableFormatter = new TableSplitSecondFormatter(fractionDisplay);
+			FastSplitSecondFormatter fastFormatter = new FastSplitSecondFormatter(fractionDisplay);
+			String zero = tableFormatter.formatElapsedTime(0);
+
+			char[] buffer = new char[ICharMillisFormatter.MAX_FORMATTED_LENGTH];
+			for (long value : negativeValues)
+			{
+				assertEquals(zero, tableFormatter.formatElapsedTime(value));
+				assertEquals(zero, fastFormatter.formatElapsedTime(value));
+
+				int length = tableFormatter.formatElapsedTime(value, buffer, 0);
+				assertEquals(zero, new String(buffer, 0, length));
+			}
+		}
+	}
+
+	public void testCharBufferOutput() throws Exception
+	{
+		for (SecondFractionDisplay fractionDisplay : SecondFractionDisplay.values())
+		{
+			FastSplitSecondFormatterTest.runTestCharBuffer(new TableSplitSecondFormatter(fractionDisplay));
+		}
+	}
+
+	//endregion
+}
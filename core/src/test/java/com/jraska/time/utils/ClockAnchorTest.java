@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import junit.framework.TestCase;
+
+public class ClockAnchorTest extends TestCase
+{
+	//region Fields
+
+	private final ManualClock mElapsedClock = new ManualClock();
+	private final ManualClock mUptimeClock = new ManualClock();
+
+	//endregion
+
+	//region Test methods
+
+	public void testConvertsToDeliveryTime() throws Exception
+	{
+		mElapsedClock.advance(5000);
+
+		ClockAnchor anchor = new ClockAnchor(mUptimeClock);
+		anchor.anchor(mElapsedClock.getTimeMs());
+
+		assertEquals(5000, anchor.getOffset());
+		assertEquals(mUptimeClock.getTimeMs() + 20, anchor.toDeliveryTime(mElapsedClock.getTimeMs() + 20));
+	}
+
+	public void testNoGapWhileAwake() throws Exception
+	{
+		ClockAnchor anchor = new ClockAnchor(mUptimeClock);
+		anchor.anchor(mElapsedClock.getTimeMs());
+
+		for (int i = 0; i < 10; i++)
+		{
+			advanceAwake(20);
+			assertEquals(0, anchor.checkGap(mElapsedClock.getTimeMs()));
+		}
+
+		assertEquals(0, anchor.getGapCount());
+	}
+
+	public void testSleepGapDetectedAndReanchored() throws Exception
+	{
+		ClockAnchor anchor = new ClockAnchor(mUptimeClock);
+		anchor.anchor(mElapsedClock.getTimeMs());
+
+		//tick scheduled 20 ms ahead, device sleeps 60 s in the middle
+		long tickTime = mElapsedClock.getTimeMs() + 20;
+		long deliveryTime = anchor.toDeliveryTime(tickTime);
+
+		advanceAwake(10);
+		mElapsedClock.advance(60000);
+		advanceAwake(10);
+
+		//delivery clock reached the time, but ticker clock is late by the sleep
+		assertEquals(deliveryTime, mUptimeClock.getTimeMs());
+		assertEquals(60000, anchor.checkGap(mElapsedClock.getTimeMs()));
+		assertEquals(1, anchor.getGapCount());
+		assertEquals(60000, anchor.getTotalGapMs());
+
+		//next tick is delivered on time of ticker clock with the new anchor
+		long nextTickTime = mElapsedClock.getTimeMs() + 20;
+		long nextDeliveryTime = anchor.toDeliveryTime(nextTickTime);
+		advanceAwake(20);
+
+		assertEquals(nextDeliveryTime, mUptimeClock.getTimeMs());
+		assertEquals(nextTickTime, mElapsedClock.getTimeMs());
+		assertEquals(0, anchor.checkGap(mElapsedClock.getTimeMs()));
+	}
+
+	public void testSmallOffsetChangeIsNotGap() throws Exception
+	{
+		ClockAnchor anchor = new ClockAnchor(mUptimeClock, 5);
+		anchor.anchor(mElapsedClock.getTimeMs());
+
+		mElapsedClock.advance(3);
+
+		assertEquals(0, anchor.checkGap(mElapsedClock.getTimeMs()));
+		assertEquals(0, anchor.getGapCount());
+	}
+
+	public void testNullClockThrows() throws Exception
+	{
+		try
+		{
+			new ClockAnchor(null);
+			fail("Null clock should throw");
+		}
+		catch (IllegalArgumentException ex)
+		{
+			//expected
+		}
+	}
+
+	//endregion
+
+	//region Methods
+
+	private void advanceAwake(long ms)
+	{
+		mElapsedClock.advance(ms);
+		mUptimeClock.advance(ms);
+	}
+
+	//endregion
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import com.jraska.time.common.StartStopTestPart;
+import junit.framework.TestCase;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConcurrentStopWatchTest extends TestCase
+{
+	//region Fields
+
+	private final ManualClock mClock = new ManualClock(1000);
+
+	//endregion
+
+	//region Test Methods
+
+	public void testStartStopState()
+	{
+		StartStopTestPart.doAllStateTests(new ConcurrentStopWatch(mClock));
+	}
+
+	public void testPauseContinue()
+	{
+		ConcurrentStopWatch stopWatch = new ConcurrentStopWatch(mClock);
+
+		stopWatch.start();
+		mClock.advance(10);
+		stopWatch.stop();
+
+		mClock.advance(100);
+		assertEquals(10, stopWatch.getElapsedMs());
+
+		stopWatch.start();
+		mClock.advance(15);
+
+		assertEquals(25, stopWatch.getElapsedMs());
+		assertEquals(20, stopWatch.getElapsedMs(mClock.getTimeMs() - 5));
+	}
+
+	public void testSettingTime()
+	{
+		ConcurrentStopWatch stopWatch = new ConcurrentStopWatch(mClock);
+
+		//elapsed larger than clock time gives negative packed value
+		long startTime = 3L * 365 * 24 * 60 * 60 * 1000;
+		stopWatch.setElapsedMs(startTime);
+		assertEquals(startTime, stopWatch.getElapsedMs());
+
+		stopWatch.start();
+		mClock.advance(10);
+		assertEquals(startTime + 10, stopWatch.getElapsedMs());
+
+		stopWatch.setElapsedMs(500);
+		mClock.advance(10);
+		stopWatch.stop();
+
+		assertEquals(510, stopWatch.getElapsedMs());
+
+		try
+		{
+			stopWatch.setElapsedMs(-1);
+			fail("Negative elapsed accepted.");
+		}
+		catch (IllegalArgumentException expected)
+		{
+		}
+	}
+
+	public void testRestart()
+	{
+		ConcurrentStopWatch stopWatch = new ConcurrentStopWatch(mClock);
+		stopWatch.setElapsedMs(300);
+
+		stopWatch.restart();
+		mClock.advance(7);
+
+		assertTrue(stopWatch.isRunning());
+		assertEquals(7, stopWatch.getElapsedMs());
+	}
+
+	public void testConcurrentReadsDoNotTear() throws Exception
+	{
+		final ConcurrentStopWatch stopWatch = new ConcurrentStopWatch();
+		final long startMs = MonotonicClock.INSTANCE.getTimeMs();
+		final AtomicReference<String> error = new AtomicReference<String>();
+		final CountDownLatch writerDone = new CountDownLatch(1);
+
+		Thread writer = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				for (int i = 0; i < 100000; i++)
+				{
+					stopWatch.start();
+					stopWatch.stop();
+				}
+
+				writerDone.countDown();
+			}
+		});
+
+		Thread reader = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				while (writerDone.getCount() > 0 && error.get() == null)
+				{
+					long elapsed = stopWatch.getElapsedMs();
+					long maxElapsed = MonotonicClock.INSTANCE.getTimeMs() - startMs;
+					if (elapsed < 0 || elapsed > maxElapsed)
+					{
+						error.set("Read elapsed " + elapsed + " out of 0 - " + maxElapsed);
+					}
+				}
+			}
+		});
+
+		reader.start();
+		writer.start();
+		writer.join();
+		reader.join();
+
+		assertNull(error.get(), error.get());
+		assertFalse(stopWatch.isRunning());
+	}
+
+	//endregion
+}
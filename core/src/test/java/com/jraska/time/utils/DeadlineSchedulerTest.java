@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DeadlineSchedulerTest extends TestCase
+{
+	//region Fields
+
+	private ManualTickScheduler mTickScheduler;
+	private DeadlineScheduler mScheduler;
+	private final List<Long> mFiredAt = new ArrayList<Long>();
+
+	private final TimingWheel.OnExpiredListener mRecordingListener = new TimingWheel.OnExpiredListener()
+	{
+		@Override
+		public void onExpired(TimingWheel.Timeout timeout)
+		{
+			mFiredAt.add(mTickScheduler.getClock().getTimeMs());
+		}
+	};
+
+	//endregion
+
+	//region TestCase impl
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		mTickScheduler = new ManualTickScheduler();
+		ManualTicker ticker = new ManualTicker(mTickScheduler, null, Ticker.DEFAULT_TICK_INTERVAL);
+		mScheduler = new DeadlineScheduler(ticker, mTickScheduler.getClock());
+		mScheduler.start();
+	}
+
+	//endregion
+
+	//region Test methods
+
+	public void testManyDeadlinesFromOneTicker()
+	{
+		int count = 1000;
+		for (int i = 1; i <= count; i++)
+		{
+			mScheduler.schedule(new TimingWheel.Timeout(mRecordingListener), i * 100);
+		}
+
+		assertEquals(1, mTickScheduler.getTickersCount());
+
+		mTickScheduler.advanceBy(count * 100);
+
+		assertEquals(count, mFiredAt.size());
+		for (int i = 0; i < count; i++)
+		{
+			assertEquals((i + 1) * 100, (long) mFiredAt.get(i));
+		}
+
+		//single wakeup for each deadline
+		assertEquals(count, mTickScheduler.getDispatchedTicks());
+	}
+
+	public void testEarlierDeadlineMovesWakeup()
+	{
+		mScheduler.schedule(new TimingWheel.Timeout(mRecordingListener), 5000);
+		mTickScheduler.advanceBy(100);
+
+		mScheduler.schedule(new TimingWheel.Timeout(mRecordingListener), 150);
+		mTickScheduler.advanceBy(10000);
+
+		assertEquals(2, mFiredAt.size());
+		assertEquals(150L, (long) mFiredAt.get(0));
+		assertEquals(5000L, (long) mFiredAt.get(1));
+		assertEquals(2, mTickScheduler.getDispatchedTicks());
+	}
+
+	public void testLaterDeadlineKeepsWakeup()
+	{
+		mScheduler.schedule(new TimingWheel.Timeout(mRecordingListener), 100);
+		assertEquals(100, mScheduler.getWakeupMs());
+
+		for (int i = 1; i <= 1000; i++)
+		{
+			mScheduler.schedule(new TimingWheel.Timeout(mRecordingListener), 100 + i * 50);
+		}
+
+		assertEquals(100, mScheduler.getWakeupMs());
+
+		mTickScheduler.advanceBy(100);
+		assertEquals(1, mFiredAt.size());
+		assertEquals(150, mScheduler.getWakeupMs());
+	}
+
+	public void testCancelledWakeupPlansNextWhenReached()
+	{
+		TimingWheel.Timeout first = new TimingWheel.Timeout(mRecordingListener);
+		mScheduler.schedule(first, 100);
+		mScheduler.schedule(new TimingWheel.Timeout(mRecordingListener), 300);
+
+		mScheduler.cancel(first);
+		assertEquals(100, mScheduler.getWakeupMs());
+
+		mTickScheduler.advanceBy(100);
+		assertTrue(mFiredAt.isEmpty());
+		assertEquals(300, mScheduler.getWakeupMs());
+
+		mTickScheduler.advanceBy(1000);
+		assertEquals(1, mFiredAt.size());
+		assertEquals(300L, (long) mFiredAt.get(0));
+		assertEquals(TimingWheel.NO_DEADLINE, mScheduler.getWakeupMs());
+		assertEquals(2, mTickScheduler.getDispatchedTicks());
+	}
+
+	public void testFarDeadlines()
+	{
+		//over ten hours, far from the lowest wheel levels
+		long far = 10 * 3600 * 1000L;
+		for (int i = 0; i < 100; i++)
+		{
+			mScheduler.schedule(new TimingWheel.Timeout(mRecordingListener), far + i * 1000);
+		}
+
+		mTickScheduler.advanceBy(far + 100 * 1000);
+
+		assertEquals(100, mFiredAt.size());
+		for (int i = 0; i < 100; i++)
+		{
+			assertEquals(far + i * 1000, (long) mFiredAt.get(i));
+		}
+
+		assertEquals(100, mTickScheduler.getDispatchedTicks());
+	}
+
+	public void testTickerStopsWhenNothingPending()
+	{
+		TimingWheel.Timeout timeout = new TimingWheel.Timeout(mRecordingListener);
+		mScheduler.scheduleIn(timeout, 35);
+
+		mTickScheduler.advanceBy(100);
+
+		assertEquals(1, mFiredAt.size());
+		assertEquals(35L, (long) mFiredAt.get(0));
+		assertEquals(0, mTickScheduler.getTickersCount());
+
+		//no ticks while idle
+		long dispatched = mTickScheduler.getDispatchedTicks();
+		mTickScheduler.advanceBy(100000);
+		assertEquals(dispatched, mTickScheduler.getDispatchedTicks());
+	}
+
+	public void testCancelledDoesNotFire()
+	{
+		TimingWheel.Timeout timeout = new TimingWheel.Timeout(mRecordingListener);
+		mScheduler.scheduleIn(timeout, 50);
+
+		mTickScheduler.advanceBy(20);
+		assertTrue(mScheduler.cancel(timeout));
+
+		mTickScheduler.advanceBy(100);
+
+		assertTrue(mFiredAt.isEmpty());
+		assertEquals(0, mScheduler.getPendingCount());
+		assertEquals(0, mTickScheduler.getDispatchedTicks());
+	}
+
+	public void testStoppedKeepsDeadlines()
+	{
+		mScheduler.scheduleIn(new TimingWheel.Timeout(mRecordingListener), 50);
+		mScheduler.stop();
+
+		mTickScheduler.advanceBy(100);
+		assertTrue(mFiredAt.isEmpty());
+		assertEquals(1, mScheduler.getPendingCount());
+
+		mScheduler.start();
+		mTickScheduler.advanceBy(10);
+
+		//missed deadline fires on start
+		assertEquals(1, mFiredAt.size());
+		assertEquals(100L, (long) mFiredAt.get(0));
+	}
+
+	public void testListenerReschedules()
+	{
+		TimingWheel.Timeout repeating = new TimingWheel.Timeout(new TimingWheel.OnExpiredListener()
+		{
+			@Override
+			public void onExpired(TimingWheel.Timeout timeout)
+			{
+				mRecordingListener.onExpired(timeout);
+				mScheduler.schedule(timeout, timeout.getDeadlineMs() + 1000);
+			}
+		});
+
+		mScheduler.schedule(repeating, 1000);
+		mTickScheduler.advanceBy(5500);
+
+		assertEquals(5, mFiredAt.size());
+		assertEquals(5000L, (long) mFiredAt.get(4));
+	}
+
+	//endregion
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+
+public class LapBufferTest extends TestCase
+{
+	//region Test methods
+
+	public void testEmpty()
+	{
+		LapBuffer laps = new LapBuffer();
+
+		assertEquals(0, laps.getCount());
+		assertEquals(0, laps.getTotalCount());
+		assertEquals(0, laps.getMinLapMs());
+		assertEquals(0, laps.getMaxLapMs());
+		assertEquals(0.0, laps.getMeanLapMs());
+		assertEquals(0.0, laps.getLapVariance());
+		assertEquals(0, laps.copyLaps(new long[0], 0));
+
+		try
+		{
+			laps.getLapMs(0);
+			fail("Empty buffer has no lap.");
+		}
+		catch (IndexOutOfBoundsException expected)
+		{
+		}
+	}
+
+	public void testUnboundedGrows()
+	{
+		LapBuffer laps = new LapBuffer();
+
+		int count = 100;
+		for (int i = 0; i < count; i++)
+		{
+			laps.add(i, i * 10);
+		}
+
+		assertEquals(count, laps.getCount());
+		assertEquals(LapBuffer.UNBOUNDED, laps.getMaxLaps());
+
+		for (int i = 0; i < count; i++)
+		{
+			assertEquals(i, laps.getLapMs(i));
+			assertEquals(i * 10, laps.getSplitMs(i));
+		}
+	}
+
+	public void testBoundedKeepsLastLaps()
+	{
+		LapBuffer laps = new LapBuffer(3);
+
+		for (int i = 1; i <= 5; i++)
+		{
+			laps.add(i, i * 100);
+		}
+
+		assertEquals(3, laps.getCount());
+		assertEquals(5, laps.getTotalCount());
+		assertEquals(3, laps.getLapMs(0));
+		assertEquals(5, laps.getLapMs(2));
+
+		//wrapped content is copied in order
+		long[] copied = new long[4];
+		assertEquals(3, laps.copySplits(copied, 1));
+		assertTrue(Arrays.equals(new long[]{0, 300, 400, 500}, copied));
+
+		try
+		{
+			laps.copyLaps(new long[3], 1);
+			fail("Laps cannot fit.");
+		}
+		catch (IndexOutOfBoundsException expected)
+		{
+		}
+	}
+
+	public void testStatistics()
+	{
+		LapBuffer laps = new LapBuffer(2);
+
+		long[] values = {2, 4, 4, 4, 5, 5, 7, 9};
+		for (long value : values)
+		{
+			laps.add(value, 0);
+		}
+
+		//statistics count with overwritten laps too
+		assertEquals(2, laps.getMinLapMs());
+		assertEquals(9, laps.getMaxLapMs());
+		assertEquals(5.0, laps.getMeanLapMs(), 1e-9);
+		assertEquals(32.0 / 7, laps.getLapVariance(), 1e-9);
+		assertEquals(Math.sqrt(32.0 / 7), laps.getLapStandardDeviation(), 1e-9);
+	}
+
+	public void testClear()
+	{
+		LapBuffer laps = new LapBuffer(2);
+		laps.add(10, 10);
+		laps.add(20, 30);
+		laps.add(30, 60);
+
+		laps.clear();
+		laps.add(5, 5);
+
+		assertEquals(1, laps.getCount());
+		assertEquals(1, laps.getTotalCount());
+		assertEquals(5, laps.getLapMs(0));
+		assertEquals(5, laps.getMinLapMs());
+		assertEquals(5, laps.getMaxLapMs());
+		assertEquals(5.0, laps.getMeanLapMs());
+	}
+
+	public void testNotPositiveMaxLaps()
+	{
+		try
+		{
+			new LapBuffer(0);
+			fail("Zero max laps accepted.");
+		}
+		catch (IllegalArgumentException expected)
+		{
+		}
+	}
+
+	//endregion
+}
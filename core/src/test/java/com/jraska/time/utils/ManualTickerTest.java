@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import com.jraska.time.common.StartStopTestPart;
+import com.jraska.time.format.FastSplitSecondFormatter;
+import com.jraska.time.format.ICharMillisFormatter;
+import com.jraska.time.format.SecondFractionDisplay;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tick timing tests running in virtual time, so they are exact and do not wait.
+ */
+public class ManualTickerTest extends TestCase
+{
+	//region Constants
+
+	private static final long DEFAULT_TICK_INTERVAL = 20;
+
+	//endregion
+
+	//region Fields
+
+	private ManualTickScheduler mScheduler;
+	private ManualTicker mTicker;
+	private final List<Long> mTickTimes = new ArrayList<Long>();
+
+	//endregion
+
+	//region TestCase implementation
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		mScheduler = new ManualTickScheduler();
+		mTicker = new ManualTicker(mScheduler, new Ticker.OnTickListener()
+		{
+			@Override
+			public void onTick(Ticker ticker)
+			{
+				mTickTimes.add(ticker.getTickTime());
+			}
+		}, DEFAULT_TICK_INTERVAL);
+	}
+
+	//endregion
+
+	//region Test methods
+
+	public void testStartStopState() throws Exception
+	{
+		StartStopTestPart.doAllStateTests(mTicker);
+	}
+
+	public void testSingleTick() throws Exception
+	{
+		mTicker.start();
+		mScheduler.advanceBy(DEFAULT_TICK_INTERVAL - 1);
+		assertTickTimes();
+
+		mScheduler.advanceBy(1);
+		assertTickTimes(20);
+	}
+
+	public void testTenTicks() throws Exception
+	{
+		mTicker.start();
+		mScheduler.advanceBy(10 * DEFAULT_TICK_INTERVAL);
+
+		assertTickTimes(20, 40, 60, 80, 100, 120, 140, 160, 180, 200);
+	}
+
+	public void testIntervalChanged() throws Exception
+	{
+		mTicker.setTickInterval(35);
+		mTicker.start();
+		mScheduler.advanceBy(70);
+
+		assertTickTimes(35, 70);
+	}
+
+	public void testRuntimeIntervalChange() throws Exception
+	{
+		mTicker.start();
+
+		mScheduler.advanceTo(5);
+		mTicker.setTickInterval(30);
+
+		mScheduler.advanceTo(75);
+		mTicker.setTickInterval(10);
+
+		//change takes effect after the pending tick
+		mScheduler.advanceTo(100);
+		assertTickTimes(20, 50, 80, 90, 100);
+	}
+
+	public void testTickTimeChangeOnPause() throws Exception
+	{
+		mTicker.start();
+
+		mScheduler.advanceTo(5);
+		changeIntervalOnPause(30);
+
+		mScheduler.advanceTo(75);
+		changeIntervalOnPause(10);
+
+		//executed part of interval is longer than new interval, so the tick comes immediately
+		mScheduler.advanceTo(90);
+		assertTickTimes(30, 60, 75, 80, 90);
+	}
+
+	public void testNextTickMove() throws Exception
+	{
+		mTicker.start();
+
+		mScheduler.advanceTo(25);
+		mTicker.setNextTickMove(10);
+
+		mScheduler.advanceTo(45);
+		mTicker.setNextTickMove(-10);
+
+		//moves apply to tick scheduled after the pending one
+		mScheduler.advanceTo(80);
+		assertTickTimes(20, 40, 70, 80);
+	}
+
+	public void testRemainingTimeCounting() throws Exception
+	{
+		mTicker.start();
+
+		mScheduler.advanceTo(8);
+		assertEquals(DEFAULT_TICK_INTERVAL - 8, mTicker.getRemainingToNextTick());
+
+		mScheduler.advanceTo(15);
+		assertEquals(DEFAULT_TICK_INTERVAL - 15, mTicker.getRemainingToNextTick());
+
+		mScheduler.advanceTo(2 * DEFAULT_TICK_INTERVAL - 5);
+		assertEquals(5, mTicker.getRemainingToNextTick());
+
+		mTicker.stop();
+		assertEquals(5, mTicker.getRemainingToNextTick());
+	}
+
+	public void testStoppedTickerDoesNotTick() throws Exception
+	{
+		mTicker.start();
+		mScheduler.advanceBy(30);
+		mTicker.stop();
+
+		mScheduler.advanceBy(100);
+		assertTickTimes(20);
+		assertEquals(0, mScheduler.getTickersCount());
+
+		//continues with the rest of interval
+		mTicker.start();
+		mScheduler.advanceBy(10);
+		assertTickTimes(20, 140);
+	}
+
+	public void testTenHoursCountDown() throws Exception
+	{
+		final long countDownTime = 10 * 60 * 60 * 1000L;
+		final long tickInterval = 10;
+
+		final StopWatch stopWatch = new StopWatch(mScheduler.getClock());
+		final ICharMillisFormatter formatter = new FastSplitSecondFormatter(SecondFractionDisplay.Hundredth);
+		final char[] buffer = new char[ICharMillisFormatter.MAX_FORMATTED_LENGTH];
+		final long[] lastRemaining = {-1};
+
+		final ManualTicker ticker = new ManualTicker(mScheduler, new Ticker.OnTickListener()
+		{
+			@Override
+			public void onTick(Ticker ticker)
+			{
+				long remaining = Math.max(countDownTime - stopWatch.getElapsedMs(ticker.getTickTime()), 0);
+				formatter.formatElapsedTime(remaining, buffer, 0);
+				lastRemaining[0] = remaining;
+
+				if (remaining == 0)
+				{
+					ticker.stop();
+					stopWatch.stop();
+				}
+			}
+		}, tickInterval);
+
+		stopWatch.start();
+		ticker.start();
+
+		while (mScheduler.runNextTick())
+		{
+		}
+
+		assertEquals(0, lastRemaining[0]);
+		assertEquals(countDownTime / tickInterval, mScheduler.getDispatchedTicks());
+		assertEquals(countDownTime, stopWatch.getElapsedMs());
+		assertEquals("00:00.00", new String(buffer, 0, 8));
+	}
+
+	//endregion
+
+	//region Methods
+
+	private void changeIntervalOnPause(long interval)
+	{
+		mTicker.stop();
+		mTicker.setTickInterval(interval);
+		mTicker.start();
+	}
+
+	private void assertTickTimes(long... expected)
+	{
+		assertEquals("Tick times " + mTickTimes, expected.length, mTickTimes.size());
+		for (int i = 0; i < expected.length; i++)
+		{
+			assertEquals("Tick times " + mTickTimes, expected[i], (long) mTickTimes.get(i));
+		}
+	}
+
+	//endregion
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import com.jraska.time.common.StartStopTestPart;
+import junit.framework.TestCase;
+
+public class StopWatchTest extends TestCase
+{
+	//region Fields
+
+	private final ManualClock mClock = new ManualClock();
+
+	//endregion
+
+	//region Test Methods
+
+	public void testStartStopState()
+	{
+		StartStopTestPart.doAllStateTests(new StopWatch(mClock));
+	}
+
+	public void testSimpleElapsed() throws Exception
+	{
+		StopWatch stopWatch = new StopWatch(mClock);
+		stopWatch.start();
+
+		final long waitInterval = 10;
+
+		mClock.advance(waitInterval);
+
+		stopWatch.stop();
+
+		assertEquals("StopWatch did not measured right.", waitInterval, stopWatch.getElapsedMs());
+	}
+
+	public void testPauseContinue() throws Exception
+	{
+		StopWatch stopWatch = new StopWatch(mClock);
+		stopWatch.start();
+
+		final long waitInterval = 10;
+
+		mClock.advance(waitInterval);
+
+		stopWatch.stop();
+
+		mClock.advance(waitInterval);
+
+		stopWatch.start();
+
+		mClock.advance(waitInterval);
+
+		stopWatch.stop();
+
+		long elapsed = stopWatch.getElapsedMs();
+		assertEquals(String.format("StopWatch did not paused expected: %d but was: %d", 2 * waitInterval, elapsed), 2 * waitInterval, elapsed);
+	}
+
+	public void testSettingTime() throws Exception
+	{
+		StopWatch stopWatch = new StopWatch(mClock);
+
+		stopWatch.start();
+		final long waitInterval = 10;
+		mClock.advance(waitInterval);
+		stopWatch.stop();
+
+		long startTime = 21627;
+		stopWatch.setElapsedMs(startTime);
+		long elapsed = stopWatch.getElapsedMs();
+
+		boolean matchStartSet = elapsed == startTime;
+		assertTrue(String.format("Start time set on start does not match elapsed. Expected: %d but was: %d", startTime, elapsed), matchStartSet);
+
+		stopWatch.start();
+
+		mClock.advance(waitInterval);
+
+		stopWatch.stop();
+
+		elapsed = stopWatch.getElapsedMs();
+		long expectedElapsed = startTime + waitInterval;
+
+		assertEquals(String.format("StopWatch elapsed does not match elapsed. Expected: %d but was: %d", expectedElapsed, elapsed), expectedElapsed, elapsed);
+
+		stopWatch.start();
+
+		long newSetTime = 75617;
+		stopWatch.setElapsedMs(newSetTime);
+
+		mClock.advance(waitInterval);
+
+		stopWatch.stop();
+
+		elapsed = stopWatch.getElapsedMs();
+		expectedElapsed = newSetTime + waitInterval;
+
+		assertEquals(String.format("StopWatch elapsed does not match elapsed. Expected: %d but was: %d", expectedElapsed, elapsed), expectedElapsed, elapsed);
+	}
+
+	public void testElapsedAtTime() throws Exception
+	{
+		StopWatch stopWatch = new StopWatch(mClock);
+		stopWatch.start();
+
+		long tickTime = mClock.getTimeMs() + 25;
+		mClock.advance(40);
+
+		assertEquals(25, stopWatch.getElapsedMs(tickTime));
+		assertEquals(40, stopWatch.getElapsedMs(mClock.getTimeMs()));
+
+		stopWatch.stop();
+
+		assertEquals("Stopped StopWatch should ignore provided time.", 40, stopWatch.getElapsedMs(tickTime));
+	}
+
+	public void testLaps() throws Exception
+	{
+		StopWatch stopWatch = new StopWatch(mClock);
+		stopWatch.start();
+
+		mClock.advance(10);
+		assertEquals(10, stopWatch.lap());
+
+		mClock.advance(30);
+		stopWatch.stop();
+		mClock.advance(100); //stopped time is not measured
+		stopWatch.start();
+		mClock.advance(5);
+		assertEquals(35, stopWatch.getCurrentLapMs());
+		assertEquals(35, stopWatch.lap());
+
+		LapBuffer laps = stopWatch.getLaps();
+		assertEquals(2, laps.getCount());
+		assertEquals(45, laps.getSplitMs(1));
+		assertEquals(10, laps.getMinLapMs());
+		assertEquals(35, laps.getMaxLapMs());
+
+		stopWatch.reset();
+		assertEquals(0, laps.getCount());
+		assertEquals(0, stopWatch.getCurrentLapMs());
+	}
+
+	public void testSettingTimeStartsNewLap() throws Exception
+	{
+		StopWatch stopWatch = new StopWatch(mClock, 4);
+		stopWatch.start();
+
+		mClock.advance(50);
+		stopWatch.lap();
+
+		stopWatch.setElapsedMs(20);
+		mClock.advance(15);
+
+		assertEquals(15, stopWatch.lap());
+		assertEquals(35, stopWatch.getLaps().getSplitMs(1));
+	}
+
+	//endregion
+}
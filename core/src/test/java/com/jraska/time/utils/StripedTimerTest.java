@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.CountDownLatch;
+
+public class StripedTimerTest extends TestCase
+{
+	//region Fields
+
+	private final ManualClock mClock = new ManualClock();
+
+	//endregion
+
+	//region Test methods
+
+	public void testSingleMeasurement()
+	{
+		StripedTimer timer = new StripedTimer(mClock, 4);
+		StripedTimer.Measurement measurement = timer.newMeasurement();
+
+		measurement.begin();
+		mClock.advance(10);
+		assertEquals(10, measurement.end());
+
+		measurement.begin();
+		assertEquals(1, timer.getActiveCount());
+		mClock.advance(5);
+		measurement.end();
+
+		assertEquals(15, timer.getTotalActiveMs());
+		assertEquals(15, timer.getConcurrencyWeightedMs());
+		assertEquals(2, timer.getCount());
+		assertEquals(0, timer.getActiveCount());
+		assertEquals(1.0, timer.getMeanConcurrency());
+	}
+
+	public void testConcurrencyWeighted()
+	{
+		StripedTimer timer = new StripedTimer(mClock, 4);
+		StripedTimer.Measurement first = timer.newMeasurement();
+		StripedTimer.Measurement second = timer.newMeasurement();
+
+		first.begin();
+		mClock.advance(10);
+		second.begin();
+		mClock.advance(20);
+		first.end();
+		second.end();
+
+		//first began alone and ended with second active, second began with first active and ended alone
+		assertEquals(30 + 20, timer.getTotalActiveMs());
+		assertEquals(30 * 3 / 2 + 20 * 3 / 2, timer.getConcurrencyWeightedMs());
+		assertEquals(75.0 / 50, timer.getMeanConcurrency(), 1e-9);
+	}
+
+	public void testStripesRounded()
+	{
+		assertEquals(1, new StripedTimer(mClock, 1).getStripesCount());
+		assertEquals(8, new StripedTimer(mClock, 5).getStripesCount());
+		assertEquals(64, new StripedTimer(mClock, 1000).getStripesCount());
+	}
+
+	public void testInvalidMeasurementState()
+	{
+		StripedTimer.Measurement measurement = new StripedTimer(mClock).newMeasurement();
+
+		try
+		{
+			measurement.end();
+			fail("Ended measurement without begin.");
+		}
+		catch (IllegalStateException expected)
+		{
+		}
+
+		measurement.begin();
+		try
+		{
+			measurement.begin();
+			fail("Measurement began twice.");
+		}
+		catch (IllegalStateException expected)
+		{
+		}
+	}
+
+	public void testReset()
+	{
+		StripedTimer timer = new StripedTimer(mClock);
+		StripedTimer.Measurement measurement = timer.newMeasurement();
+		measurement.begin();
+		mClock.advance(3);
+		measurement.end();
+
+		timer.reset();
+
+		assertEquals(0, timer.getTotalActiveMs());
+		assertEquals(0, timer.getCount());
+		assertEquals(0.0, timer.getMeanConcurrency());
+	}
+
+	public void testManyThreadsCountAll() throws Exception
+	{
+		final StripedTimer timer = new StripedTimer(MonotonicClock.INSTANCE, 4);
+		final int threadsCount = 8;
+		final int intervals = 10000;
+		final CountDownLatch startLatch = new CountDownLatch(1);
+
+		Thread[] threads = new Thread[threadsCount];
+		for (int i = 0; i < threadsCount; i++)
+		{
+			threads[i] = new Thread(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					StripedTimer.Measurement measurement = timer.newMeasurement();
+					try
+					{
+						startLatch.await();
+					}
+					catch (InterruptedException e)
+					{
+						return;
+					}
+
+					for (int j = 0; j < intervals; j++)
+					{
+						measurement.begin();
+						measurement.end();
+					}
+				}
+			});
+			threads[i].start();
+		}
+
+		startLatch.countDown();
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+
+		assertEquals(threadsCount * intervals, timer.getCount());
+		assertEquals(0, timer.getActiveCount());
+		assertTrue(timer.getConcurrencyWeightedMs() >= timer.getTotalActiveMs());
+	}
+
+	//endregion
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TextHandoffTest extends TestCase
+{
+	//region Constants
+
+	private static final int PUBLISH_COUNT = 200000;
+
+	//endregion
+
+	//region Test methods
+
+	public void testLatestWins() throws Exception
+	{
+		TextHandoff handoff = new TextHandoff();
+
+		assertNull(handoff.take());
+
+		assertTrue(publish(handoff, 1));
+		assertFalse("Consumer was already notified about pending frame.", publish(handoff, 2));
+
+		TextHandoff.Frame frame = handoff.take();
+		assertEquals(2, frame.getMillis());
+		assertEquals(1, frame.getLength());
+		assertEquals('2', frame.getChars()[0]);
+		assertEquals(1, handoff.getDroppedCount());
+
+		assertNull(handoff.take());
+	}
+
+	public void testFlagsOfReplacedFrameKept() throws Exception
+	{
+		TextHandoff handoff = new TextHandoff();
+
+		handoff.obtainFrame(1);
+		assertTrue(handoff.publish(1, 1, 2));
+		handoff.obtainFrame(1);
+		assertFalse(handoff.publish(1, 2, 1));
+
+		TextHandoff.Frame frame = handoff.take();
+		assertEquals(2, frame.getMillis());
+		assertEquals(3, frame.getFlags());
+		handoff.recycle(frame);
+
+		//taken flags are not published again
+		handoff.obtainFrame(1);
+		assertTrue(handoff.publish(1, 3, 0));
+		assertEquals(0, handoff.take().getFlags());
+	}
+
+	public void testFramesRecycled() throws Exception
+	{
+		TextHandoff handoff = new TextHandoff();
+
+		publish(handoff, 1);
+		TextHandoff.Frame displayed = handoff.take();
+
+		publish(handoff, 2);
+		TextHandoff.Frame next = handoff.take();
+		assertNotSame(displayed, next);
+
+		//displayed frame is replaced, so it can be reused by producer
+		handoff.recycle(displayed);
+		assertSame(displayed, handoff.obtainFrame(8));
+	}
+
+	public void testPublishWithoutFrameThrows() throws Exception
+	{
+		try
+		{
+			new TextHandoff().publish(1, 1);
+			fail("Publishing without obtained frame should throw");
+		}
+		catch (IllegalStateException ex)
+		{
+			//expected
+		}
+	}
+
+	public void testConcurrentHandoff() throws Exception
+	{
+		final TextHandoff handoff = new TextHandoff();
+		final CountDownLatch producerDone = new CountDownLatch(1);
+		final AtomicReference<String> error = new AtomicReference<String>();
+
+		Thread producer = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				for (int i = 1; i <= PUBLISH_COUNT; i++)
+				{
+					publish(handoff, i);
+				}
+
+				producerDone.countDown();
+			}
+		});
+		producer.start();
+
+		long lastMillis = 0;
+		TextHandoff.Frame displayed = null;
+		while (lastMillis < PUBLISH_COUNT)
+		{
+			TextHandoff.Frame frame = handoff.take();
+			if (frame == null)
+			{
+				if (producerDone.getCount() == 0 && lastMillis < PUBLISH_COUNT && handoff.take() == null)
+				{
+					error.compareAndSet(null, "Last frame was lost, last taken: " + lastMillis);
+					break;
+				}
+
+				Thread.yield();
+				continue;
+			}
+
+			//frame text must be consistent with its millis and newer than displayed one
+			String text = new String(frame.getChars(), 0, frame.getLength());
+			if (!text.equals(Long.toString(frame.getMillis())) || frame.getMillis() <= lastMillis)
+			{
+				error.compareAndSet(null, "Frame " + text + " with millis " + frame.getMillis() + " after " + lastMillis);
+				break;
+			}
+
+			lastMillis = frame.getMillis();
+			handoff.recycle(displayed);
+			displayed = frame;
+		}
+
+		assertTrue(producerDone.await(30, TimeUnit.SECONDS));
+		assertNull(error.get(), error.get());
+	}
+
+	//endregion
+
+	//region Methods
+
+	private static boolean publish(TextHandoff handoff, long value)
+	{
+		String text = Long.toString(value);
+		TextHandoff.Frame frame = handoff.obtainFrame(text.length());
+		text.getChars(0, text.length(), frame.getChars(), 0);
+
+		return handoff.publish(text.length(), value);
+	}
+
+	//endregion
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import junit.framework.TestCase;
+
+public class TickLatencyHistogramTest extends TestCase
+{
+	//region Test methods
+
+	public void testEmpty() throws Exception
+	{
+		TickLatencyHistogram histogram = new TickLatencyHistogram();
+
+		assertEquals(0, histogram.getTickCount());
+		assertEquals(0, histogram.getMaxLatenessMs());
+		assertEquals(0, histogram.getPercentileMs(99));
+	}
+
+	public void testExactSmallLateness() throws Exception
+	{
+		TickLatencyHistogram histogram = new TickLatencyHistogram();
+		for (int i = 1; i <= 10; i++)
+		{
+			histogram.recordTick(i, 100);
+		}
+
+		assertEquals(10, histogram.getTickCount());
+		assertEquals(5, histogram.getPercentileMs(50));
+		assertEquals(9, histogram.getPercentileMs(90));
+		assertEquals(10, histogram.getPercentileMs(100));
+		assertEquals(1, histogram.getPercentileMs(0));
+		assertEquals(0, histogram.getMissedTickCount());
+	}
+
+	public void testLargeLatenessPrecision() throws Exception
+	{
+		TickLatencyHistogram histogram = new TickLatencyHistogram();
+		histogram.recordTick(1000, 16);
+		histogram.recordTick(5000, 16);
+
+		long p50 = histogram.getPercentileMs(50);
+		assertTrue("p50 was " + p50, p50 >= 1000 && p50 <= 1000 * 9 / 8);
+		assertEquals(5000, histogram.getPercentileMs(100));
+		assertEquals(5000, histogram.getMaxLatenessMs());
+		assertEquals(2, histogram.getMissedTickCount());
+	}
+
+	public void testHugeLateness() throws Exception
+	{
+		TickLatencyHistogram histogram = new TickLatencyHistogram();
+		long huge = TickLatencyHistogram.MAX_TRACKED_LATENESS * 10;
+		histogram.recordTick(huge, 1000);
+
+		assertEquals(huge, histogram.getPercentileMs(50));
+	}
+
+	public void testNegativeLatenessIsZero() throws Exception
+	{
+		TickLatencyHistogram histogram = new TickLatencyHistogram();
+		histogram.recordTick(-5, 10);
+
+		assertEquals(1, histogram.getTickCount());
+		assertEquals(0, histogram.getMaxLatenessMs());
+	}
+
+	public void testParentAggregates() throws Exception
+	{
+		TickLatencyHistogram aggregate = new TickLatencyHistogram();
+		TickLatencyHistogram first = new TickLatencyHistogram(aggregate);
+		TickLatencyHistogram second = new TickLatencyHistogram(aggregate);
+
+		first.recordTick(3, 10);
+		second.recordTick(30, 10);
+
+		assertEquals(2, aggregate.getTickCount());
+		assertEquals(1, aggregate.getMissedTickCount());
+		assertEquals(30, aggregate.getMaxLatenessMs());
+		assertEquals(3, first.getMaxLatenessMs());
+
+		first.reset();
+		assertEquals(0, first.getTickCount());
+		assertEquals(2, aggregate.getTickCount());
+	}
+
+	public void testBucketBounds() throws Exception
+	{
+		int lastIndex = -1;
+		for (long lateness = 0; lateness < 100000; lateness++)
+		{
+			int index = TickLatencyHistogram.bucketIndex(lateness);
+			assertTrue(index >= lastIndex);
+			assertTrue(lateness <= TickLatencyHistogram.bucketUpperBound(index));
+			if (index > 0)
+			{
+				assertTrue(lateness > TickLatencyHistogram.bucketUpperBound(index - 1));
+			}
+
+			lastIndex = index;
+		}
+	}
+
+	public void testInvalidPercentile() throws Exception
+	{
+		try
+		{
+			new TickLatencyHistogram().getPercentileMs(101);
+			fail("Percentile above 100 should throw");
+		}
+		catch (IllegalArgumentException ex)
+		{
+			//expected
+		}
+	}
+
+	//endregion
+}
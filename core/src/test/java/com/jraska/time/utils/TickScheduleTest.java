@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import junit.framework.TestCase;
+
+public class TickScheduleTest extends TestCase
+{
+	//region Constants
+
+	private static final long TICK_INTERVAL = 20;
+	private static final long START_TIME = 1000;
+
+	//endregion
+
+	//region Test methods
+
+	public void testRegularTicks() throws Exception
+	{
+		TickSchedule schedule = new TickSchedule();
+
+		assertEquals(TICK_INTERVAL, schedule.start(START_TIME, TICK_INTERVAL));
+		assertEquals(START_TIME + TICK_INTERVAL, schedule.getFutureTickTime());
+
+		//tick came 3 ms late, next one should keep the phase
+		assertEquals(TICK_INTERVAL - 3, schedule.scheduleNextTick(START_TIME + TICK_INTERVAL + 3, TICK_INTERVAL));
+		assertEquals(START_TIME + 2 * TICK_INTERVAL, schedule.getFutureTickTime());
+	}
+
+	public void testNextTickMove() throws Exception
+	{
+		TickSchedule schedule = new TickSchedule();
+		schedule.start(START_TIME, TICK_INTERVAL);
+
+		schedule.setNextTickMove(10);
+		assertEquals(TICK_INTERVAL + 10, schedule.scheduleNextTick(START_TIME + TICK_INTERVAL, TICK_INTERVAL));
+		assertEquals(0, schedule.getNextTickMove());
+
+		schedule.setNextTickMove(-10);
+		long now = START_TIME + 2 * TICK_INTERVAL + 10;
+		assertEquals(TICK_INTERVAL - 10, schedule.scheduleNextTick(now, TICK_INTERVAL));
+	}
+
+	public void testStopContinuesInterval() throws Exception
+	{
+		TickSchedule schedule = new TickSchedule();
+		schedule.start(START_TIME, TICK_INTERVAL);
+
+		schedule.stop(START_TIME + 5, TICK_INTERVAL);
+		assertEquals(TICK_INTERVAL - 5, schedule.countRemainingToNextTickStopped(TICK_INTERVAL));
+
+		//after pause the rest of interval is waited
+		assertEquals(TICK_INTERVAL - 5, schedule.start(START_TIME + 100, TICK_INTERVAL));
+	}
+
+	public void testReset() throws Exception
+	{
+		TickSchedule schedule = new TickSchedule();
+		schedule.start(START_TIME, TICK_INTERVAL);
+		schedule.stop(START_TIME + 5, TICK_INTERVAL);
+
+		schedule.reset();
+
+		assertEquals(TICK_INTERVAL, schedule.start(START_TIME + 100, TICK_INTERVAL));
+	}
+
+	public void testNextTickDelay() throws Exception
+	{
+		TickSchedule schedule = new TickSchedule();
+		schedule.start(START_TIME, TICK_INTERVAL);
+
+		//from tick callback coming 2 ms late
+		long now = START_TIME + TICK_INTERVAL + 2;
+		schedule.setNextTickDelay(now, 500, TICK_INTERVAL);
+
+		assertEquals(500, schedule.scheduleNextTick(now, TICK_INTERVAL));
+		assertEquals(TICK_INTERVAL - 3, schedule.scheduleNextTick(now + 503, TICK_INTERVAL));
+	}
+
+	public void testStartDelay() throws Exception
+	{
+		TickSchedule schedule = new TickSchedule();
+		schedule.start(START_TIME, TICK_INTERVAL);
+		schedule.stop(START_TIME + 5, TICK_INTERVAL);
+
+		schedule.setStartDelay(300, TICK_INTERVAL);
+
+		assertEquals(300, schedule.countRemainingToNextTickStopped(TICK_INTERVAL));
+		assertEquals(300, schedule.start(START_TIME + 100, TICK_INTERVAL));
+	}
+
+	public void testRemainingToNextTick() throws Exception
+	{
+		TickSchedule schedule = new TickSchedule();
+		schedule.start(START_TIME, TICK_INTERVAL);
+
+		assertEquals(TICK_INTERVAL - 8, schedule.countRemainingToNextTick(START_TIME + 8));
+		assertEquals(0, schedule.countRemainingToNextTick(START_TIME + TICK_INTERVAL + 8));
+	}
+
+	public void testMissedTicksCoalesced() throws Exception
+	{
+		TickSchedule schedule = new TickSchedule();
+		schedule.start(START_TIME, TICK_INTERVAL);
+
+		//first tick came 3.5 intervals late, ticks at 40, 60 and 80 passed
+		long now = START_TIME + TICK_INTERVAL + 70;
+		assertEquals(10, schedule.scheduleNextTick(now, TICK_INTERVAL));
+		assertEquals(START_TIME + 5 * TICK_INTERVAL, schedule.getFutureTickTime());
+		assertEquals(3, schedule.getSkippedTickCount());
+	}
+
+	public void testMissedTicksReplayed() throws Exception
+	{
+		TickSchedule schedule = new TickSchedule();
+		schedule.setMissedTickPolicy(MissedTickPolicy.ReplayAll);
+		schedule.start(START_TIME, TICK_INTERVAL);
+
+		long now = START_TIME + TICK_INTERVAL + 70;
+		assertEquals(-50, schedule.scheduleNextTick(now, TICK_INTERVAL));
+		assertEquals(-30, schedule.scheduleNextTick(now, TICK_INTERVAL));
+		assertEquals(0, schedule.getSkippedTickCount());
+	}
+
+	public void testMissedTicksRephased() throws Exception
+	{
+		TickSchedule schedule = new TickSchedule();
+		schedule.setMissedTickPolicy(MissedTickPolicy.FireNowAndRephase);
+		schedule.start(START_TIME, TICK_INTERVAL);
+
+		long now = START_TIME + TICK_INTERVAL + 70;
+		assertEquals(0, schedule.scheduleNextTick(now, TICK_INTERVAL));
+		assertEquals(2, schedule.getSkippedTickCount());
+
+		//following ticks are phased from the late one
+		assertEquals(TICK_INTERVAL, schedule.scheduleNextTick(now, TICK_INTERVAL));
+		assertEquals(now + TICK_INTERVAL, schedule.getFutureTickTime());
+	}
+
+	public void testNotLateTickNotSkipped() throws Exception
+	{
+		TickSchedule schedule = new TickSchedule();
+		schedule.start(START_TIME, TICK_INTERVAL);
+
+		//next tick is due right now
+		assertEquals(0, schedule.scheduleNextTick(START_TIME + 2 * TICK_INTERVAL, TICK_INTERVAL));
+		assertEquals(0, schedule.getSkippedTickCount());
+	}
+
+	//endregion
+}
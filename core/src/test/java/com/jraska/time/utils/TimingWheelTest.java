@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TimingWheelTest extends TestCase
+{
+	//region Fields
+
+	private final List<Long> mExpiredAt = new ArrayList<Long>();
+	private long mNow;
+	private long mPreviousNow;
+
+	private final TimingWheel.OnExpiredListener mRecordingListener = new TimingWheel.OnExpiredListener()
+	{
+		@Override
+		public void onExpired(TimingWheel.Timeout timeout)
+		{
+			assertTrue("Timeout expired early.", mNow >= timeout.getDeadlineMs());
+			mExpiredAt.add(mNow);
+		}
+	};
+
+	//endregion
+
+	//region Test methods
+
+	public void testExpiresAtDeadline()
+	{
+		TimingWheel wheel = new TimingWheel(1, 0);
+		TimingWheel.Timeout timeout = new TimingWheel.Timeout(mRecordingListener);
+
+		wheel.schedule(timeout, 100);
+		assertTrue(timeout.isPending());
+
+		expireTo(wheel, 99);
+		assertTrue(mExpiredAt.isEmpty());
+
+		expireTo(wheel, 100);
+		assertEquals(1, mExpiredAt.size());
+		assertFalse(timeout.isPending());
+		assertTrue(wheel.isEmpty());
+	}
+
+	public void testDeadlineRoundedUpToTick()
+	{
+		TimingWheel wheel = new TimingWheel(10, 0);
+		wheel.schedule(new TimingWheel.Timeout(mRecordingListener), 101);
+
+		expireTo(wheel, 109);
+		assertTrue(mExpiredAt.isEmpty());
+
+		expireTo(wheel, 110);
+		assertEquals(1, mExpiredAt.size());
+	}
+
+	public void testPastDeadlineExpiresOnNextAdvance()
+	{
+		TimingWheel wheel = new TimingWheel(1, 1000);
+		wheel.schedule(new TimingWheel.Timeout(mRecordingListener), 500);
+
+		assertEquals(1, expireTo(wheel, 1000));
+	}
+
+	public void testCancel()
+	{
+		TimingWheel wheel = new TimingWheel(1, 0);
+		TimingWheel.Timeout first = new TimingWheel.Timeout(mRecordingListener);
+		TimingWheel.Timeout second = new TimingWheel.Timeout(mRecordingListener);
+
+		wheel.schedule(first, 5000);
+		wheel.schedule(second, 5000);
+
+		assertTrue(wheel.cancel(first));
+		assertFalse(wheel.cancel(first));
+		assertFalse(first.isPending());
+		assertEquals(1, wheel.getPendingCount());
+
+		expireTo(wheel, 10000);
+		assertEquals(1, mExpiredAt.size());
+	}
+
+	public void testRescheduleMovesTimeout()
+	{
+		TimingWheel wheel = new TimingWheel(1, 0);
+		TimingWheel.Timeout timeout = new TimingWheel.Timeout(mRecordingListener);
+
+		wheel.schedule(timeout, 300000);
+		wheel.schedule(timeout, 30);
+		assertEquals(1, wheel.getPendingCount());
+
+		expireTo(wheel, 30);
+		assertEquals(1, mExpiredAt.size());
+
+		//expired timeout can be used again
+		wheel.schedule(timeout, 40);
+		expireTo(wheel, 39);
+		expireTo(wheel, 40);
+		assertEquals(2, mExpiredAt.size());
+	}
+
+	public void testFarDeadlineBeyondTopLevel()
+	{
+		TimingWheel wheel = new TimingWheel(1, 0);
+		long farDeadline = 3L * (1L << 36) + 12345;
+		wheel.schedule(new TimingWheel.Timeout(mRecordingListener), farDeadline);
+
+		expireTo(wheel, farDeadline - 1);
+		assertTrue(mExpiredAt.isEmpty());
+
+		expireTo(wheel, farDeadline);
+		assertEquals(1, mExpiredAt.size());
+	}
+
+	public void testManyRandomDeadlinesExpireInTheirStep()
+	{
+		TimingWheel wheel = new TimingWheel(1, 7);
+		Random random = new Random(42);
+
+		TimingWheel.OnExpiredListener stepListener = new TimingWheel.OnExpiredListener()
+		{
+			@Override
+			public void onExpired(TimingWheel.Timeout timeout)
+			{
+				assertTrue("Timeout expired early.", mNow >= timeout.getDeadlineMs());
+				assertTrue("Timeout expired late.", mPreviousNow < timeout.getDeadlineMs());
+				mExpiredAt.add(mNow);
+			}
+		};
+
+		int count = 10000;
+		for (int i = 0; i < count; i++)
+		{
+			wheel.schedule(new TimingWheel.Timeout(stepListener), 8 + random.nextInt(1 << 20));
+		}
+
+		//uneven steps to stop also between slots
+		mNow = 7;
+		while (!wheel.isEmpty())
+		{
+			mPreviousNow = mNow;
+			mNow += 1 + random.nextInt(5000);
+			wheel.expireTo(mNow);
+		}
+
+		assertEquals(count, mExpiredAt.size());
+	}
+
+	public void testNextDeadline()
+	{
+		TimingWheel wheel = new TimingWheel(1, 0);
+		assertEquals(TimingWheel.NO_DEADLINE, wheel.getNextDeadlineMs());
+
+		Random random = new Random(7);
+		List<TimingWheel.Timeout> timeouts = new ArrayList<TimingWheel.Timeout>();
+		for (int i = 0; i < 2000; i++)
+		{
+			TimingWheel.Timeout timeout = new TimingWheel.Timeout(mRecordingListener);
+			wheel.schedule(timeout, 1 + random.nextInt(1 << 22));
+			timeouts.add(timeout);
+		}
+
+		long time = 0;
+		while (!wheel.isEmpty())
+		{
+			long expected = TimingWheel.NO_DEADLINE;
+			for (TimingWheel.Timeout timeout : timeouts)
+			{
+				if (timeout.isPending())
+				{
+					expected = Math.min(expected, timeout.getDeadlineMs());
+				}
+			}
+
+			assertEquals(expected, wheel.getNextDeadlineMs());
+
+			time = random.nextBoolean() ? expected : time + random.nextInt(3000);
+			expireTo(wheel, time);
+		}
+	}
+
+	public void testListenerCanCancelAndSchedule()
+	{
+		final TimingWheel wheel = new TimingWheel(1, 0);
+		final TimingWheel.Timeout cancelled = new TimingWheel.Timeout(mRecordingListener);
+		final TimingWheel.Timeout scheduled = new TimingWheel.Timeout(mRecordingListener);
+
+		TimingWheel.Timeout first = new TimingWheel.Timeout(new TimingWheel.OnExpiredListener()
+		{
+			@Override
+			public void onExpired(TimingWheel.Timeout timeout)
+			{
+				wheel.cancel(cancelled);
+				wheel.schedule(scheduled, 20);
+			}
+		});
+
+		wheel.schedule(first, 10);
+		wheel.schedule(cancelled, 11);
+
+		expireTo(wheel, 11);
+		assertTrue(mExpiredAt.isEmpty());
+
+		expireTo(wheel, 20);
+		assertEquals(1, mExpiredAt.size());
+	}
+
+	public void testClear()
+	{
+		TimingWheel wheel = new TimingWheel(1, 0);
+		TimingWheel.Timeout timeout = new TimingWheel.Timeout(mRecordingListener);
+		wheel.schedule(timeout, 100000);
+		wheel.schedule(new TimingWheel.Timeout(mRecordingListener), -5);
+
+		wheel.clear();
+
+		assertTrue(wheel.isEmpty());
+		assertFalse(timeout.isPending());
+		assertEquals(0, expireTo(wheel, 1000000));
+	}
+
+	//endregion
+
+	//region Methods
+
+	private int expireTo(TimingWheel wheel, long timeMs)
+	{
+		mNow = timeMs;
+		return wheel.expireTo(timeMs);
+	}
+
+	//endregion
+}
@@ -20,23 +20,35 @@ import android.text.format.DateUtils;
 
 /**
  * Formatter to format only to full seconds to format mm:ss or h:mm:ss if necessary.
+ * <p/>
+ * Holds no state between calls, so single instance can be shared.
  */
-public final class DateUtilsMillisFormatter implements IMillisFormatter
+public final class DateUtilsMillisFormatter implements IBoundaryAwareMillisFormatter
 {
-	//region Fields
+	//region IMillisFormatter implementation
 
-	private final StringBuilder mRecycleBuilder = new StringBuilder(8);
+	@Override
+	public String formatElapsedTime(long totalMs)
+	{
+		long seconds = totalMs / 1000;
+
+		return DateUtils.formatElapsedTime(null, seconds);
+	}
 
 	//endregion
 
-	//region IMillisFormatter implementation
+	//region IBoundaryAwareMillisFormatter implementation
 
 	@Override
-	public String formatElapsedTime(long totalMs)
+	public long nextDisplayChange(long totalMs)
 	{
-		long seconds = totalMs / 1000;
+		return DisplayChanges.nextForResolution(totalMs, DateUtils.SECOND_IN_MILLIS);
+	}
 
-		return DateUtils.formatElapsedTime(mRecycleBuilder, seconds);
+	@Override
+	public long previousDisplayChange(long totalMs)
+	{
+		return DisplayChanges.previousForResolution(totalMs, DateUtils.SECOND_IN_MILLIS);
 	}
 
 	//endregion
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.view.Choreographer;
+import com.jraska.time.common.IClock;
+import com.jraska.time.common.IStartStop;
+
+/**
+ * Ticker driven by {@link android.view.Choreographer} frame callbacks, which ticks at most once per frame
+ * on the first frame reaching the tick time. Suitable for intervals shorter than frame, where Handler messages
+ * would come more often than the display refreshes.
+ * <p/>
+ * Tick time is the frame time of {@link com.jraska.time.utils.MonotonicClock}, see {@link #getTickTime()}.
+ * Ticks missed between frames are not replayed, schedule continues with next tick after the frame.
+ * For long intervals frame callbacks are delayed, so the ticker does not wake every frame.
+ * <p/>
+ * Available from API 16, must be created on looper thread.
+ *
+ * @see com.jraska.time.utils.HandlerTicker
+ */
+@TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+public final class ChoreographerTicker extends Ticker implements IStartStop
+{
+	//region Constants
+
+	/**
+	 * Approximate duration of one frame at 60 fps.
+	 */
+	public static final long FRAME_INTERVAL = 16;
+
+	private static final long NANOS_IN_MILLI = 1000000L;
+
+	//endregion
+
+	//region Fields
+
+	//frame times are System.nanoTime based, so schedule must use the same clock
+	private final IClock mClock = MonotonicClock.INSTANCE;
+	private final TickSchedule mSchedule = new TickSchedule();
+	private final Choreographer mChoreographer;
+
+	private boolean mRunning;
+
+	private final Choreographer.FrameCallback mFrameCallback = new Choreographer.FrameCallback()
+	{
+		@Override
+		public void doFrame(long frameTimeNanos)
+		{
+			onFrame(frameTimeNanos / NANOS_IN_MILLI);
+		}
+	};
+
+	//endregion
+
+	//region Constructors
+
+	public ChoreographerTicker(OnTickListener onTickListener)
+	{
+		this(onTickListener, DEFAULT_TICK_INTERVAL);
+	}
+
+	public ChoreographerTicker(OnTickListener onTickListener, long tickInterval)
+	{
+		super(onTickListener, tickInterval);
+
+		mChoreographer = Choreographer.getInstance();
+	}
+
+	//endregion
+
+	//region Properties
+
+	public boolean isRunning()
+	{
+		return mRunning;
+	}
+
+	@Override
+	public long getRemainingToNextTick()
+	{
+		if (!isRunning())
+		{
+			return mSchedule.countRemainingToNextTickStopped(getTickInterval());
+		}
+
+		return mSchedule.countRemainingToNextTick(getTimeMs(mClock));
+	}
+
+	@Override
+	public long getNextTickMove()
+	{
+		return mSchedule.getNextTickMove();
+	}
+
+	@Override
+	public void setNextTickMove(long moveMs)
+	{
+		mSchedule.setNextTickMove(moveMs);
+	}
+
+	@Override
+	public void setNextTickDelay(long delayMs)
+	{
+		if (delayMs < 0)
+		{
+			throw new IllegalArgumentException("delayMs cannot be negative");
+		}
+
+		if (isRunning())
+		{
+			mSchedule.setNextTickDelay(getTimeMs(mClock), delayMs, getTickInterval());
+		}
+		else
+		{
+			mSchedule.setStartDelay(delayMs, getTickInterval());
+		}
+	}
+
+	@Override
+	public IClock getTickClock()
+	{
+		return mClock;
+	}
+
+	//endregion
+
+	//region IStartStop impl
+
+	public void start()
+	{
+		if (isRunning())
+		{
+			return;
+		}
+
+		long delay = mSchedule.start(getTimeMs(mClock), getTickInterval());
+		postFrameCallback(delay);
+
+		mRunning = true;
+	}
+
+	public void stop()
+	{
+		if (!isRunning())
+		{
+			return;
+		}
+
+		mSchedule.stop(getTimeMs(mClock), getTickInterval());
+		mChoreographer.removeFrameCallback(mFrameCallback);
+
+		mRunning = false;
+	}
+
+	public void reset()
+	{
+		stop();
+
+		mSchedule.reset();
+	}
+
+	public void restart()
+	{
+		stop();
+		reset();
+		start();
+	}
+
+	//endregion
+
+	//region Methods
+
+	private void onFrame(long frameTime)
+	{
+		if (!isRunning())
+		{
+			return;
+		}
+
+		long remaining = mSchedule.getFutureTickTime() - frameTime;
+		if (remaining > 0)
+		{
+			postFrameCallback(remaining);
+			return;
+		}
+
+		tick(frameTime);
+
+		//listener could stop or restart the ticker, restarted one has already posted callback
+		if (!isRunning() || mSchedule.getFutureTickTime() > frameTime)
+		{
+			return;
+		}
+
+		//one tick per frame, ticks due until this frame are skipped
+		long delay = mSchedule.scheduleNextTick(frameTime, getTickInterval());
+		while (delay <= 0)
+		{
+			delay = mSchedule.scheduleNextTick(frameTime, getTickInterval());
+		}
+
+		postFrameCallback(delay);
+	}
+
+	private void postFrameCallback(long delay)
+	{
+		mChoreographer.removeFrameCallback(mFrameCallback);
+
+		//callback comes with first frame after the delay, so it is shortened by frame to not miss the tick frame
+		if (delay > FRAME_INTERVAL)
+		{
+			mChoreographer.postFrameCallbackDelayed(mFrameCallback, delay - FRAME_INTERVAL);
+		}
+		else
+		{
+			mChoreographer.postFrameCallback(mFrameCallback);
+		}
+	}
+
+	//endregion
+}
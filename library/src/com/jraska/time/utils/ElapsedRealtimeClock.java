@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import android.os.SystemClock;
+import com.jraska.time.common.IClock;
+
+/**
+ * Clock backed by {@link android.os.SystemClock#elapsedRealtime()}, which keeps counting during deep sleep.
+ */
+public final class ElapsedRealtimeClock implements IClock
+{
+	//region Constants
+
+	public static final ElapsedRealtimeClock INSTANCE = new ElapsedRealtimeClock();
+
+	//endregion
+
+	//region IClock implementation
+
+	@Override
+	public long getTimeMs()
+	{
+		return SystemClock.elapsedRealtime();
+	}
+
+	//endregion
+}
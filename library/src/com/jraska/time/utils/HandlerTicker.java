@@ -17,12 +17,20 @@
 package com.jraska.time.utils;
 
 import android.os.Handler;
+import android.os.Looper;
 import android.os.Message;
-import android.os.SystemClock;
+import com.jraska.time.common.IClock;
 import com.jraska.time.common.IStartStop;
 
 /**
  * Ticker using android handler to ticks synchronization
+ * <p/>
+ * Computing of tick times is delegated to {@link com.jraska.time.utils.TickSchedule}.
+ * <p/>
+ * Tick times are counted by ticker clock, by default elapsed realtime as in views, but Handler delivers messages
+ * by uptime, which stops in deep sleep. Messages are sent at absolute uptime converted by
+ * {@link com.jraska.time.utils.ClockAnchor}, which is re-anchored on each tick, so after sleep ticks keep
+ * the phase of ticker clock and ticks missed during sleep are handled by missed tick policy.
  *
  * @see com.jraska.time.utils.Ticker
  * @see android.os.Handler
@@ -37,22 +45,15 @@ public final class HandlerTicker extends Ticker implements IStartStop
 
 	//region Fields
 
+	private final IClock mClock;
+	private final TickSchedule mSchedule = new TickSchedule();
+	private final ClockAnchor mAnchor = new ClockAnchor(UptimeClock.INSTANCE);
 	private boolean mRunning;
-	private long mFutureTickTime;
-	private long mExecutedLastTickTime = 0;
-	private long mNextTickMove = 0;
+	private int mStartCount;
+	private TickLatencyHistogram mLatencyHistogram;
 
-	private final Handler mHandler = new Handler()
-	{
-		@Override
-		public void handleMessage(Message m)
-		{
-			if (isRunning())
-			{
-				doTick();
-			}
-		}
-	};
+	private final Object mLock;
+	private final Handler mHandler;
 
 	//endregion
 
@@ -60,12 +61,58 @@ public final class HandlerTicker extends Ticker implements IStartStop
 
 	public HandlerTicker(OnTickListener onTickListener)
 	{
-		super(onTickListener);
+		this(onTickListener, DEFAULT_TICK_INTERVAL);
 	}
 
 	public HandlerTicker(OnTickListener onTickListener, long tickInterval)
+	{
+		this(onTickListener, tickInterval, ElapsedRealtimeClock.INSTANCE);
+	}
+
+	/**
+	 * Creates ticker computing tick times with provided clock.
+	 *
+	 * @throws java.lang.IllegalArgumentException If the clock is null or interval not positive.
+	 */
+	public HandlerTicker(OnTickListener onTickListener, long tickInterval, IClock clock)
+	{
+		this(onTickListener, tickInterval, clock, Looper.myLooper(), null);
+	}
+
+	/**
+	 * Creates ticker ticking on provided looper, which can be looper of other thread than the controlling one.
+	 * <p/>
+	 * With lock each tick including tick callbacks runs holding the lock and the ticker must be controlled
+	 * only while holding the same lock.
+	 *
+	 * @param lock Lock to synchronize ticks with, null if the ticker is used only on looper thread.
+	 * @throws java.lang.IllegalArgumentException If the clock or looper is null or interval not positive.
+	 */
+	public HandlerTicker(OnTickListener onTickListener, long tickInterval, IClock clock, Looper looper, Object lock)
 	{
 		super(onTickListener, tickInterval);
+
+		if (clock == null)
+		{
+			throw new IllegalArgumentException("clock cannot be null");
+		}
+
+		if (looper == null)
+		{
+			throw new IllegalArgumentException("looper cannot be null");
+		}
+
+		mClock = clock;
+		mLock = lock;
+
+		mHandler = new Handler(looper)
+		{
+			@Override
+			public void handleMessage(Message m)
+			{
+				handleTickMessage();
+			}
+		};
 	}
 
 	//endregion
@@ -87,28 +134,95 @@ public final class HandlerTicker extends Ticker implements IStartStop
 	{
 		if (!isRunning())
 		{
-			return getTickInterval() - mExecutedLastTickTime + mNextTickMove;
+			return mSchedule.countRemainingToNextTickStopped(getTickInterval());
 		}
 
-		long remaining = mFutureTickTime - SystemClock.elapsedRealtime();
-		if (remaining < 0)
-		{
-			return 0;
-		}
+		return mSchedule.countRemainingToNextTick(getTimeMs(mClock));
+	}
+
+	public MissedTickPolicy getMissedTickPolicy()
+	{
+		return mSchedule.getMissedTickPolicy();
+	}
+
+	/**
+	 * Sets how are handled ticks missed while the looper was busy longer than tick interval.
+	 *
+	 * @param missedTickPolicy Policy to use, default is {@link com.jraska.time.utils.MissedTickPolicy#Coalesce}.
+	 * @throws java.lang.IllegalArgumentException If the policy is null.
+	 */
+	public void setMissedTickPolicy(MissedTickPolicy missedTickPolicy)
+	{
+		mSchedule.setMissedTickPolicy(missedTickPolicy);
+	}
+
+	/**
+	 * Count of ticks not fired because of the missed tick policy. Growing value means overloaded looper.
+	 *
+	 * @return Count of skipped ticks since creation.
+	 */
+	public long getSkippedTickCount()
+	{
+		return mSchedule.getSkippedTickCount();
+	}
+
+	/**
+	 * @return Count of detected gaps between ticker clock and Handler uptime, typically deep sleeps.
+	 */
+	public long getClockGapCount()
+	{
+		return mAnchor.getGapCount();
+	}
 
-		return remaining;
+	public TickLatencyHistogram getLatencyHistogram()
+	{
+		return mLatencyHistogram;
+	}
+
+	/**
+	 * Sets histogram recording how late ticks come against their scheduled time, e.g. due to busy looper.
+	 *
+	 * @param latencyHistogram Histogram to record ticks to, null disables recording.
+	 */
+	public void setLatencyHistogram(TickLatencyHistogram latencyHistogram)
+	{
+		mLatencyHistogram = latencyHistogram;
+	}
+
+	@Override
+	public IClock getTickClock()
+	{
+		return mClock;
 	}
 
 	@Override
 	public long getNextTickMove()
 	{
-		return mNextTickMove;
+		return mSchedule.getNextTickMove();
 	}
 
 	@Override
 	public void setNextTickMove(long moveMs)
 	{
-		mNextTickMove = moveMs;
+		mSchedule.setNextTickMove(moveMs);
+	}
+
+	@Override
+	public void setNextTickDelay(long delayMs)
+	{
+		if (delayMs < 0)
+		{
+			throw new IllegalArgumentException("delayMs cannot be negative");
+		}
+
+		if (isRunning())
+		{
+			mSchedule.setNextTickDelay(getTimeMs(mClock), delayMs, getTickInterval());
+		}
+		else
+		{
+			mSchedule.setStartDelay(delayMs, getTickInterval());
+		}
 	}
 
 	//endregion
@@ -122,11 +236,11 @@ public final class HandlerTicker extends Ticker implements IStartStop
 			return;
 		}
 
-		long elapsed = SystemClock.elapsedRealtime();
-		mFutureTickTime = elapsed + getTickInterval() - mExecutedLastTickTime + mNextTickMove;
-		mNextTickMove = 0;
-		sendNextTick(elapsed);
+		mSchedule.start(getTimeMs(mClock), getTickInterval());
+		mAnchor.anchor(mClock.getTimeMs());
+		sendNextTick();
 
+		mStartCount++;
 		setRunning(true);
 	}
 
@@ -137,7 +251,7 @@ public final class HandlerTicker extends Ticker implements IStartStop
 			return;
 		}
 
-		mExecutedLastTickTime = countExecutedLastTick();
+		mSchedule.stop(getTimeMs(mClock), getTickInterval());
 
 		clearNextTicks();
 
@@ -148,7 +262,7 @@ public final class HandlerTicker extends Ticker implements IStartStop
 	{
 		stop();
 
-		mExecutedLastTickTime = 0;
+		mSchedule.reset();
 	}
 
 	public void restart()
@@ -162,36 +276,61 @@ public final class HandlerTicker extends Ticker implements IStartStop
 
 	//region Methods
 
-	private void doTick()
+	private void handleTickMessage()
 	{
-		tick();
-		updateNextTick();
-		sendNextTick(SystemClock.elapsedRealtime());
-	}
+		if (mLock == null)
+		{
+			if (isRunning())
+			{
+				doTick();
+			}
 
-	private long countExecutedLastTick()
-	{
-		long remaining = mFutureTickTime - SystemClock.elapsedRealtime();
-		return getTickInterval() - remaining;
+			return;
+		}
+
+		synchronized (mLock)
+		{
+			if (isRunning())
+			{
+				doTick();
+			}
+		}
 	}
 
-	private void sendNextTick(long currentMillis)
+	private void doTick()
 	{
-		//count delay
-		long delay = mFutureTickTime - currentMillis;
+		//clock is read once, listeners and scheduling of next tick use the same time
+		long now = mClock.getTimeMs();
+
+		//tick late due to sleep is not latency of looper
+		long gap = mAnchor.checkGap(now);
+		if (mLatencyHistogram != null && gap == 0)
+		{
+			mLatencyHistogram.recordTick(now - mSchedule.getFutureTickTime(), getTickInterval());
+		}
+
+		int startCount = mStartCount;
+		tick(now);
 
-		mHandler.sendMessageDelayed(Message.obtain(mHandler, TICK_WHAT), delay);
+		//listener could stop or restart the ticker, restarted one has already sent its tick
+		if (!isRunning() || startCount != mStartCount)
+		{
+			return;
+		}
+
+		mSchedule.scheduleNextTick(now, getTickInterval());
+		sendNextTick();
 	}
 
-	private void clearNextTicks()
+	private void sendNextTick()
 	{
-		mHandler.removeMessages(TICK_WHAT);
+		long uptime = mAnchor.toDeliveryTime(mSchedule.getFutureTickTime());
+		mHandler.sendMessageAtTime(Message.obtain(mHandler, TICK_WHAT), uptime);
 	}
 
-	private void updateNextTick()
+	private void clearNextTicks()
 	{
-		mFutureTickTime = mFutureTickTime + getTickInterval() + mNextTickMove;
-		mNextTickMove = 0;
+		mHandler.removeMessages(TICK_WHAT);
 	}
 
 	//endregion
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+import com.jraska.time.common.IClock;
+
+/**
+ * Scheduling loop delivering ticks of many {@link com.jraska.time.utils.SharedTicker}s on one looper with one
+ * pending Handler message.
+ * <p/>
+ * Tickers with the same interval and phase are due at the same time and tick from single message. Message is sent
+ * to the earliest due time extended by coalescing window, so tickers due within the window tick together.
+ * Each ticker can come late at most by window, but not more than half of its interval, so rounding to tick interval
+ * displays the same text. Ticks never come early.
+ * <p/>
+ * Clock is read once per dispatch and all tickers ticking together get this time as their
+ * {@link com.jraska.time.utils.Ticker#getTickTime()}, so views of one batch display values of the same moment.
+ * <p/>
+ * Subscribing and unsubscribing is constant time swap remove. Class is not thread safe, all tickers must be used
+ * on the looper thread of the loop.
+ */
+public final class SharedTickLoop
+{
+	//region Constants
+
+	private static final int TICK_WHAT = 3;
+
+	private static final long NOT_SCHEDULED = Long.MAX_VALUE;
+
+	//endregion
+
+	//region Fields
+
+	private final IClock mClock;
+	private final long mCoalescingWindow;
+
+	private SharedTicker[] mTickers = new SharedTicker[8];
+	private int mTickersCount;
+
+	private SharedTicker[] mDueTickers = new SharedTicker[8];
+
+	private long mScheduledTime = NOT_SCHEDULED;
+	private long mDispatchCount;
+
+	private final Handler mHandler;
+
+	//endregion
+
+	//region Constructors
+
+	/**
+	 * Creates loop on the looper of current thread.
+	 *
+	 * @param clock            Clock to schedule ticks with.
+	 * @param coalescingWindow Non-negative ms which can tickers come late to tick together with others.
+	 * @throws java.lang.IllegalArgumentException If the clock is null or window negative.
+	 */
+	public SharedTickLoop(IClock clock, long coalescingWindow)
+	{
+		this(Looper.myLooper(), clock, coalescingWindow);
+	}
+
+	/**
+	 * @throws java.lang.IllegalArgumentException If the looper or clock is null or window negative.
+	 */
+	public SharedTickLoop(Looper looper, IClock clock, long coalescingWindow)
+	{
+		if (looper == null)
+		{
+			throw new IllegalArgumentException("looper cannot be null");
+		}
+
+		if (clock == null)
+		{
+			throw new IllegalArgumentException("clock cannot be null");
+		}
+
+		if (coalescingWindow < 0)
+		{
+			throw new IllegalArgumentException("coalescingWindow cannot be negative");
+		}
+
+		mClock = clock;
+		mCoalescingWindow = coalescingWindow;
+
+		mHandler = new Handler(looper)
+		{
+			@Override
+			public void handleMessage(Message msg)
+			{
+				dispatchTicks();
+			}
+		};
+	}
+
+	//endregion
+
+	//region Properties
+
+	public IClock getClock()
+	{
+		return mClock;
+	}
+
+	public long getCoalescingWindow()
+	{
+		return mCoalescingWindow;
+	}
+
+	/**
+	 * @return Count of running tickers in the loop.
+	 */
+	public int getTickersCount()
+	{
+		return mTickersCount;
+	}
+
+	/**
+	 * @return Count of handled loop messages, each of them ticks all due tickers.
+	 */
+	public long getDispatchCount()
+	{
+		return mDispatchCount;
+	}
+
+	//endregion
+
+	//region Methods
+
+	void subscribe(SharedTicker ticker)
+	{
+		if (mTickersCount == mTickers.length)
+		{
+			SharedTicker[] tickers = new SharedTicker[mTickers.length * 2];
+			System.arraycopy(mTickers, 0, tickers, 0, mTickersCount);
+			mTickers = tickers;
+		}
+
+		ticker.setLoopIndex(mTickersCount);
+		mTickers[mTickersCount++] = ticker;
+
+		long tickTime = countTickTime(ticker);
+		if (tickTime < mScheduledTime)
+		{
+			sendTickMessage(tickTime);
+		}
+	}
+
+	void unsubscribe(SharedTicker ticker)
+	{
+		int index = ticker.getLoopIndex();
+		if (index < 0)
+		{
+			return;
+		}
+
+		int lastIndex = --mTickersCount;
+		SharedTicker last = mTickers[lastIndex];
+		mTickers[index] = last;
+		last.setLoopIndex(index);
+		mTickers[lastIndex] = null;
+
+		ticker.setLoopIndex(-1);
+
+		//later message of remaining tickers is ok, it just reschedules
+		if (mTickersCount == 0)
+		{
+			mHandler.removeMessages(TICK_WHAT);
+			mScheduledTime = NOT_SCHEDULED;
+		}
+	}
+
+	private void dispatchTicks()
+	{
+		mScheduledTime = NOT_SCHEDULED;
+		mDispatchCount++;
+
+		final long now = mClock.getTimeMs();
+
+		//collect first, tick callbacks can subscribe and unsubscribe tickers
+		int dueCount = 0;
+		for (int i = 0; i < mTickersCount; i++)
+		{
+			SharedTicker ticker = mTickers[i];
+			if (ticker.getDueTime() <= now)
+			{
+				if (dueCount == mDueTickers.length)
+				{
+					SharedTicker[] dueTickers = new SharedTicker[mDueTickers.length * 2];
+					System.arraycopy(mDueTickers, 0, dueTickers, 0, dueCount);
+					mDueTickers = dueTickers;
+				}
+
+				mDueTickers[dueCount++] = ticker;
+			}
+		}
+
+		for (int i = 0; i < dueCount; i++)
+		{
+			SharedTicker ticker = mDueTickers[i];
+			mDueTickers[i] = null;
+
+			if (ticker.getLoopIndex() >= 0 && ticker.getDueTime() <= now)
+			{
+				ticker.dispatchTick(now);
+			}
+		}
+
+		scheduleNextDispatch();
+	}
+
+	private void scheduleNextDispatch()
+	{
+		long nextTime = NOT_SCHEDULED;
+		for (int i = 0; i < mTickersCount; i++)
+		{
+			nextTime = Math.min(nextTime, countTickTime(mTickers[i]));
+		}
+
+		if (nextTime != NOT_SCHEDULED)
+		{
+			sendTickMessage(nextTime);
+		}
+	}
+
+	private long countTickTime(SharedTicker ticker)
+	{
+		long window = Math.min(mCoalescingWindow, ticker.getTickInterval() / 2);
+		return ticker.getDueTime() + window;
+	}
+
+	private void sendTickMessage(long tickTime)
+	{
+		mHandler.removeMessages(TICK_WHAT);
+		mScheduledTime = tickTime;
+
+		long delay = Math.max(tickTime - mClock.getTimeMs(), 0);
+		mHandler.sendMessageDelayed(Message.obtain(mHandler, TICK_WHAT), delay);
+	}
+
+	//endregion
+}
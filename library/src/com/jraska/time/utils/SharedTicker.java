@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import com.jraska.time.common.IClock;
+import com.jraska.time.common.IStartStop;
+
+/**
+ * Ticker delivering its ticks through shared {@link com.jraska.time.utils.SharedTickLoop}, so many tickers
+ * do not need own Handler messages.
+ * <p/>
+ * Ticker is in the loop only while running. Behaviour of pausing, moves and delays is the same as of
+ * {@link com.jraska.time.utils.HandlerTicker}, computing of tick times is delegated to
+ * {@link com.jraska.time.utils.TickSchedule}.
+ */
+public final class SharedTicker extends Ticker implements IStartStop
+{
+	//region Fields
+
+	private final SharedTickLoop mLoop;
+	private final TickSchedule mSchedule = new TickSchedule();
+	private boolean mRunning;
+	private int mLoopIndex = -1;
+
+	//endregion
+
+	//region Constructors
+
+	/**
+	 * @throws java.lang.IllegalArgumentException If the loop is null or interval not positive.
+	 */
+	public SharedTicker(SharedTickLoop loop, OnTickListener onTickListener, long tickInterval)
+	{
+		super(onTickListener, tickInterval);
+
+		if (loop == null)
+		{
+			throw new IllegalArgumentException("loop cannot be null");
+		}
+
+		mLoop = loop;
+	}
+
+	//endregion
+
+	//region Properties
+
+	public SharedTickLoop getLoop()
+	{
+		return mLoop;
+	}
+
+	public boolean isRunning()
+	{
+		return mRunning;
+	}
+
+	@Override
+	public long getRemainingToNextTick()
+	{
+		if (!isRunning())
+		{
+			return mSchedule.countRemainingToNextTickStopped(getTickInterval());
+		}
+
+		return mSchedule.countRemainingToNextTick(getTimeMs(mLoop.getClock()));
+	}
+
+	public MissedTickPolicy getMissedTickPolicy()
+	{
+		return mSchedule.getMissedTickPolicy();
+	}
+
+	/**
+	 * Sets how are handled ticks missed while the looper was busy longer than tick interval.
+	 *
+	 * @param missedTickPolicy Policy to use, default is {@link com.jraska.time.utils.MissedTickPolicy#Coalesce}.
+	 * @throws java.lang.IllegalArgumentException If the policy is null.
+	 */
+	public void setMissedTickPolicy(MissedTickPolicy missedTickPolicy)
+	{
+		mSchedule.setMissedTickPolicy(missedTickPolicy);
+	}
+
+	/**
+	 * Count of ticks not fired because of the missed tick policy. Growing value means overloaded looper.
+	 *
+	 * @return Count of skipped ticks since creation.
+	 */
+	public long getSkippedTickCount()
+	{
+		return mSchedule.getSkippedTickCount();
+	}
+
+	@Override
+	public IClock getTickClock()
+	{
+		return mLoop.getClock();
+	}
+
+	@Override
+	public long getNextTickMove()
+	{
+		return mSchedule.getNextTickMove();
+	}
+
+	@Override
+	public void setNextTickMove(long moveMs)
+	{
+		mSchedule.setNextTickMove(moveMs);
+	}
+
+	@Override
+	public void setNextTickDelay(long delayMs)
+	{
+		if (delayMs < 0)
+		{
+			throw new IllegalArgumentException("delayMs cannot be negative");
+		}
+
+		if (isRunning())
+		{
+			mSchedule.setNextTickDelay(getTimeMs(mLoop.getClock()), delayMs, getTickInterval());
+		}
+		else
+		{
+			mSchedule.setStartDelay(delayMs, getTickInterval());
+		}
+	}
+
+	long getDueTime()
+	{
+		return mSchedule.getFutureTickTime();
+	}
+
+	int getLoopIndex()
+	{
+		return mLoopIndex;
+	}
+
+	void setLoopIndex(int loopIndex)
+	{
+		mLoopIndex = loopIndex;
+	}
+
+	//endregion
+
+	//region IStartStop impl
+
+	public void start()
+	{
+		if (isRunning())
+		{
+			return;
+		}
+
+		mSchedule.start(getTimeMs(mLoop.getClock()), getTickInterval());
+		mRunning = true;
+
+		mLoop.subscribe(this);
+	}
+
+	public void stop()
+	{
+		if (!isRunning())
+		{
+			return;
+		}
+
+		mSchedule.stop(getTimeMs(mLoop.getClock()), getTickInterval());
+		mRunning = false;
+
+		mLoop.unsubscribe(this);
+	}
+
+	public void reset()
+	{
+		stop();
+
+		mSchedule.reset();
+	}
+
+	public void restart()
+	{
+		stop();
+		reset();
+		start();
+	}
+
+	//endregion
+
+	//region Methods
+
+	/**
+	 * @param now Time of loop clock read once for all tickers ticking in this dispatch.
+	 */
+	void dispatchTick(long now)
+	{
+		tick(now);
+
+		//listener could stop or restart the ticker, restarted one has already new schedule
+		if (isRunning() && mSchedule.getFutureTickTime() <= now)
+		{
+			mSchedule.scheduleNextTick(now, getTickInterval());
+		}
+	}
+
+	//endregion
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+
+/**
+ * Shared background thread for ticking, formatting and tick callbacks of views, which should not load UI thread.
+ * Thread is started on first use and lives with the process.
+ */
+public final class TimingThread
+{
+	//region Constants
+
+	public static final String THREAD_NAME = "TimerViews-timing";
+
+	//endregion
+
+	//region Fields
+
+	private static HandlerThread sThread;
+
+	//endregion
+
+	//region Constructors
+
+	private TimingThread()
+	{
+	}
+
+	//endregion
+
+	//region Static methods
+
+	/**
+	 * @return Looper of the timing thread, thread is started if it is not running yet.
+	 */
+	public static synchronized Looper getLooper()
+	{
+		if (sThread == null)
+		{
+			HandlerThread thread = new HandlerThread(THREAD_NAME, Process.THREAD_PRIORITY_DISPLAY);
+			thread.start();
+
+			sThread = thread;
+		}
+
+		return sThread.getLooper();
+	}
+
+	//endregion
+}
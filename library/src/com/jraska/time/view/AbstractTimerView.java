@@ -18,15 +18,28 @@ package com.jraska.time.view;
 
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.AttributeSet;
 import android.view.View;
 import android.widget.TextView;
 import com.jraska.time.R;
+import com.jraska.time.common.IClock;
 import com.jraska.time.common.IStartStop;
 import com.jraska.time.format.*;
+import com.jraska.time.utils.ChoreographerTicker;
+import com.jraska.time.utils.ConcurrentStopWatch;
+import com.jraska.time.utils.ElapsedRealtimeClock;
 import com.jraska.time.utils.HandlerTicker;
-import com.jraska.time.utils.StopWatch;
+import com.jraska.time.utils.SharedTickLoop;
+import com.jraska.time.utils.SharedTicker;
+import com.jraska.time.utils.TextHandoff;
 import com.jraska.time.utils.Ticker;
+import com.jraska.time.utils.TimingThread;
+
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Base class for Views displaying time.
@@ -43,6 +56,13 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 	private static final int DISPLAY_PRECISION_TENTHS = 2;
 	private static final int DISPLAY_PRECISION_HUNDREDTHS = 3;
 	private static final int DISPLAY_PRECISION_MILLIS = 4;
+	private static final int DISPLAY_PRECISION_LOCALIZED_SECONDS = 5;
+
+	private static final long NO_TICK_ELAPSED = -1;
+
+	//tick callbacks of background ticking are handed to the view thread with published text
+	private static final int TICK_CALLBACKS_FLAG = 1;
+	private static final int FINISH_CALLBACK_FLAG = 2;
 
 	//endregion
 
@@ -50,6 +70,7 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 
 	private static IMillisFormatterFactory sMillisFormatterFactory = new DefaultMillisFormatterFactory();
 	private static ITickerFactory sTickerFactory = new DefaultTickerFactory();
+	private static IClock sClock = ElapsedRealtimeClock.INSTANCE;
 
 	public static IMillisFormatterFactory getMillisFormatterFactory()
 	{
@@ -81,11 +102,31 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 		sTickerFactory = tickerFactory;
 	}
 
+	public static IClock getClock()
+	{
+		return sClock;
+	}
+
+	/**
+	 * Sets clock measuring time of views created afterwards. Views already created keep their clock.
+	 *
+	 * @param clock Clock to measure time, ManualClock can be used to drive views in virtual time.
+	 */
+	public static void setClock(IClock clock)
+	{
+		if (clock == null)
+		{
+			throw new IllegalArgumentException("clock cannot be null.");
+		}
+
+		sClock = clock;
+	}
+
 	//endregion
 
 	//region Fields
 
-	private final StopWatch mStopWatch = new StopWatch();
+	private final ConcurrentStopWatch mStopWatch = new ConcurrentStopWatch(sClock);
 	private Ticker mTicker;
 
 	private final Ticker.OnTickListener mOnTickListener = new Ticker.OnTickListener()
@@ -98,11 +139,52 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 	};
 
 	private long mLastDisplayedMs;
+	private long mTickElapsedMs = NO_TICK_ELAPSED; //snapshot of elapsed time valid during tick
+	private long mCallbackElapsedMs = NO_TICK_ELAPSED; //snapshot of tick restored for callbacks on the view thread
+
+	//TextView keeps reference to displayed buffer, new text is formatted to the other one and buffers swap on change
+	private char[] mTextBuffer = new char[ICharMillisFormatter.MAX_FORMATTED_LENGTH];
+	private char[] mScratchTextBuffer = new char[ICharMillisFormatter.MAX_FORMATTED_LENGTH];
+	private int mTextLength = -1;
+	private CharSequence mDisplayedText; //detects text set from outside of updateText
+
+	private char[] mDisplayedChars; //buffer or frame passed to TextView
+	private TextHandoff.Frame mDisplayedFrame;
+
+	private long mAppliedTextUpdates;
+	private long mSkippedTextUpdates;
 
 	private IMillisFormatter mMillisFormatter;
 	private boolean mAutoStart;
 	private boolean mPauseTickingOnWindowDisappear;
 	private boolean mTickingPaused;
+	private boolean mAdaptiveTicking;
+
+	//background ticking publishes text from timing thread to the thread of the view
+	private boolean mBackgroundTicking;
+	private Handler mUiHandler;
+	private TextHandoff mTextHandoff;
+	private boolean mTickCallbacksOnTimingThread;
+	private boolean mOnTickOverridden;
+
+	//text of background tick is written to frame and published at end of the tick together with its callbacks
+	private boolean mPublishingTick;
+	private int mWrittenTextLength = -1;
+	private long mWrittenTextMs;
+	private int mTickCallbackFlags;
+
+	//callbacks taken from published frames, accessed only on the view thread
+	private int mPendingCallbackFlags;
+	private long mPendingCallbackMs;
+
+	private final Runnable mApplyPublishedTextRunnable = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			applyPublishedText();
+		}
+	};
 
 	//endregion
 
@@ -134,7 +216,7 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 
 	private void initAbstractTimerView()
 	{
-		mTicker = sTickerFactory.createTicker(new TickerFactoryParameters(mOnTickListener, DEFAULT_TICK_INTERVAL));
+		mTicker = createTicker(DEFAULT_TICK_INTERVAL);
 		mMillisFormatter = sMillisFormatterFactory.createFormatter(new FormatterFactoryParameters(DISPLAY_PRECISION_FIT_TICK_INTERVAL, DEFAULT_TICK_INTERVAL));
 		mPauseTickingOnWindowDisappear = true;
 	}
@@ -145,16 +227,63 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 
 		mAutoStart = a.getBoolean(R.styleable.AbstractTimerView_autoStart, false);
 		mPauseTickingOnWindowDisappear = a.getBoolean(R.styleable.AbstractTimerView_pauseTickingOnWindowDisappear, true);
+		mAdaptiveTicking = a.getBoolean(R.styleable.AbstractTimerView_adaptiveTicking, false);
+		if (a.getBoolean(R.styleable.AbstractTimerView_backgroundTicking, false))
+		{
+			initBackgroundTicking();
+		}
 
 		int tickInterval = a.getInt(R.styleable.AbstractTimerView_tickInterval, DEFAULT_TICK_INTERVAL);
-		mTicker = sTickerFactory.createTicker(new TickerFactoryParameters(mOnTickListener, tickInterval));
+		mTicker = createTicker(tickInterval);
 
 		final int displayPrecision = a.getInt(R.styleable.AbstractTimerView_displayPrecision, DISPLAY_PRECISION_FIT_TICK_INTERVAL);
-		mMillisFormatter = sMillisFormatterFactory.createFormatter(new FormatterFactoryParameters(displayPrecision, tickInterval));
+		final String timeFormat = a.getString(R.styleable.AbstractTimerView_timeFormat);
+		mMillisFormatter = sMillisFormatterFactory.createFormatter(new FormatterFactoryParameters(displayPrecision, tickInterval, timeFormat));
 
 		a.recycle();
 	}
 
+	private void initBackgroundTicking()
+	{
+		mBackgroundTicking = true;
+
+		if (mUiHandler == null)
+		{
+			mUiHandler = new Handler();
+			mTextHandoff = new TextHandoff();
+			mOnTickOverridden = overridesOnTick(getClass());
+		}
+	}
+
+	private static boolean overridesOnTick(Class<?> viewClass)
+	{
+		for (Class<?> type = viewClass; type != AbstractTimerView.class; type = type.getSuperclass())
+		{
+			try
+			{
+				type.getDeclaredMethod("onTick");
+				return true;
+			}
+			catch (NoSuchMethodException ex)
+			{
+				//not overridden in this class
+			}
+		}
+
+		return false;
+	}
+
+	private Ticker createTicker(long tickInterval)
+	{
+		if (mBackgroundTicking)
+		{
+			//ticks hold the view lock, which guards all methods controlling the ticker
+			return new HandlerTicker(mOnTickListener, tickInterval, mStopWatch.getClock(), TimingThread.getLooper(), this);
+		}
+
+		return sTickerFactory.createTicker(new TickerFactoryParameters(mOnTickListener, tickInterval));
+	}
+
 	private void commonAbstractTimerViewInit()
 	{
 		//init state can be changed in child classes and cannot be run directly in constructors
@@ -172,17 +301,17 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 
 	//region Properties
 
-	public long getLastDisplayedMs()
+	public synchronized long getLastDisplayedMs()
 	{
 		return mLastDisplayedMs;
 	}
 
-	public long getTickInterval()
+	public synchronized long getTickInterval()
 	{
 		return mTicker.getTickInterval();
 	}
 
-	public void setTickInterval(long tickInterval)
+	public synchronized void setTickInterval(long tickInterval)
 	{
 		mTicker.setTickInterval(tickInterval);
 	}
@@ -200,11 +329,25 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 
 	/**
 	 * Gets how much milliseconds elapsed since view started counting.
+	 * <p/>
+	 * During tick returns the elapsed time of the tick, which is the displayed one, so listeners
+	 * see the same value regardless of when they ask. This holds also for tick callbacks of background ticking
+	 * delivered to the view thread.
 	 *
 	 * @return Time in millis for which the view was in running state.
 	 */
-	public long getElapsedMs()
+	public synchronized long getElapsedMs()
 	{
+		if (mTickElapsedMs != NO_TICK_ELAPSED)
+		{
+			return mTickElapsedMs;
+		}
+
+		if (mCallbackElapsedMs != NO_TICK_ELAPSED && !isOffViewThread())
+		{
+			return mCallbackElapsedMs;
+		}
+
 		return mStopWatch.getElapsedMs();
 	}
 
@@ -214,9 +357,10 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 	 * @param elapsedMs Not negative to which will be view set.
 	 * @throws java.lang.IllegalArgumentException If the value is negative.
 	 */
-	protected void setElapsedMs(long elapsedMs)
+	protected synchronized void setElapsedMs(long elapsedMs)
 	{
 		mStopWatch.setElapsedMs(elapsedMs);
+		clearTickSnapshots();
 
 		boolean tickerRunning = mTicker.isRunning();
 		if (tickerRunning)
@@ -230,6 +374,8 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 		{
 			mTicker.start();
 		}
+
+		onTimeStateChanged();
 	}
 
 	/**
@@ -248,7 +394,7 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 	 * @param millisFormatter New millis formatter to format millis.
 	 * @throws java.lang.IllegalArgumentException If the formatter is null.
 	 */
-	public void setMillisFormatter(IMillisFormatter millisFormatter)
+	public synchronized void setMillisFormatter(IMillisFormatter millisFormatter)
 	{
 		if (millisFormatter == null)
 		{
@@ -258,6 +404,22 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 		mMillisFormatter = millisFormatter;
 	}
 
+	/**
+	 * @return Count of text updates which changed displayed text and were passed to TextView.
+	 */
+	public long getAppliedTextUpdates()
+	{
+		return mAppliedTextUpdates;
+	}
+
+	/**
+	 * @return Count of text updates skipped because the formatted text was the same as displayed one.
+	 */
+	public long getSkippedTextUpdates()
+	{
+		return mSkippedTextUpdates;
+	}
+
 	public boolean isPauseTickingOnWindowDisappear()
 	{
 		return mPauseTickingOnWindowDisappear;
@@ -268,6 +430,100 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 		mPauseTickingOnWindowDisappear = pauseTickingOnWindowDisappear;
 	}
 
+	public boolean isAdaptiveTicking()
+	{
+		return mAdaptiveTicking;
+	}
+
+	/**
+	 * Sets adaptive ticking. With adaptive ticking the view ticks only when the displayed text changes,
+	 * the formatter must implement {@link com.jraska.time.format.IBoundaryAwareMillisFormatter},
+	 * otherwise ticks come in tick interval as usual. Tick callbacks are called only on those ticks.
+	 *
+	 * @param adaptiveTicking True to tick on display changes, false to tick in tick interval.
+	 */
+	public synchronized void setAdaptiveTicking(boolean adaptiveTicking)
+	{
+		if (mAdaptiveTicking == adaptiveTicking)
+		{
+			return;
+		}
+
+		mAdaptiveTicking = adaptiveTicking;
+
+		//pending tick was scheduled with previous mode
+		boolean tickerRunning = mTicker.isRunning();
+		if (tickerRunning)
+		{
+			mTicker.stop();
+			syncTickerToElapsed();
+			mTicker.start();
+		}
+	}
+
+	public synchronized boolean isBackgroundTicking()
+	{
+		return mBackgroundTicking;
+	}
+
+	/**
+	 * Sets background ticking. With background ticking the ticks and formatting run on shared
+	 * {@link com.jraska.time.utils.TimingThread} and the formatted text is handed to the view thread,
+	 * where the latest text wins. Tick callbacks and listeners ride on the handed text to the view thread, so only
+	 * the latest tick is delivered if the view thread is busy, getters called from them return values of that tick.
+	 * Finishing of count down is never dropped. Views without tick callbacks do not notify the view thread
+	 * except for text. Ticker factory is not used, background ticker is always
+	 * {@link com.jraska.time.utils.HandlerTicker}.
+	 * <p/>
+	 * Must be called from the thread of the view.
+	 *
+	 * @param backgroundTicking True to tick on timing thread, false to tick on the view thread.
+	 */
+	public synchronized void setBackgroundTicking(boolean backgroundTicking)
+	{
+		if (mBackgroundTicking == backgroundTicking)
+		{
+			return;
+		}
+
+		if (backgroundTicking)
+		{
+			initBackgroundTicking();
+		}
+		else
+		{
+			mBackgroundTicking = false;
+		}
+
+		//ticker of the previous mode is replaced
+		boolean tickerRunning = mTicker.isRunning();
+		mTicker.stop();
+
+		mTicker = createTicker(mTicker.getTickInterval());
+		if (tickerRunning)
+		{
+			syncTickerToElapsed();
+			mTicker.start();
+		}
+	}
+
+	public synchronized boolean isTickCallbacksOnTimingThread()
+	{
+		return mTickCallbacksOnTimingThread;
+	}
+
+	/**
+	 * Sets whether tick callbacks and listeners of background ticking are called directly on timing thread
+	 * instead of the view thread. They must not touch views then. Finishing of count down is delivered
+	 * to the view thread anyway, so it stops the view there.
+	 *
+	 * @param tickCallbacksOnTimingThread True to call tick callbacks on timing thread with background ticking.
+	 */
+	public synchronized void setTickCallbacksOnTimingThread(boolean tickCallbacksOnTimingThread)
+	{
+		mTickCallbacksOnTimingThread = tickCallbacksOnTimingThread;
+	}
+
 	Ticker getTicker()
 	{
 		return mTicker;
@@ -331,13 +587,13 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 		return mTickingPaused;
 	}
 
-	private void pauseTicker()
+	private synchronized void pauseTicker()
 	{
 		mTicker.stop();
 		mTickingPaused = true;
 	}
 
-	private void resumePausedTicker()
+	private synchronized void resumePausedTicker()
 	{
 		updateTextNow();
 		syncTickerToElapsed();
@@ -349,7 +605,7 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 
 	//region Methods
 
-	public final void start()
+	public synchronized final void start()
 	{
 		if (isRunning())
 		{
@@ -364,10 +620,11 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 		mTicker.start();
 		mStopWatch.start();
 
+		onTimeStateChanged();
 		onStart();
 	}
 
-	public final void stop()
+	public synchronized final void stop()
 	{
 		if (!isRunning())
 		{
@@ -380,11 +637,13 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 		mTicker.stop();
 
 		mStopWatch.stop();
+		clearTickSnapshots();
 
+		onTimeStateChanged();
 		onStop();
 	}
 
-	public final void reset()
+	public synchronized final void reset()
 	{
 		stop();
 
@@ -392,13 +651,14 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 
 		mStopWatch.reset();
 		mTicker.reset();
+		clearTickSnapshots();
 
 		setTextToInitState();
 
 		onReset();
 	}
 
-	public final void restart()
+	public synchronized final void restart()
 	{
 		stop();
 		reset();
@@ -410,23 +670,411 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 
 	protected synchronized final void updateText(long millis)
 	{
-		final String timeString = mMillisFormatter.formatElapsedTime(millis);
+		final IMillisFormatter formatter = mMillisFormatter;
 
 		mLastDisplayedMs = millis;
 
-		setText(timeString);
+		if (isOffViewThread())
+		{
+			writeTextFrame(formatter, millis);
+			if (!mPublishingTick)
+			{
+				publishTextFrame(0);
+			}
+
+			return;
+		}
+
+		if (mTextHandoff != null)
+		{
+			//text published before is older than this one, its callbacks are delivered by already posted runnable
+			TextHandoff.Frame published = mTextHandoff.take();
+			if (published != null)
+			{
+				takeTickCallbacks(published);
+				mTextHandoff.recycle(published);
+			}
+		}
+
+		//char formatters write directly to reused buffer so no garbage is created on tick
+		if (formatter instanceof ICharMillisFormatter)
+		{
+			final char[] newText = mScratchTextBuffer;
+			final int length = ((ICharMillisFormatter) formatter).formatElapsedTime(millis, newText, 0);
+
+			if (isTextDisplayed(newText, length))
+			{
+				mSkippedTextUpdates++;
+				return;
+			}
+
+			mScratchTextBuffer = mTextBuffer;
+			mTextBuffer = newText;
+
+			applyCharText(newText, length);
+		}
+		else
+		{
+			final String timeString = formatter.formatElapsedTime(millis);
+
+			if (getText() == mDisplayedText && timeString.contentEquals(mDisplayedText))
+			{
+				mSkippedTextUpdates++;
+				return;
+			}
+
+			mTextLength = -1;
+			mDisplayedChars = null;
+
+			setText(timeString);
+
+			mDisplayedText = getText();
+			mAppliedTextUpdates++;
+		}
+
+		recycleDisplayedFrame(null);
+	}
+
+	/**
+	 * Formats text on timing thread to handoff frame, which is published later.
+	 */
+	private void writeTextFrame(IMillisFormatter formatter, long millis)
+	{
+		final TextHandoff.Frame frame;
+		final int length;
+		if (formatter instanceof ICharMillisFormatter)
+		{
+			frame = mTextHandoff.obtainFrame(ICharMillisFormatter.MAX_FORMATTED_LENGTH);
+			length = ((ICharMillisFormatter) formatter).formatElapsedTime(millis, frame.getChars(), 0);
+		}
+		else
+		{
+			final String timeString = formatter.formatElapsedTime(millis);
+			length = timeString.length();
+
+			frame = mTextHandoff.obtainFrame(length);
+			timeString.getChars(0, length, frame.getChars(), 0);
+		}
+
+		mWrittenTextLength = length;
+		mWrittenTextMs = millis;
+	}
+
+	/**
+	 * Publishes written frame and notifies view thread if it has not pending text yet.
+	 */
+	private void publishTextFrame(int callbackFlags)
+	{
+		final int length = mWrittenTextLength;
+		mWrittenTextLength = -1;
+
+		if (mTextHandoff.publish(length, mWrittenTextMs, callbackFlags))
+		{
+			mUiHandler.post(mApplyPublishedTextRunnable);
+		}
+	}
+
+	private void publishTick()
+	{
+		final int callbackFlags = mTickCallbackFlags;
+		mTickCallbackFlags = 0;
+
+		if (mWrittenTextLength < 0)
+		{
+			if (callbackFlags == 0)
+			{
+				return;
+			}
+
+			//callbacks ride on text frame, tick without text update carries the displayed text again
+			writeTextFrame(mMillisFormatter, mLastDisplayedMs);
+		}
+
+		publishTextFrame(callbackFlags);
+	}
+
+	private void applyPublishedText()
+	{
+		final TextHandoff.Frame frame = mTextHandoff.take();
+		if (frame != null)
+		{
+			takeTickCallbacks(frame);
+			applyTextFrame(frame);
+		}
+
+		deliverPendingTickCallbacks();
+	}
+
+	private void applyTextFrame(TextHandoff.Frame frame)
+	{
+		if (isTextDisplayed(frame.getChars(), frame.getLength()))
+		{
+			mSkippedTextUpdates++;
+			mTextHandoff.recycle(frame);
+			return;
+		}
+
+		applyCharText(frame.getChars(), frame.getLength());
+		recycleDisplayedFrame(frame);
+	}
+
+	private void takeTickCallbacks(TextHandoff.Frame frame)
+	{
+		if (frame.getFlags() != 0)
+		{
+			mPendingCallbackFlags |= frame.getFlags();
+			mPendingCallbackMs = frame.getMillis();
+		}
+	}
+
+	private void deliverPendingTickCallbacks()
+	{
+		final int callbackFlags = mPendingCallbackFlags;
+		if (callbackFlags == 0)
+		{
+			return;
+		}
+
+		mPendingCallbackFlags = 0;
+		final long displayedMs = mPendingCallbackMs;
+
+		setCallbackElapsedMs(displayedToElapsedMs(displayedMs));
+		try
+		{
+			deliverTickCallbacks(displayedMs, callbackFlags);
+		}
+		finally
+		{
+			setCallbackElapsedMs(NO_TICK_ELAPSED);
+		}
+	}
+
+	private synchronized void setCallbackElapsedMs(long elapsedMs)
+	{
+		mCallbackElapsedMs = elapsedMs;
+	}
+
+	private void clearTickSnapshots()
+	{
+		mTickElapsedMs = NO_TICK_ELAPSED;
+		mCallbackElapsedMs = NO_TICK_ELAPSED;
+	}
+
+	private void applyCharText(char[] text, int length)
+	{
+		mDisplayedChars = text;
+		mTextLength = length;
+
+		setText(text, 0, length);
+
+		mDisplayedText = getText();
+		mAppliedTextUpdates++;
 	}
 
-	private void doTick()
+	private void recycleDisplayedFrame(TextHandoff.Frame newDisplayedFrame)
 	{
-		onTickInternal();
-		onTick();
+		//frame can be reused only after TextView does not display it
+		if (mDisplayedFrame != null)
+		{
+			mTextHandoff.recycle(mDisplayedFrame);
+		}
+
+		mDisplayedFrame = newDisplayedFrame;
 	}
 
+	private boolean isTextDisplayed(char[] newText, int length)
+	{
+		if (length != mTextLength || getText() != mDisplayedText)
+		{
+			return false;
+		}
+
+		final char[] displayed = mDisplayedChars;
+		for (int i = 0; i < length; i++)
+		{
+			if (displayed[i] != newText[i])
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Counts elapsed time of the tick from the ticker tick time, so the clock is not read again.
+	 * Tick time of other clock than the StopWatch one is converted by its age.
+	 *
+	 * @return Elapsed ms at time of tick.
+	 */
+	private long countTickElapsedMs()
+	{
+		long tickTime = mTicker.getTickTime();
+		IClock tickClock = mTicker.getTickClock();
+		if (tickTime == Ticker.NO_TICK_TIME || tickClock == null)
+		{
+			return mStopWatch.getElapsedMs();
+		}
+
+		long elapsed;
+		if (tickClock == mStopWatch.getClock())
+		{
+			elapsed = mStopWatch.getElapsedMs(tickTime);
+		}
+		else
+		{
+			elapsed = mStopWatch.getElapsedMs() - Math.max(tickClock.getTimeMs() - tickTime, 0);
+		}
+
+		return Math.max(elapsed, 0);
+	}
+
+	synchronized void doTick()
+	{
+		//elapsed time is read once, text, listeners and next tick scheduling use this snapshot
+		mTickElapsedMs = countTickElapsedMs();
+		mPublishingTick = isOffViewThread();
+		try
+		{
+			onTickInternal();
+
+			if (mAdaptiveTicking && mTicker.isRunning())
+			{
+				scheduleAdaptiveTick();
+			}
+
+			if (mPublishingTick)
+			{
+				publishTick();
+			}
+		}
+		finally
+		{
+			mPublishingTick = false;
+			mTickCallbackFlags = 0;
+			mTickElapsedMs = NO_TICK_ELAPSED;
+		}
+	}
+
+	/**
+	 * Updates text of the tick and notifies its callbacks through {@link #notifyTick(long, boolean)}.
+	 */
 	void onTickInternal()
+	{
+		notifyTick(getElapsedMs(), false);
+	}
+
+	/**
+	 * Calls tick callbacks on the view thread. Background tick hands them to the view thread with its text,
+	 * only if there is any callback to call or the view finishes.
+	 *
+	 * @param displayedMs Value displayed by the tick.
+	 * @param finishing   True if the view finishes at this tick.
+	 */
+	final void notifyTick(long displayedMs, boolean finishing)
+	{
+		final int finishFlag = finishing ? FINISH_CALLBACK_FLAG : 0;
+		if (!isOffViewThread())
+		{
+			deliverTickCallbacks(displayedMs, TICK_CALLBACKS_FLAG | finishFlag);
+			return;
+		}
+
+		if (mTickCallbacksOnTimingThread)
+		{
+			deliverTickCallbacks(displayedMs, TICK_CALLBACKS_FLAG);
+			mTickCallbackFlags |= finishFlag;
+		}
+		else if (hasTickCallbacks())
+		{
+			mTickCallbackFlags |= TICK_CALLBACKS_FLAG | finishFlag;
+		}
+		else
+		{
+			mTickCallbackFlags |= finishFlag;
+		}
+	}
+
+	private void deliverTickCallbacks(long displayedMs, int callbackFlags)
+	{
+		final boolean tick = (callbackFlags & TICK_CALLBACKS_FLAG) != 0;
+		if (tick)
+		{
+			onTickCallbacks(displayedMs);
+		}
+
+		if ((callbackFlags & FINISH_CALLBACK_FLAG) != 0)
+		{
+			onFinishing();
+		}
+
+		if (tick)
+		{
+			onTick();
+		}
+	}
+
+	/**
+	 * @return True if there is a tick callback to call, tick callbacks of background ticking are skipped otherwise.
+	 */
+	boolean hasTickCallbacks()
+	{
+		return mOnTickOverridden;
+	}
+
+	/**
+	 * Notifies listeners of the tick.
+	 */
+	void onTickCallbacks(long displayedMs)
 	{
 	}
 
+	/**
+	 * Called on the view thread after tick callbacks of the tick at which the view finishes.
+	 */
+	void onFinishing()
+	{
+	}
+
+	/**
+	 * Converts value displayed by tick to elapsed time of the tick.
+	 */
+	long displayedToElapsedMs(long displayedMs)
+	{
+		return displayedMs;
+	}
+
+	/**
+	 * Called when the view starts or stops or its elapsed time is set. Pausing of ticking does not call it.
+	 */
+	void onTimeStateChanged()
+	{
+	}
+
+	/**
+	 * @return Clock measuring time of this view.
+	 */
+	final IClock getViewClock()
+	{
+		return mStopWatch.getClock();
+	}
+
+	/**
+	 * @return True if called from other thread than the view thread with background ticking, e.g. during tick.
+	 */
+	final synchronized boolean isOffViewThread()
+	{
+		return mBackgroundTicking && Looper.myLooper() != mUiHandler.getLooper();
+	}
+
+	/**
+	 * Posts the runnable to the view thread. Available only with background ticking.
+	 */
+	final void postToViewThread(Runnable runnable)
+	{
+		mUiHandler.post(runnable);
+	}
+
 	//region State callback methods to override
 
 	protected void onTick()
@@ -467,17 +1115,57 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 	{
 		long interval = mTicker.getTickInterval();
 		long remainingToNextTick = mTicker.getRemainingToNextTick();
-		long elapsed = mStopWatch.getElapsedMs();
-		long toNextIntervalPeriod = interval - (elapsed % interval);
+		long elapsed = getElapsedMs();
 
-		return toNextIntervalPeriod - remainingToNextTick;
+		return Ticker.countSyncTickMove(interval, remainingToNextTick, elapsed);
 	}
 
 	private void syncTickerToElapsed()
 	{
+		if (mAdaptiveTicking && scheduleAdaptiveTick())
+		{
+			return;
+		}
+
 		mTicker.setNextTickMove(countSyncTickerMove());
 	}
 
+	/**
+	 * Schedules next tick to the next change of displayed text.
+	 *
+	 * @return True if the tick was scheduled, false if formatter cannot tell the change.
+	 */
+	private boolean scheduleAdaptiveTick()
+	{
+		if (!(mMillisFormatter instanceof IBoundaryAwareMillisFormatter))
+		{
+			return false;
+		}
+
+		long elapsed = getElapsedMs();
+		long changeElapsed = countNextDisplayChangeElapsed((IBoundaryAwareMillisFormatter) mMillisFormatter, elapsed);
+		if (changeElapsed == IBoundaryAwareMillisFormatter.NO_NEXT_CHANGE)
+		{
+			return false;
+		}
+
+		mTicker.setNextTickDelay(Math.max(changeElapsed - elapsed, 1));
+		return true;
+	}
+
+	/**
+	 * Counts elapsed time at which the displayed text changes. Views displaying other value than elapsed time
+	 * must convert it.
+	 *
+	 * @param formatter Current formatter.
+	 * @param elapsedMs Current elapsed time.
+	 * @return Elapsed time of next text change.
+	 */
+	long countNextDisplayChangeElapsed(IBoundaryAwareMillisFormatter formatter, long elapsedMs)
+	{
+		return formatter.nextDisplayChange(elapsedMs);
+	}
+
 	//endregion
 
 	//region Abstract methods
@@ -532,11 +1220,21 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 	{
 		private final int mDisplayPrecisionValue;
 		private final long mTickInterval;
+		private final String mTimeFormat;
 
 		public FormatterFactoryParameters(int displayPrecisionValue, long tickInterval)
+		{
+			this(displayPrecisionValue, tickInterval, null);
+		}
+
+		/**
+		 * @param timeFormat Pattern of {@link com.jraska.time.format.PatternMillisFormatter}, if not null it takes precedence over display precision.
+		 */
+		public FormatterFactoryParameters(int displayPrecisionValue, long tickInterval, String timeFormat)
 		{
 			mDisplayPrecisionValue = displayPrecisionValue;
 			mTickInterval = tickInterval;
+			mTimeFormat = timeFormat;
 		}
 
 		public int getDisplayPrecisionValue()
@@ -548,40 +1246,164 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 		{
 			return mTickInterval;
 		}
+
+		public String getTimeFormat()
+		{
+			return mTimeFormat;
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (this == o)
+			{
+				return true;
+			}
+
+			if (o == null || getClass() != o.getClass())
+			{
+				return false;
+			}
+
+			FormatterFactoryParameters that = (FormatterFactoryParameters) o;
+
+			return mDisplayPrecisionValue == that.mDisplayPrecisionValue
+					&& mTickInterval == that.mTickInterval
+					&& (mTimeFormat == null ? that.mTimeFormat == null : mTimeFormat.equals(that.mTimeFormat));
+		}
+
+		@Override
+		public int hashCode()
+		{
+			int result = mDisplayPrecisionValue;
+			result = 31 * result + (int) (mTickInterval ^ (mTickInterval >>> 32));
+			result = 31 * result + (mTimeFormat != null ? mTimeFormat.hashCode() : 0);
+			return result;
+		}
 	}
 
+	/**
+	 * Factory creating frame driven {@link com.jraska.time.utils.ChoreographerTicker} for intervals shorter than frame
+	 * where available, {@link com.jraska.time.utils.HandlerTicker} otherwise.
+	 */
 	public static class DefaultTickerFactory implements ITickerFactory
 	{
 		@Override
 		public Ticker createTicker(TickerFactoryParameters parameters)
 		{
+			if (isFrameTickingPreferred(parameters.mTickInterval))
+			{
+				return new ChoreographerTicker(parameters.mTickListener, parameters.mTickInterval);
+			}
+
 			return new HandlerTicker(parameters.mTickListener, parameters.mTickInterval);
 		}
+
+		public static boolean isFrameTickingPreferred(long tickInterval)
+		{
+			return tickInterval < ChoreographerTicker.FRAME_INTERVAL && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN;
+		}
+	}
+
+	/**
+	 * Factory creating tickers which share one {@link com.jraska.time.utils.SharedTickLoop} per looper thread.
+	 * Many running views then tick from one Handler message instead of each view having own messages.
+	 */
+	public static class SharedTickerFactory implements ITickerFactory
+	{
+		public static final long DEFAULT_COALESCING_WINDOW = 10;
+
+		private final long mCoalescingWindow;
+		private final ThreadLocal<SharedTickLoop> mLoops = new ThreadLocal<SharedTickLoop>();
+
+		public SharedTickerFactory()
+		{
+			this(DEFAULT_COALESCING_WINDOW);
+		}
+
+		/**
+		 * @param coalescingWindow Ms which can ticks come late to tick together with others, zero ticks only exactly due tickers together.
+		 * @throws java.lang.IllegalArgumentException If the window is negative.
+		 */
+		public SharedTickerFactory(long coalescingWindow)
+		{
+			if (coalescingWindow < 0)
+			{
+				throw new IllegalArgumentException("coalescingWindow cannot be negative");
+			}
+
+			mCoalescingWindow = coalescingWindow;
+		}
+
+		@Override
+		public Ticker createTicker(TickerFactoryParameters parameters)
+		{
+			return new SharedTicker(getLoop(), parameters.mTickListener, parameters.mTickInterval);
+		}
+
+		/**
+		 * @return Loop of current looper thread, ticking by the {@link #getClock() timer views clock}.
+		 */
+		public SharedTickLoop getLoop()
+		{
+			SharedTickLoop loop = mLoops.get();
+			if (loop == null || loop.getClock() != getClock())
+			{
+				loop = new SharedTickLoop(getClock(), mCoalescingWindow);
+				mLoops.set(loop);
+			}
+
+			return loop;
+		}
 	}
 
+	/**
+	 * Factory returning shared formatter for each distinct parameters. Built-in formatters hold no per call state,
+	 * so views with the same configuration use single formatter instance and write to their own buffers.
+	 */
 	public static class DefaultMillisFormatterFactory implements IMillisFormatterFactory
 	{
+		private final Map<FormatterFactoryParameters, IMillisFormatter> mFormatterCache = new HashMap<FormatterFactoryParameters, IMillisFormatter>();
+
 		@Override
 		public IMillisFormatter createFormatter(FormatterFactoryParameters parameters)
 		{
-			IMillisFormatter coreFormatter = resolvePrecisionFormatter(parameters);
-			return RoundingMillisDecoratorFormatter.decorateWithRounding(coreFormatter, parameters.getTickInterval());
+			synchronized (mFormatterCache)
+			{
+				IMillisFormatter formatter = mFormatterCache.get(parameters);
+				if (formatter == null)
+				{
+					IMillisFormatter coreFormatter = resolvePrecisionFormatter(parameters);
+					formatter = RoundingMillisDecoratorFormatter.decorateWithRounding(coreFormatter, parameters.getTickInterval());
+
+					mFormatterCache.put(parameters, formatter);
+				}
+
+				return formatter;
+			}
 		}
 
 		public static IMillisFormatter resolvePrecisionFormatter(FormatterFactoryParameters parameters)
 		{
+			if (parameters.mTimeFormat != null)
+			{
+				return new PatternMillisFormatter(parameters.mTimeFormat);
+			}
+
 			switch (parameters.mDisplayPrecisionValue)
 			{
 				case DISPLAY_PRECISION_FIT_TICK_INTERVAL:
 					return resolveTickIntervalFitFormatter(parameters.mTickInterval);
 				case DISPLAY_PRECISION_SECONDS:
+					return new FastSecondsFormatter();
+				case DISPLAY_PRECISION_LOCALIZED_SECONDS:
 					return new DateUtilsMillisFormatter();
 				case DISPLAY_PRECISION_TENTHS:
-					return new FastSplitSecondFormatter(SecondFractionDisplay.Tenth);
+					return new TableSplitSecondFormatter(SecondFractionDisplay.Tenth);
 				case DISPLAY_PRECISION_HUNDREDTHS:
-					return new FastSplitSecondFormatter(SecondFractionDisplay.Hundredth);
+					return new TableSplitSecondFormatter(SecondFractionDisplay.Hundredth);
 				case DISPLAY_PRECISION_MILLIS:
-					return new FastSplitSecondFormatter(SecondFractionDisplay.Millis);
+					return new TableSplitSecondFormatter(SecondFractionDisplay.Millis);
 
 				default:
 					throw new IllegalArgumentException();
@@ -592,20 +1414,20 @@ public abstract class AbstractTimerView extends TextView implements IStartStop
 		{
 			if (tickInterval < 10)
 			{
-				return new FastSplitSecondFormatter(SecondFractionDisplay.Millis);
+				return new TableSplitSecondFormatter(SecondFractionDisplay.Millis);
 			}
 
 			if (tickInterval < 100)
 			{
-				return new FastSplitSecondFormatter(SecondFractionDisplay.Hundredth);
+				return new TableSplitSecondFormatter(SecondFractionDisplay.Hundredth);
 			}
 
 			if (tickInterval < 1000)
 			{
-				return new FastSplitSecondFormatter(SecondFractionDisplay.Tenth);
+				return new TableSplitSecondFormatter(SecondFractionDisplay.Tenth);
 			}
 
-			return new DateUtilsMillisFormatter();
+			return new FastSecondsFormatter();
 		}
 	}
 
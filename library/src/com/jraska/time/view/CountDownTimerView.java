@@ -20,9 +20,19 @@ import android.content.Context;
 import android.content.res.TypedArray;
 import android.util.AttributeSet;
 import com.jraska.time.R;
+import com.jraska.time.common.IClock;
+import com.jraska.time.format.IBoundaryAwareMillisFormatter;
+import com.jraska.time.utils.DeadlineScheduler;
+import com.jraska.time.utils.Ticker;
+import com.jraska.time.utils.TimingWheel;
 
 /**
  * View displaying count down time with updates in specified interval.
+ * <p/>
+ * Finish of countdown is tracked as deadline of {@link com.jraska.time.utils.DeadlineScheduler} shared by all
+ * countdowns of the thread. Finish comes exactly at the end of countdown, independently on display ticks,
+ * so also when the ticking is paused on window disappear. The scheduler is used only on the view thread,
+ * changes made on timing thread with background ticking update the deadline through the view thread.
  *
  * @see com.jraska.time.format.IMillisFormatter and its implementation to see how to customize display text.
  */
@@ -34,10 +44,36 @@ public class CountDownTimerView extends AbstractTimerView
 
 	//endregion
 
+	//region Static fields
+
+	private static final ThreadLocal<DeadlineSchedulerEntry> sDeadlineSchedulers = new ThreadLocal<DeadlineSchedulerEntry>();
+
+	//endregion
+
 	//region Fields
 
 	private long mCountDownTime;
 	private OnCountDownListener mOnCountDownListener;
+	private boolean mFinishing; //tick reached zero and finish is not delivered yet
+
+	private DeadlineScheduler mDeadlineScheduler; //scheduler holding finish timeout, accessed on the view thread
+	private final TimingWheel.Timeout mFinishTimeout = new TimingWheel.Timeout(new TimingWheel.OnExpiredListener()
+	{
+		@Override
+		public void onExpired(TimingWheel.Timeout timeout)
+		{
+			onFinishDeadline();
+		}
+	});
+
+	private final Runnable mUpdateFinishDeadlineRunnable = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			updateFinishDeadline();
+		}
+	};
 
 	//endregion
 
@@ -140,7 +176,8 @@ public class CountDownTimerView extends AbstractTimerView
 	@Override
 	public void updateTextNow()
 	{
-		long remaining = mCountDownTime - getElapsedMs();
+		//elapsed time can be set over the count down time while stopped
+		long remaining = Math.max(mCountDownTime - getElapsedMs(), 0);
 		updateRemainingTime(remaining);
 	}
 
@@ -156,31 +193,143 @@ public class CountDownTimerView extends AbstractTimerView
 			remaining = 0;
 		}
 
+		//background ticks can come before the finish is delivered to the view thread
+		if (mFinishing)
+		{
+			return;
+		}
+
 		updateRemainingTime(remaining);
+
+		boolean finishing = remaining == 0;
+		mFinishing = finishing;
+
+		notifyTick(remaining, finishing);
+	}
+
+	@Override
+	boolean hasTickCallbacks()
+	{
+		return mOnCountDownListener != null || super.hasTickCallbacks();
+	}
+
+	@Override
+	void onTickCallbacks(long remaining)
+	{
 		notifyCountDown(remaining);
+	}
 
-		//finish is called after update text to have consistent state on finish event
-		if (remaining == 0)
+	@Override
+	void onFinishing()
+	{
+		//view is stopped on its thread and finish is called after update text to have consistent state on finish event
+		synchronized (this)
 		{
-			finish();
+			if (!mFinishing)
+			{
+				return;
+			}
+
+			stop();
 		}
+
+		notifyFinished();
 	}
 
-	private void updateRemainingTime(long remaining)
+	@Override
+	long displayedToElapsedMs(long remaining)
 	{
-		updateText(remaining);
+		return mCountDownTime - remaining;
 	}
 
-	private void finish()
+	@Override
+	long countNextDisplayChangeElapsed(IBoundaryAwareMillisFormatter formatter, long elapsedMs)
 	{
-		stop();
-		notifyFinished();
+		//displayed remaining time counts down, tick at zero is always needed to finish
+		long previousChange = formatter.previousDisplayChange(mCountDownTime - elapsedMs);
+
+		return mCountDownTime - Math.max(previousChange, 0);
+	}
+
+	@Override
+	void onTimeStateChanged()
+	{
+		//finish of the previous run is not delivered after start, stop or elapsed time change
+		mFinishing = false;
+
+		//scheduler is bound to the view thread, the posted update reads the state current then
+		if (isOffViewThread())
+		{
+			postToViewThread(mUpdateFinishDeadlineRunnable);
+			return;
+		}
+
+		updateFinishDeadline();
+	}
+
+	private void updateRemainingTime(long remaining)
+	{
+		updateText(remaining);
 	}
 
 	//endregion
 
 	//region Methods
 
+	private synchronized void updateFinishDeadline()
+	{
+		if (!isRunning())
+		{
+			if (mDeadlineScheduler != null)
+			{
+				mDeadlineScheduler.cancel(mFinishTimeout);
+			}
+
+			return;
+		}
+
+		//scheduler is replaced when ticker factory or clock change
+		DeadlineScheduler scheduler = obtainDeadlineScheduler(getViewClock());
+		if (mDeadlineScheduler != scheduler && mDeadlineScheduler != null)
+		{
+			mDeadlineScheduler.cancel(mFinishTimeout);
+		}
+
+		mDeadlineScheduler = scheduler;
+
+		long deadline = getViewClock().getTimeMs() + getRemainingMs();
+		scheduler.schedule(mFinishTimeout, deadline);
+	}
+
+	private void onFinishDeadline()
+	{
+		//tick at deadline displays zero and finishes
+		if (isRunning())
+		{
+			doTick();
+		}
+	}
+
+	private static DeadlineScheduler obtainDeadlineScheduler(IClock clock)
+	{
+		ITickerFactory tickerFactory = getTickerFactory();
+
+		DeadlineSchedulerEntry entry = sDeadlineSchedulers.get();
+		if (entry == null || entry.mTickerFactory != tickerFactory || entry.mScheduler.getClock() != clock)
+		{
+			if (entry != null)
+			{
+				//deadlines of replaced scheduler would keep their views and tick them from the stale ticker
+				entry.mScheduler.reset();
+			}
+
+			entry = new DeadlineSchedulerEntry(tickerFactory, clock);
+			sDeadlineSchedulers.set(entry);
+		}
+
+		return entry.mScheduler;
+	}
+
 	private void notifyCountDown(long remaining)
 	{
 		if (mOnCountDownListener != null)
@@ -209,6 +358,31 @@ public class CountDownTimerView extends AbstractTimerView
 
 	//endregion
 
+	//region Nested classes
+
+	private static final class DeadlineSchedulerEntry implements Ticker.OnTickListener
+	{
+		private final ITickerFactory mTickerFactory;
+		private final DeadlineScheduler mScheduler;
+
+		DeadlineSchedulerEntry(ITickerFactory tickerFactory, IClock clock)
+		{
+			mTickerFactory = tickerFactory;
+
+			//scheduler replaces the listener and delays each tick to next deadline, interval does not matter
+			Ticker ticker = tickerFactory.createTicker(new TickerFactoryParameters(this, Ticker.DEFAULT_TICK_INTERVAL));
+			mScheduler = new DeadlineScheduler(ticker, clock);
+			mScheduler.start();
+		}
+
+		@Override
+		public void onTick(Ticker ticker)
+		{
+		}
+	}
+
+	//endregion
+
 	//region Inner interface
 
 	public interface OnCountDownListener
@@ -99,6 +99,18 @@ public class TimerView extends AbstractTimerView implements IStartStop
 		long elapsedMs = getElapsedMs();
 
 		updateElapsedTime(elapsedMs);
+		notifyTick(elapsedMs, false);
+	}
+
+	@Override
+	final boolean hasTickCallbacks()
+	{
+		return mOnTimerTickListener != null || super.hasTickCallbacks();
+	}
+
+	@Override
+	final void onTickCallbacks(long elapsedMs)
+	{
 		notifyListener(elapsedMs);
 	}
 
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.format;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class FastSecondsFormatterTest extends TestCase
+{
+	//region Test methods
+
+	public void testSameAsDateUtils() throws Exception
+	{
+		FastSecondsFormatter formatter = new FastSecondsFormatter();
+		DateUtilsMillisFormatter dateUtilsFormatter = new DateUtilsMillisFormatter();
+
+		Random random = new Random();
+		for (int i = 0; i < FastSplitSecondFormatterTest.TEST_ITERATIONS; i++)
+		{
+			long ms = Math.abs(random.nextInt());
+
+			assertEquals(dateUtilsFormatter.formatElapsedTime(ms), formatter.formatElapsedTime(ms));
+		}
+	}
+
+	public void testBoundaries() throws Exception
+	{
+		FastSecondsFormatter formatter = new FastSecondsFormatter();
+
+		assertEquals("00:00", formatter.formatElapsedTime(0));
+		assertEquals("00:00", formatter.formatElapsedTime(999));
+		assertEquals("59:59", formatter.formatElapsedTime(3599999));
+		assertEquals("1:00:00", formatter.formatElapsedTime(3600000));
+		assertEquals("100:00:01", formatter.formatElapsedTime(360001000));
+	}
+
+	public void testNegativeFormatsAsZero() throws Exception
+	{
+		FastSecondsFormatter formatter = new FastSecondsFormatter();
+
+		assertEquals("00:00", formatter.formatElapsedTime(-1));
+		assertEquals("00:00", formatter.formatElapsedTime(-1000));
+		assertEquals("00:00", formatter.formatElapsedTime(-3600000));
+		assertEquals("00:00", formatter.formatElapsedTime(Long.MIN_VALUE));
+
+		char[] buffer = new char[ICharMillisFormatter.MAX_FORMATTED_LENGTH];
+		int length = formatter.formatElapsedTime(-1000, buffer, 0);
+		assertEquals("00:00", new String(buffer, 0, length));
+	}
+
+	public void testCharBufferOutput() throws Exception
+	{
+		FastSplitSecondFormatterTest.runTestCharBuffer(new FastSecondsFormatter());
+	}
+
+	//endregion
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import com.jraska.time.common.StartStopTestPart;
+import junit.framework.TestCase;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ChoreographerTickerTest extends TestCase
+{
+	//region Constants
+
+	private static final long FRAME_TOLERANCE_MS = 2 * ChoreographerTicker.FRAME_INTERVAL;
+
+	//endregion
+
+	//region Fields
+
+	private ChoreographerTicker mTicker;
+	private Looper mTickerLooper;
+
+	//endregion
+
+	//region TestCase implementation
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		if (!isSupported())
+		{
+			return;
+		}
+
+		//latch for waiting to not start tests before thread setup is finished
+		final CountDownLatch workerThreadSetupLatch = new CountDownLatch(1);
+
+		Runnable workerRunnable = new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				Looper.prepare();
+
+				mTicker = new ChoreographerTicker(null, 5);
+				mTickerLooper = Looper.myLooper();
+
+				workerThreadSetupLatch.countDown();
+
+				Looper.loop();
+			}
+		};
+
+		Thread workerThread = new Thread(workerRunnable);
+		workerThread.start();
+
+		//wait for thread to setup
+		final boolean threadInitializedOk = workerThreadSetupLatch.await(500, TimeUnit.MILLISECONDS);
+		assertTrue("Worker thread for ChoreographerTicker test was not initialized in time.", threadInitializedOk);
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		if (mTickerLooper != null)
+		{
+			mTickerLooper.quit();
+		}
+	}
+
+	//endregion
+
+	//region Test methods
+
+	public void testStartStopState() throws Exception
+	{
+		if (!isSupported())
+		{
+			return;
+		}
+
+		runOnTickerLooper(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				StartStopTestPart.doAllStateTests(mTicker);
+			}
+		});
+	}
+
+	public void testAtMostOneTickPerFrame() throws Exception
+	{
+		if (!isSupported())
+		{
+			return;
+		}
+
+		final AtomicInteger tickCount = new AtomicInteger();
+		mTicker.setTickInterval(5);
+		mTicker.setOnTickListener(new Ticker.OnTickListener()
+		{
+			@Override
+			public void onTick(Ticker ticker)
+			{
+				tickCount.incrementAndGet();
+			}
+		});
+
+		long testDuration = 320;
+		startOnTickerLooper();
+		Thread.sleep(testDuration);
+		stopOnTickerLooper();
+
+		int maxFrames = (int) (testDuration / ChoreographerTicker.FRAME_INTERVAL) + 2;
+		assertTrue("Ticker ticked " + tickCount.get() + " times in " + maxFrames + " frames.", tickCount.get() <= maxFrames);
+		assertTrue("Ticker did not tick.", tickCount.get() > 0);
+	}
+
+	public void testLongIntervalTicks() throws Exception
+	{
+		if (!isSupported())
+		{
+			return;
+		}
+
+		final int ticks = 3;
+		final long tickInterval = 50;
+		final CountDownLatch countDownLatch = new CountDownLatch(ticks);
+		mTicker.setTickInterval(tickInterval);
+		mTicker.setOnTickListener(new Ticker.OnTickListener()
+		{
+			@Override
+			public void onTick(Ticker ticker)
+			{
+				countDownLatch.countDown();
+			}
+		});
+
+		long expectedDuration = ticks * tickInterval;
+		long start = SystemClock.uptimeMillis();
+		startOnTickerLooper();
+
+		boolean ticked = countDownLatch.await(expectedDuration + FRAME_TOLERANCE_MS, TimeUnit.MILLISECONDS);
+		long duration = SystemClock.uptimeMillis() - start;
+		stopOnTickerLooper();
+
+		assertTrue("Ticker did not tick " + ticks + " times in " + expectedDuration + " ms", ticked);
+		assertTrue("Ticker ticked too fast: " + duration + " ms", duration >= expectedDuration - 2);
+	}
+
+	//endregion
+
+	//region Methods
+
+	private static boolean isSupported()
+	{
+		return Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN;
+	}
+
+	private void startOnTickerLooper() throws InterruptedException
+	{
+		runOnTickerLooper(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				mTicker.reset();
+				mTicker.start();
+			}
+		});
+	}
+
+	private void stopOnTickerLooper() throws InterruptedException
+	{
+		runOnTickerLooper(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				mTicker.stop();
+			}
+		});
+	}
+
+	private void runOnTickerLooper(final Runnable runnable) throws InterruptedException
+	{
+		final CountDownLatch doneLatch = new CountDownLatch(1);
+		new Handler(mTickerLooper).post(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				runnable.run();
+				doneLatch.countDown();
+			}
+		});
+
+		assertTrue(doneLatch.await(500, TimeUnit.MILLISECONDS));
+	}
+
+	//endregion
+}
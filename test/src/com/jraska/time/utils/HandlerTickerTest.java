@@ -18,8 +18,8 @@ package com.jraska.time.utils;
 
 import android.os.Handler;
 import android.os.Looper;
-import android.os.Message;
 import android.os.SystemClock;
+import com.jraska.time.common.IClock;
 import com.jraska.time.common.StartStopTestPart;
 import junit.framework.TestCase;
 
@@ -90,155 +90,130 @@ public class HandlerTickerTest extends TestCase
 		StartStopTestPart.doAllStateTests(mTicker);
 	}
 
-	public void testSingleTick() throws Exception
-	{
-		testTicks(1, DefaultTestTickIntervalMs);
-	}
-
 	public void testTenTicks() throws Exception
 	{
 		testTicks(10, DefaultTestTickIntervalMs);
 	}
 
-	public void testIntervalChanged() throws Exception
+	public void testLatencyHistogram() throws Exception
 	{
-		testTicks(2, 35);
-	}
+		TickLatencyHistogram aggregate = new TickLatencyHistogram();
+		TickLatencyHistogram histogram = new TickLatencyHistogram(aggregate);
+		mTicker.setLatencyHistogram(histogram);
 
-	public void testRuntimeIntervalChange() throws Exception
-	{
-		final int changeIntervalWhat = 14348;
-		Handler intervalChangeHandler = new Handler(mTickerLooper) //ticker looper is used to simulate ui thread serial message executing
+		//busy looper delays the first tick more than one interval
+		new Handler(mTickerLooper).postDelayed(new Runnable()
 		{
 			@Override
-			public void handleMessage(Message msg)
+			public void run()
 			{
-				switch (msg.what)
-				{
-					case changeIntervalWhat:
-						long newInterval = (Long) msg.obj;
-						mTicker.setTickInterval(newInterval);
-						break;
-				}
+				SystemClock.sleep(3 * DefaultTestTickIntervalMs);
 			}
-		};
+		}, 5);
 
-		final Message changeIntervalTo30Message = Message.obtain(intervalChangeHandler, changeIntervalWhat, 30L);
-		intervalChangeHandler.sendMessageDelayed(changeIntervalTo30Message, 5); //after five millis it will change delay to 30
+		final CountDownLatch countDownLatch = new CountDownLatch(5);
+		mTicker.setOnTickListener(new Ticker.OnTickListener()
+		{
+			@Override
+			public void onTick(Ticker ticker)
+			{
+				countDownLatch.countDown();
+			}
+		});
 
-		final Message changeIntervalTo10Message = Message.obtain(intervalChangeHandler, changeIntervalWhat, 10L);
-		intervalChangeHandler.sendMessageDelayed(changeIntervalTo10Message, 75); //will set 5 millis before next tick
+		mTicker.start();
+		assertTrue("Ticker did not tick.", countDownLatch.await(10 * DefaultTestTickIntervalMs, TimeUnit.MILLISECONDS));
+		mTicker.stop();
+		mTicker.setLatencyHistogram(null);
 
-		//expected behaviour is one tick with start value of 20 ms, two ticks with 30 and than two ticks with 10 ms interval
-		long totalExpectedDuration = 20 + 30 + 30 + 10 + 10;
-		testTicks(5, 20, totalExpectedDuration);
+		assertTrue(histogram.getTickCount() >= 5);
+		assertEquals(histogram.getTickCount(), aggregate.getTickCount());
+		assertTrue("Missed ticks were not counted.", histogram.getMissedTickCount() >= 1);
+		assertTrue("Max lateness was " + histogram.getMaxLatenessMs(), histogram.getMaxLatenessMs() >= DefaultTestTickIntervalMs);
+		assertEquals(histogram.getMaxLatenessMs(), histogram.getPercentileMs(100));
 	}
 
-	public void testTickTimeChangeOnPause() throws Exception
+	public void testMissedTicksCoalesced() throws Exception
 	{
-		final int changeIntervalWhat = 2334;
-		Handler intervalChangeHandler = new Handler(mTickerLooper) //ticker looper is used to simulate ui thread serial message executing
+		//busy looper for more intervals
+		new Handler(mTickerLooper).postDelayed(new Runnable()
 		{
 			@Override
-			public void handleMessage(Message msg)
+			public void run()
 			{
-				switch (msg.what)
-				{
-					case changeIntervalWhat:
-						mTicker.stop();
-						long newInterval = (Long) msg.obj;
-						mTicker.setTickInterval(newInterval);
-						mTicker.start();
-						break;
-				}
+				SystemClock.sleep(5 * DefaultTestTickIntervalMs);
 			}
-		};
+		}, 5);
 
-		final Message changeIntervalTo30Message = Message.obtain(intervalChangeHandler, changeIntervalWhat, 30L);
-		intervalChangeHandler.sendMessageDelayed(changeIntervalTo30Message, 5); //after five millis it will change delay to 30,
+		final CountDownLatch countDownLatch = new CountDownLatch(2);
+		mTicker.setOnTickListener(new Ticker.OnTickListener()
+		{
+			@Override
+			public void onTick(Ticker ticker)
+			{
+				countDownLatch.countDown();
+			}
+		});
 
-		final Message changeIntervalTo10Message = Message.obtain(intervalChangeHandler, changeIntervalWhat, 10L);
-		intervalChangeHandler.sendMessageDelayed(changeIntervalTo10Message, 75); //will set 5 millis before next tick
+		long start = SystemClock.elapsedRealtime();
+		mTicker.start();
+		assertTrue("Ticker did not tick.", countDownLatch.await(10 * DefaultTestTickIntervalMs, TimeUnit.MILLISECONDS));
+		long duration = SystemClock.elapsedRealtime() - start;
+		mTicker.stop();
 
-		//expected behaviour is 2 30 ms ticks than replaced with 10 ms ticks
-		long totalExpectedDuration = 30 + 30 + 10 + 10 + 10;
-		testTicks(5, 20, totalExpectedDuration);
+		//the late tick is followed by the next future one, not by burst of missed ones
+		assertTrue("Ticks did not wait for next boundary, came in " + duration + " ms", duration >= 6 * DefaultTestTickIntervalMs - TestTickIntervalToleranceMs);
+		assertTrue("Ticks were not skipped.", mTicker.getSkippedTickCount() >= 3);
 	}
 
-	public void testNextTickMove() throws Exception
+	public void testSleepGapReanchored() throws Exception
 	{
-		final int tickMoveId = 7890;
-		Handler moveNextTickHandler = new Handler(mTickerLooper) //ticker looper is used to simulate ui thread serial message executing
+		//ticker clock jumps ahead while uptime of Handler does not, as during deep sleep
+		final long[] sleepShift = new long[1];
+		final IClock sleepingClock = new IClock()
 		{
 			@Override
-			public void handleMessage(Message msg)
+			public long getTimeMs()
 			{
-				switch (msg.what)
-				{
-					case tickMoveId:
-						long moveMs = (Long) msg.obj;
-						mTicker.setNextTickMove(moveMs);
-						break;
-				}
+				return SystemClock.elapsedRealtime() + sleepShift[0];
 			}
 		};
 
-		final Message changeIntervalTo30Message = Message.obtain(moveNextTickHandler, tickMoveId, 10L);
-		moveNextTickHandler.sendMessageDelayed(changeIntervalTo30Message, 25); //will delay next tick by 10 ms,
-
-		final Message changeIntervalTo10Message = Message.obtain(moveNextTickHandler, tickMoveId, -10L);
-		moveNextTickHandler.sendMessageDelayed(changeIntervalTo10Message, 45); //will speed up next tick by 10 ms
-
-		//expected behaviour is one 20 ms tick, one 30 ms tick one 10 ms and one 20 ms tick again.
-		long totalExpectedDuration = 20 + 30 + 10 + 20;
-		testTicks(4, 20, totalExpectedDuration);
-	}
-
-	private String mRemainingTimeFailMessage;
-
-	public void testRemainingTimeCounting() throws Exception
-	{
-		final int checkRemainingToNextTickId = 2627727;
-		final int tolerance = 2;
-		Handler testHandler = new Handler(mTickerLooper)
+		final CountDownLatch countDownLatch = new CountDownLatch(4);
+		final Ticker.OnTickListener listener = new Ticker.OnTickListener()
 		{
 			@Override
-			public void handleMessage(Message msg)
+			public void onTick(Ticker ticker)
 			{
-				switch (msg.what)
+				countDownLatch.countDown();
+				if (countDownLatch.getCount() == 2)
 				{
-					case checkRemainingToNextTickId:
-						long remainingMs = mTicker.getRemainingToNextTick();
-
-						long expectedValue = (Long) msg.obj;
-						long lowerBorder = expectedValue - tolerance;
-						long upperBorder = expectedValue + tolerance;
-
-						if (lowerBorder > remainingMs || upperBorder < remainingMs)
-						{
-							mRemainingTimeFailMessage = String.format("Error checking remaining ms. Expected: %d but was: %d", expectedValue, remainingMs);
-						}
-
-						break;
+					sleepShift[0] += 1000;
 				}
 			}
 		};
 
-		final Message checkRemainingTime1 = Message.obtain(testHandler, checkRemainingToNextTickId, DefaultTestTickIntervalMs - 8);
-		testHandler.sendMessageDelayed(checkRemainingTime1, 8);
-
-		final Message checkRemainingTime2 = Message.obtain(testHandler, checkRemainingToNextTickId, DefaultTestTickIntervalMs - 15);
-		testHandler.sendMessageDelayed(checkRemainingTime2, 15);
-//
-		final Message checkRemainingTime3 = Message.obtain(testHandler, checkRemainingToNextTickId, 5L);
-		testHandler.sendMessageDelayed(checkRemainingTime3, 2 * DefaultTestTickIntervalMs - 5);
+		final HandlerTicker[] ticker = new HandlerTicker[1];
+		final CountDownLatch startedLatch = new CountDownLatch(1);
+		new Handler(mTickerLooper).post(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				ticker[0] = new HandlerTicker(listener, DefaultTestTickIntervalMs, sleepingClock);
+				ticker[0].start();
+				startedLatch.countDown();
+			}
+		});
+		assertTrue(startedLatch.await(500, TimeUnit.MILLISECONDS));
 
-		testTicks(2, DefaultTestTickIntervalMs);
+		long expectedDuration = 4 * DefaultTestTickIntervalMs;
+		boolean ticked = countDownLatch.await(expectedDuration + 10 * TestTickIntervalToleranceMs, TimeUnit.MILLISECONDS);
+		ticker[0].stop();
 
-		if (mRemainingTimeFailMessage != null)
-		{
-			fail(mRemainingTimeFailMessage);
-		}
+		assertTrue("Ticker did not continue after sleep gap.", ticked);
+		assertEquals(1, ticker[0].getClockGapCount());
+		assertTrue("Ticks missed in sleep were not skipped.", ticker[0].getSkippedTickCount() >= 1000 / DefaultTestTickIntervalMs - 1);
 	}
 
 	//endregion
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import com.jraska.time.common.StartStopTestPart;
+import junit.framework.TestCase;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class SharedTickerTest extends TestCase
+{
+	//region Constants
+
+	private static final long TICK_INTERVAL = 20;
+	private static final long COALESCING_WINDOW = 5;
+	private static final int TICKERS_COUNT = 10;
+	private static final int TICK_COUNT = 5;
+
+	//endregion
+
+	//region Fields
+
+	private SharedTickLoop mLoop;
+	private Looper mLoopLooper;
+
+	//endregion
+
+	//region TestCase implementation
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		//latch for waiting to not start tests before thread setup is finished
+		final CountDownLatch workerThreadSetupLatch = new CountDownLatch(1);
+
+		Runnable workerRunnable = new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				Looper.prepare();
+
+				mLoop = new SharedTickLoop(ElapsedRealtimeClock.INSTANCE, COALESCING_WINDOW);
+				mLoopLooper = Looper.myLooper();
+
+				workerThreadSetupLatch.countDown();
+
+				Looper.loop();
+			}
+		};
+
+		Thread workerThread = new Thread(workerRunnable);
+		workerThread.start();
+
+		//wait for thread to setup
+		final boolean threadInitializedOk = workerThreadSetupLatch.await(500, TimeUnit.MILLISECONDS);
+		assertTrue("Worker thread for SharedTicker test was not initialized in time.", threadInitializedOk);
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		mLoopLooper.quit();
+	}
+
+	//endregion
+
+	//region Test methods
+
+	public void testStartStopState() throws Exception
+	{
+		StartStopTestPart.doAllStateTests(new SharedTicker(mLoop, null, TICK_INTERVAL));
+	}
+
+	public void testTickersShareMessages() throws Exception
+	{
+		final CountDownLatch ticksLatch = new CountDownLatch(TICKERS_COUNT * TICK_COUNT);
+		final SharedTicker[] tickers = createTickers(ticksLatch);
+
+		runOnLoop(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				for (SharedTicker ticker : tickers)
+				{
+					ticker.start();
+				}
+			}
+		});
+
+		long expectedDuration = TICK_COUNT * TICK_INTERVAL + COALESCING_WINDOW;
+		assertTrue("Tickers did not tick in time.", ticksLatch.await(expectedDuration + 20, TimeUnit.MILLISECONDS));
+
+		stopOnLoop(tickers);
+
+		//tickers started together tick from the same messages
+		assertTrue("Loop dispatched " + mLoop.getDispatchCount() + " messages.", mLoop.getDispatchCount() <= TICK_COUNT + 1);
+		assertEquals(0, mLoop.getTickersCount());
+	}
+
+	public void testStopFromTickCallback() throws Exception
+	{
+		final CountDownLatch ticksLatch = new CountDownLatch((TICKERS_COUNT - 1) * TICK_COUNT);
+		final SharedTicker[] tickers = createTickers(ticksLatch);
+
+		//first ticker stops itself, which swaps other ticker to its place during dispatch
+		tickers[0].setOnTickListener(new Ticker.OnTickListener()
+		{
+			@Override
+			public void onTick(Ticker ticker)
+			{
+				ticker.stop();
+			}
+		});
+
+		runOnLoop(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				for (SharedTicker ticker : tickers)
+				{
+					ticker.start();
+				}
+			}
+		});
+
+		long expectedDuration = TICK_COUNT * TICK_INTERVAL + COALESCING_WINDOW;
+		assertTrue("Remaining tickers did not tick in time.", ticksLatch.await(expectedDuration + 20, TimeUnit.MILLISECONDS));
+		assertFalse(tickers[0].isRunning());
+
+		stopOnLoop(tickers);
+	}
+
+	public void testBatchSharesTickTime() throws Exception
+	{
+		final CountDownLatch ticksLatch = new CountDownLatch(TICKERS_COUNT);
+		final long[] tickTimes = new long[TICKERS_COUNT];
+		final SharedTicker[] tickers = createTickers(ticksLatch);
+
+		Ticker.OnTickListener listener = new Ticker.OnTickListener()
+		{
+			@Override
+			public void onTick(Ticker ticker)
+			{
+				int index = TICKERS_COUNT - (int) ticksLatch.getCount();
+				if (index < TICKERS_COUNT)
+				{
+					tickTimes[index] = ticker.getTickTime();
+				}
+
+				//clock moves during the batch, tick time must not
+				SystemClock.sleep(2);
+				ticksLatch.countDown();
+			}
+		};
+
+		for (SharedTicker ticker : tickers)
+		{
+			ticker.setOnTickListener(listener);
+		}
+
+		runOnLoop(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				for (SharedTicker ticker : tickers)
+				{
+					ticker.start();
+				}
+			}
+		});
+
+		long expectedDuration = TICK_INTERVAL + COALESCING_WINDOW + TICKERS_COUNT * 2;
+		assertTrue("Tickers did not tick in time.", ticksLatch.await(expectedDuration + 20, TimeUnit.MILLISECONDS));
+
+		stopOnLoop(tickers);
+
+		for (int i = 0; i < TICKERS_COUNT; i++)
+		{
+			assertEquals("Ticker " + i + " got other tick time.", tickTimes[0], tickTimes[i]);
+		}
+		assertTrue(tickTimes[0] != Ticker.NO_TICK_TIME);
+	}
+
+	//endregion
+
+	//region Methods
+
+	private SharedTicker[] createTickers(final CountDownLatch ticksLatch)
+	{
+		Ticker.OnTickListener listener = new Ticker.OnTickListener()
+		{
+			@Override
+			public void onTick(Ticker ticker)
+			{
+				ticksLatch.countDown();
+			}
+		};
+
+		SharedTicker[] tickers = new SharedTicker[TICKERS_COUNT];
+		for (int i = 0; i < TICKERS_COUNT; i++)
+		{
+			tickers[i] = new SharedTicker(mLoop, listener, TICK_INTERVAL);
+		}
+
+		return tickers;
+	}
+
+	private void stopOnLoop(final SharedTicker[] tickers) throws InterruptedException
+	{
+		runOnLoop(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				for (SharedTicker ticker : tickers)
+				{
+					ticker.stop();
+				}
+			}
+		});
+	}
+
+	private void runOnLoop(final Runnable runnable) throws InterruptedException
+	{
+		final CountDownLatch doneLatch = new CountDownLatch(1);
+		new Handler(mLoopLooper).post(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				runnable.run();
+				doneLatch.countDown();
+			}
+		});
+
+		assertTrue(doneLatch.await(500, TimeUnit.MILLISECONDS));
+	}
+
+	//endregion
+}
@@ -16,12 +16,17 @@
 
 package com.jraska.time.view;
 
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import com.jraska.time.common.StartStopTestPart;
 import com.jraska.time.demo.R;
+import com.jraska.time.utils.ElapsedRealtimeClock;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.List;
 import java.util.TimeZone;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -87,7 +92,7 @@ public class CountDownTimerViewTest extends TimerViewTestBase
 	}
 
 	private String mErrorMessage;
-	private boolean mFinishedCalled;
+	private int mFinishedCount;
 
 	public void testListener() throws Exception
 	{
@@ -95,47 +100,260 @@ public class CountDownTimerViewTest extends TimerViewTestBase
 		mTestCountDownTimerView.setTickInterval(tickInterval);
 		int tickCount = 3;
 
-		final CountDownLatch countDownLatch = new CountDownLatch(tickCount);
+		final List<Long> tickRemaining = new ArrayList<Long>();
 		mTestCountDownTimerView.setOnCountDownListener(new CountDownTimerView.OnCountDownListener()
 		{
 			@Override
 			public void onCountDownTick(CountDownTimerView countDownTimerView, long remainingMillis)
 			{
-				if (countDownLatch.getCount() == 0)
+				tickRemaining.add(remainingMillis);
+			}
+
+			@Override
+			public void onFinish(CountDownTimerView countDownTimerView)
+			{
+				if (tickRemaining.size() != 3)
 				{
-					mErrorMessage = "TimerView ticked too fast.";
+					mErrorMessage = "Finished called after " + tickRemaining.size() + " ticks.";
 				}
 
-				countDownLatch.countDown();
+				mFinishedCount++;
 			}
+		});
+
+		long countDownTime = (tickCount * tickInterval);
+		mTestCountDownTimerView.setCountDownTime(countDownTime);
+
+		mTestCountDownTimerView.restart();
+		getScheduler().advanceBy(countDownTime + 5 * tickInterval);
+
+		assertEquals(Arrays.asList(40L, 20L, 0L), tickRemaining);
+
+		if (mErrorMessage != null)
+		{
+			fail(mErrorMessage);
+		}
 
+		assertEquals("Finished was not called once.", 1, mFinishedCount);
+		assertFalse(mTestCountDownTimerView.isRunning());
+	}
+
+	public void testTenHoursCountDown() throws Exception
+	{
+		final long tickInterval = 1000;
+		final long countDownTime = 10 * 60 * 60 * 1000;
+		mTestCountDownTimerView.setTickInterval(tickInterval);
+
+		final long[] lastRemaining = new long[]{countDownTime};
+		mTestCountDownTimerView.setOnCountDownListener(new CountDownTimerView.OnCountDownListener()
+		{
 			@Override
-			public void onFinish(CountDownTimerView countDownTimerView)
+			public void onCountDownTick(CountDownTimerView countDownTimerView, long remainingMillis)
 			{
-				if (countDownLatch.getCount() != 0)
+				if (mErrorMessage == null && remainingMillis != lastRemaining[0] - tickInterval)
 				{
-					mErrorMessage = "Finished called on and another " + countDownLatch.getCount() + " should come.";
+					mErrorMessage = String.format("Tick with remaining %d came after %d.", remainingMillis, lastRemaining[0]);
 				}
 
-				mFinishedCalled = true;
+				lastRemaining[0] = remainingMillis;
+			}
+
+			@Override
+			public void onFinish(CountDownTimerView countDownTimerView)
+			{
+				mFinishedCount++;
+			}
+		});
+
+		mTestCountDownTimerView.setCountDownTime(countDownTime);
+		mTestCountDownTimerView.restart();
+
+		getScheduler().advanceBy(countDownTime - tickInterval / 2);
+		assertEquals(tickInterval, lastRemaining[0]);
+		assertEquals(0, mFinishedCount);
+
+		getScheduler().advanceBy(tickInterval);
+
+		if (mErrorMessage != null)
+		{
+			fail(mErrorMessage);
+		}
+
+		assertEquals(0, lastRemaining[0]);
+		assertEquals(1, mFinishedCount);
+
+		//display ticks and single wakeup at deadline, which replaced the last display tick
+		assertEquals(countDownTime / tickInterval, getScheduler().getDispatchedTicks());
+		assertEquals(0, getScheduler().getTickersCount());
+	}
+
+	public void testFinishAtDeadlineBetweenTicks() throws Exception
+	{
+		mTestCountDownTimerView.setTickInterval(1000);
+
+		final List<Long> tickRemaining = new ArrayList<Long>();
+		final long[] finishedAt = new long[1];
+		mTestCountDownTimerView.setOnCountDownListener(new CountDownTimerView.OnCountDownListener()
+		{
+			@Override
+			public void onCountDownTick(CountDownTimerView countDownTimerView, long remainingMillis)
+			{
+				tickRemaining.add(remainingMillis);
+			}
+
+			@Override
+			public void onFinish(CountDownTimerView countDownTimerView)
+			{
+				mFinishedCount++;
+				finishedAt[0] = getScheduler().getClock().getTimeMs();
 			}
 		});
 
-		long waitTime = (tickCount * tickInterval);
-		mTestCountDownTimerView.setCountDownTime(waitTime);
+		mTestCountDownTimerView.setCountDownTime(2500);
+		long startTime = getScheduler().getClock().getTimeMs();
+		mTestCountDownTimerView.restart();
+
+		getScheduler().advanceBy(5000);
+
+		//finish does not wait for display tick at 3000
+		assertEquals(Arrays.asList(1500L, 500L, 0L), tickRemaining);
+		assertEquals(1, mFinishedCount);
+		assertEquals(startTime + 2500, finishedAt[0]);
+		assertFalse(mTestCountDownTimerView.isRunning());
+	}
+
+	public void testFinishWhileDetached() throws Exception
+	{
+		mTestCountDownTimerView.setTickInterval(100);
+		mTestCountDownTimerView.setPauseTickingOnWindowDisappear(true);
+
+		final List<Long> tickRemaining = new ArrayList<Long>();
+		final long[] finishedAt = new long[1];
+		mTestCountDownTimerView.setOnCountDownListener(new CountDownTimerView.OnCountDownListener()
+		{
+			@Override
+			public void onCountDownTick(CountDownTimerView countDownTimerView, long remainingMillis)
+			{
+				tickRemaining.add(remainingMillis);
+			}
+
+			@Override
+			public void onFinish(CountDownTimerView countDownTimerView)
+			{
+				mFinishedCount++;
+				finishedAt[0] = getScheduler().getClock().getTimeMs();
+			}
+		});
 
+		mTestCountDownTimerView.setCountDownTime(60000);
+		long startTime = getScheduler().getClock().getTimeMs();
 		mTestCountDownTimerView.restart();
 
-		final boolean tickedRight = countDownLatch.await(waitTime + TOLERANCE_MS, TimeUnit.MILLISECONDS);
+		getScheduler().advanceBy(250);
+		mTestCountDownTimerView.onDetachedFromWindow();
+
+		long dispatched = getScheduler().getDispatchedTicks();
+		getScheduler().advanceBy(120000);
+
+		//no display ticks while detached, only the finish
+		assertEquals(Arrays.asList(59900L, 59800L, 0L), tickRemaining);
+		assertEquals(dispatched + 1, getScheduler().getDispatchedTicks());
+		assertEquals(1, mFinishedCount);
+		assertEquals(startTime + 60000, finishedAt[0]);
+		String zeroText = mTestCountDownTimerView.getMillisFormatter().formatElapsedTime(0);
+		assertEquals(zeroText, mTestCountDownTimerView.getText().toString());
+	}
+
+	public void testBackgroundTickingCallsListenerOnViewThread() throws Exception
+	{
+		//ticking thread needs real time
+		AbstractTimerView.setClock(ElapsedRealtimeClock.INSTANCE);
+		AbstractTimerView.setTickerFactory(new AbstractTimerView.DefaultTickerFactory());
+
+		final CountDownTimerView[] viewHolder = new CountDownTimerView[1];
+		runOnViewLooper(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				CountDownTimerView countDownTimerView = (CountDownTimerView) LayoutInflater.from(getContext()).inflate(R.layout.countdowntimer_test, null);
+				countDownTimerView.setBackgroundTicking(true);
+				countDownTimerView.setTickInterval(10);
+				countDownTimerView.setCountDownTime(50);
+
+				viewHolder[0] = countDownTimerView;
+			}
+		});
+
+		final CountDownTimerView countDownTimerView = viewHolder[0];
+
+		mErrorMessage = null;
+		final CountDownLatch finishLatch = new CountDownLatch(1);
+		countDownTimerView.setOnCountDownListener(new CountDownTimerView.OnCountDownListener()
+		{
+			@Override
+			public void onCountDownTick(CountDownTimerView view, long remainingMillis)
+			{
+				if (Looper.myLooper() != getViewLooper())
+				{
+					mErrorMessage = "Count down tick was not called on view thread.";
+				}
+
+				if (!view.isRunning() || view.getRemainingMs() != remainingMillis)
+				{
+					mErrorMessage = "View state differs from tick with remaining " + remainingMillis;
+				}
+			}
+
+			@Override
+			public void onFinish(CountDownTimerView view)
+			{
+				if (Looper.myLooper() != getViewLooper())
+				{
+					mErrorMessage = "Finish was not called on view thread.";
+				}
+
+				if (view.isRunning())
+				{
+					mErrorMessage = "View was not stopped before finish.";
+				}
+
+				mFinishedCount++;
+				finishLatch.countDown();
+			}
+		});
 
-		assertTrue(String.format("CountDownTimerView did not ticked %d times in %d ms.", tickCount, waitTime), tickedRight);
+		countDownTimerView.restart();
+		final boolean finished = finishLatch.await(500, TimeUnit.MILLISECONDS);
+
+		runOnViewLooper(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				countDownTimerView.setBackgroundTicking(false);
+			}
+		});
+
+		assertTrue("Count down did not finish.", finished);
+		assertEquals(1, mFinishedCount);
+		assertFalse(countDownTimerView.isRunning());
 
 		if (mErrorMessage != null)
 		{
 			fail(mErrorMessage);
 		}
+	}
+
+	public void testElapsedOverCountDownTimeShowsZero() throws Exception
+	{
+		mTestCountDownTimerView.setCountDownTime(60000);
+		mTestCountDownTimerView.setElapsedMs(60000 + 3600000);
+
+		mTestCountDownTimerView.updateTextNow();
 
-		assertTrue("Finished was not called.", mFinishedCalled);
+		String zeroText = mTestCountDownTimerView.getMillisFormatter().formatElapsedTime(0);
+		assertEquals(zeroText, mTestCountDownTimerView.getText().toString());
 	}
 
 	//endregion
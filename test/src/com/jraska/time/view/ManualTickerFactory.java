@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2014, Josef Raška
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.jraska.time.view;
+
+import com.jraska.time.utils.ManualTickScheduler;
+import com.jraska.time.utils.ManualTicker;
+import com.jraska.time.utils.Ticker;
+
+/**
+ * Creates tickers of views ticking in virtual time of given scheduler.
+ */
+public class ManualTickerFactory implements AbstractTimerView.ITickerFactory
+{
+	//region Fields
+
+	private final ManualTickScheduler mScheduler;
+
+	//endregion
+
+	//region Constructors
+
+	public ManualTickerFactory(ManualTickScheduler scheduler)
+	{
+		if (scheduler == null)
+		{
+			throw new IllegalArgumentException("scheduler cannot be null");
+		}
+
+		mScheduler = scheduler;
+	}
+
+	//endregion
+
+	//region ITickerFactory impl
+
+	@Override
+	public Ticker createTicker(AbstractTimerView.TickerFactoryParameters parameters)
+	{
+		return new ManualTicker(mScheduler, parameters.getTickListener(), parameters.getTickInterval());
+	}
+
+	//endregion
+}
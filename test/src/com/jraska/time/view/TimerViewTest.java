@@ -16,11 +16,21 @@
 
 package com.jraska.time.view;
 
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import com.jraska.time.common.StartStopTestPart;
 import com.jraska.time.demo.R;
-
+import com.jraska.time.format.FastSecondsFormatter;
+import com.jraska.time.format.FastSplitSecondFormatter;
+import com.jraska.time.format.IMillisFormatter;
+import com.jraska.time.format.SecondFractionDisplay;
+import com.jraska.time.utils.ElapsedRealtimeClock;
+import com.jraska.time.utils.TimingThread;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -35,8 +45,6 @@ public class TimerViewTest extends TimerViewTestBase
 
 	private TimerView mTestTimerView;
 
-	private final Object mSyncLock = new Object();
-
 	//endregion
 
 	//region TestCase impl
@@ -81,6 +89,39 @@ public class TimerViewTest extends TimerViewTestBase
 		assertFalse(timerView.isPauseTickingOnWindowDisappear());
 	}
 
+	public void testSameConfigurationSharesFormatter() throws Exception
+	{
+		TimerView first = (TimerView) LayoutInflater.from(getContext()).inflate(R.layout.timer_test, null);
+		TimerView second = (TimerView) LayoutInflater.from(getContext()).inflate(R.layout.timer_test, null);
+
+		assertSame(first.getMillisFormatter(), second.getMillisFormatter());
+	}
+
+	public void testUnchangedTextSkipped() throws Exception
+	{
+		TimerView timerView = (TimerView) LayoutInflater.from(getContext()).inflate(R.layout.timer_test, null);
+		timerView.setMillisFormatter(new FastSecondsFormatter());
+
+		timerView.updateText(1000);
+		long applied = timerView.getAppliedTextUpdates();
+		long skipped = timerView.getSkippedTextUpdates();
+
+		//same second gives the same text
+		timerView.updateText(1500);
+		assertEquals(applied, timerView.getAppliedTextUpdates());
+		assertEquals(skipped + 1, timerView.getSkippedTextUpdates());
+		assertEquals(1500, timerView.getLastDisplayedMs());
+
+		timerView.updateText(2000);
+		assertEquals(applied + 1, timerView.getAppliedTextUpdates());
+		assertEquals("00:02", timerView.getText().toString());
+
+		//text set from outside must be replaced
+		timerView.setText("text");
+		timerView.updateText(2000);
+		assertEquals("00:02", timerView.getText().toString());
+	}
+
 	public void testPauseSyncOnDetaching() throws Exception
 	{
 		prepareTimerView();
@@ -114,37 +155,24 @@ public class TimerViewTest extends TimerViewTestBase
 		mTestTimerView.start();
 
 		long initWaitTime = tickInterval * (tickCount - 1) + tickInterval / 2; // will pause ticking on detach
-		synchronized (mSyncLock)
-		{
-			mSyncLock.wait(initWaitTime);
-		}
+		getScheduler().advanceBy(initWaitTime);
 
 		mTestTimerView.onDetachedFromWindow();
 
-		synchronized (mSyncLock)
-		{
-			mSyncLock.wait(detachedTime);
-		}
+		getScheduler().advanceBy(detachedTime);
 
 		assertTrue("TimerView did not paused on detach", countDownLatch.getCount() == 1);
 
 		mTestTimerView.onAttachedToWindow();
 
 		long remainingTime = totalTime - initWaitTime - detachedTime;
+		getScheduler().advanceBy(remainingTime);
 
-		final boolean countedDown = countDownLatch.await(remainingTime + TOLERANCE_MS, TimeUnit.MILLISECONDS);
 		String notCountedMessage = "TimerView did not counted " + tickCount + " times in " + totalTime + " with " + detachedTime + "ms detached.";
-		assertTrue(notCountedMessage, countedDown);
+		assertEquals(notCountedMessage, 0, countDownLatch.getCount());
 
 		//timer was stopped on last tick - millis should match the period of ticking
-		long elapsed = mTestTimerView.getElapsedMs();
-		boolean syncedElapsed = (elapsed + 1) % tickInterval <= TOLERANCE_MS;
-		String notSyncedMessage = String.format("Elapsed %d is not synced with interval %d.", elapsed, tickInterval);
-		assertTrue(notSyncedMessage, syncedElapsed);
-
-		boolean runTooFast = elapsed + TOLERANCE_MS < totalTime;
-		String tooFastMessage = String.format("Timer view ticked too fast expected: %d but was: %d", totalTime, elapsed);
-		assertFalse(tooFastMessage, runTooFast);
+		assertEquals(totalTime, mTestTimerView.getElapsedMs());
 	}
 
 	private String mErrorMessage;
@@ -155,29 +183,58 @@ public class TimerViewTest extends TimerViewTestBase
 		mTestTimerView.setTickInterval(tickInterval);
 		int tickCount = 3;
 
-		final CountDownLatch countDownLatch = new CountDownLatch(tickCount);
+		final List<Long> tickElapsed = new ArrayList<Long>();
+		mTestTimerView.setOnTimerTickListener(new TimerView.OnTimerTickListener()
+		{
+			@Override
+			public void onTick(TimerView timerView, long elapsedMillis)
+			{
+				tickElapsed.add(elapsedMillis);
+			}
+		});
+
+		mTestTimerView.restart();
+		getScheduler().advanceBy(tickCount * tickInterval + tickInterval / 2);
+		mTestTimerView.stop();
+
+		assertEquals(Arrays.asList(20L, 40L, 60L), tickElapsed);
+	}
+
+	public void testListenerSeesTickSnapshot() throws Exception
+	{
+		mTestTimerView.setTickInterval(20);
+		mTestTimerView.setMillisFormatter(new FastSplitSecondFormatter(SecondFractionDisplay.Millis));
+		int tickCount = 3;
+
+		mErrorMessage = null;
+		final List<Long> tickElapsed = new ArrayList<Long>();
 		mTestTimerView.setOnTimerTickListener(new TimerView.OnTimerTickListener()
 		{
 			@Override
 			public void onTick(TimerView timerView, long elapsedMillis)
 			{
-				if (countDownLatch.getCount() == 0)
+				//clock moves during callback, but values of the tick must stay the same
+				getScheduler().getClock().advance(5);
+
+				long elapsed = timerView.getElapsedMs();
+				long displayed = timerView.getLastDisplayedMs();
+				if (elapsed != elapsedMillis || displayed != elapsedMillis)
 				{
-					mErrorMessage = "TimerView ticked too fast.";
+					mErrorMessage = String.format("Tick %d read elapsed %d and displayed %d.", elapsedMillis, elapsed, displayed);
 				}
 
-				countDownLatch.countDown();
+				tickElapsed.add(elapsedMillis);
 			}
 		});
 
 		mTestTimerView.restart();
+		getScheduler().advanceBy(tickCount * 20);
 
-		long waitTime = (tickCount * tickInterval);
-		final boolean tickedRight = countDownLatch.await(waitTime + TOLERANCE_MS, TimeUnit.MILLISECONDS);
-
+		//clock moved in callback is visible after the tick
+		assertEquals(tickCount * 20 + 5, mTestTimerView.getElapsedMs());
 		mTestTimerView.stop();
 
-		assertTrue(String.format("TimerView did not ticked %d times in %d ms.", tickCount, waitTime), tickedRight);
+		assertEquals(Arrays.asList(20L, 40L, 60L), tickElapsed);
 
 		if (mErrorMessage != null)
 		{
@@ -185,6 +242,169 @@ public class TimerViewTest extends TimerViewTestBase
 		}
 	}
 
+	public void testBackgroundTicking() throws Exception
+	{
+		//ticking thread needs real time
+		AbstractTimerView.setClock(ElapsedRealtimeClock.INSTANCE);
+		AbstractTimerView.setTickerFactory(new AbstractTimerView.DefaultTickerFactory());
+
+		final TimerView[] viewHolder = new TimerView[1];
+		final IMillisFormatter formatter = new FastSplitSecondFormatter(SecondFractionDisplay.Hundredth);
+		runOnViewLooper(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				TimerView timerView = (TimerView) LayoutInflater.from(getContext()).inflate(R.layout.timer_test_main, null);
+				timerView.setBackgroundTicking(true);
+				timerView.setMillisFormatter(formatter);
+				timerView.setTickInterval(10);
+
+				viewHolder[0] = timerView;
+			}
+		});
+
+		final TimerView timerView = viewHolder[0];
+
+		mErrorMessage = null;
+		final CountDownLatch countDownLatch = new CountDownLatch(5);
+		timerView.setOnTimerTickListener(new TimerView.OnTimerTickListener()
+		{
+			@Override
+			public void onTick(TimerView timerView, long elapsedMillis)
+			{
+				if (Looper.myLooper() != getViewLooper())
+				{
+					mErrorMessage = "Tick listener was not called on view thread.";
+				}
+
+				if (timerView.getElapsedMs() != elapsedMillis)
+				{
+					mErrorMessage = "Elapsed " + timerView.getElapsedMs() + " differs from tick " + elapsedMillis;
+				}
+
+				countDownLatch.countDown();
+			}
+		});
+
+		timerView.restart();
+		final boolean ticked = countDownLatch.await(50 + 10 * TOLERANCE_MS, TimeUnit.MILLISECONDS);
+		timerView.stop();
+
+		//published text is applied on view thread before this
+		runOnViewLooper(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				String expected = formatter.formatElapsedTime(timerView.getLastDisplayedMs());
+				if (!expected.equals(timerView.getText().toString()))
+				{
+					mErrorMessage = "Text " + timerView.getText() + " was not published, expected " + expected;
+				}
+
+				timerView.setBackgroundTicking(false);
+			}
+		});
+
+		assertTrue("TimerView did not tick in background.", ticked);
+		assertTrue(timerView.getAppliedTextUpdates() > 0);
+
+		if (mErrorMessage != null)
+		{
+			fail(mErrorMessage);
+		}
+	}
+
+	public void testBackgroundTickCallbacksOnTimingThread() throws Exception
+	{
+		//ticking thread needs real time
+		AbstractTimerView.setClock(ElapsedRealtimeClock.INSTANCE);
+		AbstractTimerView.setTickerFactory(new AbstractTimerView.DefaultTickerFactory());
+
+		final TimerView[] viewHolder = new TimerView[1];
+		runOnViewLooper(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				TimerView timerView = (TimerView) LayoutInflater.from(getContext()).inflate(R.layout.timer_test_main, null);
+				timerView.setBackgroundTicking(true);
+				timerView.setTickCallbacksOnTimingThread(true);
+				timerView.setTickInterval(10);
+
+				viewHolder[0] = timerView;
+			}
+		});
+
+		final TimerView timerView = viewHolder[0];
+
+		mErrorMessage = null;
+		final CountDownLatch countDownLatch = new CountDownLatch(5);
+		timerView.setOnTimerTickListener(new TimerView.OnTimerTickListener()
+		{
+			@Override
+			public void onTick(TimerView timerView, long elapsedMillis)
+			{
+				if (Looper.myLooper() != TimingThread.getLooper())
+				{
+					mErrorMessage = "Tick listener was not called on timing thread.";
+				}
+
+				countDownLatch.countDown();
+			}
+		});
+
+		timerView.restart();
+		final boolean ticked = countDownLatch.await(50 + 10 * TOLERANCE_MS, TimeUnit.MILLISECONDS);
+		timerView.stop();
+
+		runOnViewLooper(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				timerView.setBackgroundTicking(false);
+			}
+		});
+
+		assertTrue("TimerView did not tick in background.", ticked);
+
+		if (mErrorMessage != null)
+		{
+			fail(mErrorMessage);
+		}
+	}
+
+	public void testAdaptiveTickingTicksOnTextChange() throws Exception
+	{
+		prepareTimerView();
+
+		mTestTimerView.setTickInterval(10);
+		mTestTimerView.setMillisFormatter(new FastSecondsFormatter());
+		mTestTimerView.setAdaptiveTicking(true);
+
+		final List<Long> tickElapsed = new ArrayList<Long>();
+		mTestTimerView.setOnTimerTickListener(new TimerView.OnTimerTickListener()
+		{
+			@Override
+			public void onTick(TimerView timerView, long elapsedMillis)
+			{
+				tickElapsed.add(elapsedMillis);
+			}
+		});
+
+		mTestTimerView.start();
+		getScheduler().advanceBy(2500);
+
+		mTestTimerView.stop();
+		mTestTimerView.setAdaptiveTicking(false);
+
+		//only ticks on whole seconds, not every 10 ms
+		assertEquals(Arrays.asList(1000L, 2000L), tickElapsed);
+		assertEquals(2, getScheduler().getDispatchedTicks());
+	}
+
 	//Tests previous bug, when even stopped view started its ticker on setting elapsed ms
 	public void testNotStartStoppedTickerOnSettingElapsedMs() throws Exception
 	{
@@ -16,9 +16,12 @@
 
 package com.jraska.time.view;
 
+import android.os.Handler;
 import android.os.Looper;
 import android.test.AndroidTestCase;
 import android.view.LayoutInflater;
+import com.jraska.time.utils.ElapsedRealtimeClock;
+import com.jraska.time.utils.ManualTickScheduler;
 
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -35,6 +38,7 @@ public abstract class TimerViewTestBase extends AndroidTestCase
 
 	private AbstractTimerView mTestView;
 	private Looper mViewLooper;
+	private ManualTickScheduler mScheduler;
 
 	//endregion
 
@@ -45,6 +49,19 @@ public abstract class TimerViewTestBase extends AndroidTestCase
 		return mTestView;
 	}
 
+	public Looper getViewLooper()
+	{
+		return mViewLooper;
+	}
+
+	/**
+	 * @return Scheduler driving the test view, the view ticks only when the scheduler is advanced.
+	 */
+	public ManualTickScheduler getScheduler()
+	{
+		return mScheduler;
+	}
+
 	//endregion
 
 	//region TestCase impl
@@ -54,6 +71,11 @@ public abstract class TimerViewTestBase extends AndroidTestCase
 	{
 		super.setUp();
 
+		//test view runs in virtual time
+		mScheduler = new ManualTickScheduler();
+		AbstractTimerView.setClock(mScheduler.getClock());
+		AbstractTimerView.setTickerFactory(new ManualTickerFactory(mScheduler));
+
 		//latch for waiting to not start tests before thread setup is finished
 		final CountDownLatch workerThreadSetupLatch = new CountDownLatch(1);
 
@@ -86,6 +108,9 @@ public abstract class TimerViewTestBase extends AndroidTestCase
 	{
 		mTestView.stop();
 		mViewLooper.quit();
+
+		AbstractTimerView.setClock(ElapsedRealtimeClock.INSTANCE);
+		AbstractTimerView.setTickerFactory(new AbstractTimerView.DefaultTickerFactory());
 	}
 
 	//endregion
@@ -94,5 +119,21 @@ public abstract class TimerViewTestBase extends AndroidTestCase
 
 	protected abstract int getLayoutResId();
 
+	protected void runOnViewLooper(final Runnable runnable) throws InterruptedException
+	{
+		final CountDownLatch doneLatch = new CountDownLatch(1);
+		new Handler(getViewLooper()).post(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				runnable.run();
+				doneLatch.countDown();
+			}
+		});
+
+		assertTrue("View looper did not run the task.", doneLatch.await(500, TimeUnit.MILLISECONDS));
+	}
+
 	//endregion
 }